@@ -0,0 +1,258 @@
+/*
+ * Moresby Coffee Bean
+ *
+ * Copyright (c) 2012, Barnabas Sudy (barnabas.sudy@gmail.com)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.moresbycoffee.pass;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.moresbycoffee.pass.api.Converter;
+import org.moresbycoffee.pass.api.ConverterException;
+import org.moresbycoffee.pass.api.Converters;
+import org.moresbycoffee.pass.api.FlatChain;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * <p>Conversions through the {@link ConverterContext}: direct and chained conversions from the resolution cache, in a modifiable and
+ * in a frozen context, with both plan backends and with metrics, batches, and the cost of a resolution after a modification of the
+ * context.</p>
+ *
+ * <p>{@link #compiledPlans()} runs four chains of cheap stages compiled by the backend, so the cost of the dispatch between the stages
+ * dominates. The interpreted chains call their stages from the same loop, which sees every stage class; the chains compiled by
+ * {@link PlanBackend#METHOD_HANDLES} are inlined into their own generated classes.</p>
+ *
+ * <p>The small registry contains only the converters of the conversions; the large one contains every built-in converter of
+ * {@link Converters} and a set of converters between collection types in addition, so the path search has more edges to visit.</p>
+ *
+ * <p>The benchmark is in the package of the context because {@link ConverterContext#convert(Object, java.lang.reflect.Type)} is
+ * package-private.</p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ConverterContextBenchmark {
+
+    private static final int BATCH_SIZE = 1000;
+
+    @Param({ "small", "large" })
+    private String registry;
+
+    @Param({ "INTERPRETED", "METHOD_HANDLES" })
+    private PlanBackend backend;
+
+    private ConverterContext context;
+    private ConverterContext frozen;
+    private ConverterContext instrumented;
+    private List<String> batch;
+    private List<Converter<Object, Object>> plans;
+
+    @Setup
+    public void setUp() throws IllegalAccessException {
+        final List<Converter<?, ?>> converters = new ArrayList<Converter<?, ?>>();
+        converters.add(Converters.STRING_TO_LONG);
+        converters.add(Converters.TIMESTAMP_TO_DATE);
+        converters.add(Converters.STRING_TO_BIGDECIMAL);
+        if ("large".equals(registry)) {
+            for (final Field field : Converters.class.getFields()) {
+                if (Modifier.isStatic(field.getModifiers()) && Converter.class.isAssignableFrom(field.getType())
+                        && !converters.contains(field.get(null))) {
+                    converters.add((Converter<?, ?>) field.get(null));
+                }
+            }
+            converters.add(new ToList<String>() { });
+            converters.add(new ToList<Long>() { });
+            converters.add(new ToList<Date>() { });
+            converters.add(new ToList<BigDecimal>() { });
+            converters.add(new ToList<byte[]>() { });
+            converters.add(new ToList<List<String>>() { });
+            converters.add(new ToList<List<Long>>() { });
+            converters.add(new ToList<Map<String, String>>() { });
+            converters.add(new ToList<Set<String>>() { });
+            converters.add(new ToList<Collection<String>>() { });
+        }
+
+        context = new ConverterContext();
+        final ConverterContext.Builder builder = ConverterContext.builder().planBackend(backend);
+        for (final Converter<?, ?> converter : converters) {
+            context.add(converter);
+            builder.add(converter);
+        }
+        context.setPlanBackend(backend);
+        frozen = builder.build();
+
+        instrumented = new ConverterContext();
+        for (final Converter<?, ?> converter : converters) {
+            instrumented.add(converter);
+        }
+        instrumented.setPlanBackend(backend);
+        instrumented.setMetrics(new ConversionMetrics(64));
+
+        plans = new ArrayList<Converter<Object, Object>>();
+        plans.add(compile(new Increment(), new Twice(), new Negate(), new Flip()));
+        plans.add(compile(new Flip(), new Increment(), new Twice()));
+        plans.add(compile(new Negate(), new Flip(), new Increment(), new Twice()));
+        plans.add(compile(new Twice(), new Negate()));
+
+        batch = new ArrayList<String>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            batch.add(Long.toString(1349000000000L + i));
+        }
+    }
+
+    @Benchmark
+    public Long direct() {
+        return context.convert("1349000000000", Long.class);
+    }
+
+    @Benchmark
+    public Date chained() {
+        return context.convert("1349000000000", Date.class);
+    }
+
+    @Benchmark
+    public Date frozenChained() {
+        return frozen.convert("1349000000000", Date.class);
+    }
+
+    @Benchmark
+    public Date instrumentedChained() {
+        return instrumented.convert("1349000000000", Date.class);
+    }
+
+    /** A modification of the context drops the resolution cache, so the conversion resolves the path and compiles the plan again. */
+    @Benchmark
+    public Date resolveAfterModification() {
+        context.setPathPolicy(PathPolicy.FIRST);
+        return context.convert("1349000000000", Date.class);
+    }
+
+    /** Converts a batch element by element, resolving the conversion of every element. */
+    @Benchmark
+    public List<Date> batchByElement() {
+        final List<Date> result = new ArrayList<Date>(batch.size());
+        for (final String element : batch) {
+            result.add(context.<String, Date>convert(element, Date.class));
+        }
+        return result;
+    }
+
+    /** Converts a batch resolving the conversion once. */
+    @Benchmark
+    public List<Date> batchConvertAll() {
+        return context.convertAll(batch, Date.class);
+    }
+
+    /** Runs every chain of {@link #plans} once. */
+    @Benchmark
+    public int compiledPlans() {
+        int sum = 0;
+        for (final Converter<Object, Object> plan : plans) {
+            sum += (Integer) plan.convert(sum & 0xff);
+        }
+        return sum;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Converter<Object, Object> compile(final Converter<?, ?>... stages) {
+        return backend.compile((Converter<Object, Object>) FlatChain.of(stages));
+    }
+
+    /** Wraps an object into a singleton list. The anonymous subclasses give the converters of the large registry different types. */
+    private abstract static class ToList<T> implements Converter<T, List<T>> {
+
+        @Override
+        public List<T> convert(final T from) throws ConverterException {
+            final List<T> list = new ArrayList<T>(1);
+            list.add(from);
+            return list;
+        }
+
+    }
+
+    /** Cheap stage of {@link #plans}. */
+    public static final class Increment implements Converter<Integer, Integer> {
+
+        @Override
+        public Integer convert(final Integer from) throws ConverterException {
+            return from + 1;
+        }
+
+    }
+
+    /** Cheap stage of {@link #plans}. */
+    public static final class Twice implements Converter<Integer, Integer> {
+
+        @Override
+        public Integer convert(final Integer from) throws ConverterException {
+            return from * 2;
+        }
+
+    }
+
+    /** Cheap stage of {@link #plans}. */
+    public static final class Negate implements Converter<Integer, Integer> {
+
+        @Override
+        public Integer convert(final Integer from) throws ConverterException {
+            return -from;
+        }
+
+    }
+
+    /** Cheap stage of {@link #plans}. */
+    public static final class Flip implements Converter<Integer, Integer> {
+
+        @Override
+        public Integer convert(final Integer from) throws ConverterException {
+            return from ^ 0x55;
+        }
+
+    }
+
+}
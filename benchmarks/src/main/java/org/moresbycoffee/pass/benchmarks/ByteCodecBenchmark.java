@@ -0,0 +1,128 @@
+/*
+ * Moresby Coffee Bean
+ *
+ * Copyright (c) 2012, Barnabas Sudy (barnabas.sudy@gmail.com)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.moresbycoffee.pass.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.moresbycoffee.pass.api.ByteCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The bulk array methods of {@link ByteCodec} against the per-element loop over the single-value methods, in both byte orders.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ByteCodecBenchmark {
+
+    @Param({ "16", "1024" })
+    private int length;
+
+    @Param({ "BIG_ENDIAN", "LITTLE_ENDIAN" })
+    private String order;
+
+    private ByteCodec codec;
+    private int[] ints;
+    private long[] longs;
+    private double[] doubles;
+    private byte[] bytes;
+
+    @Setup
+    public void setUp() throws ReflectiveOperationException {
+        codec   = (ByteCodec) ByteCodec.class.getField(order).get(null);
+        ints    = new int[length];
+        longs   = new long[length];
+        doubles = new double[length];
+        for (int i = 0; i < length; i++) {
+            ints[i]    = i * 7919;
+            longs[i]   = i * 1000000007L;
+            doubles[i] = i / 7d;
+        }
+        bytes = new byte[length * 8];
+        codec.putLongs(bytes, 0, longs, 0, length);
+    }
+
+    @Benchmark
+    public byte[] putInts() {
+        codec.putInts(bytes, 0, ints, 0, length);
+        return bytes;
+    }
+
+    @Benchmark
+    public byte[] putIntsLoop() {
+        int offset = 0;
+        for (int i = 0; i < length; i++) {
+            offset = codec.putInt(bytes, offset, ints[i]);
+        }
+        return bytes;
+    }
+
+    @Benchmark
+    public long[] getLongs() {
+        codec.getLongs(bytes, 0, longs, 0, length);
+        return longs;
+    }
+
+    @Benchmark
+    public long[] getLongsLoop() {
+        for (int i = 0; i < length; i++) {
+            longs[i] = codec.getLong(bytes, i * 8);
+        }
+        return longs;
+    }
+
+    @Benchmark
+    public byte[] putDoubles() {
+        codec.putDoubles(bytes, 0, doubles, 0, length);
+        return bytes;
+    }
+
+    @Benchmark
+    public byte[] putDoublesLoop() {
+        int offset = 0;
+        for (int i = 0; i < length; i++) {
+            offset = codec.putDouble(bytes, offset, doubles[i]);
+        }
+        return bytes;
+    }
+
+}
@@ -0,0 +1,95 @@
+/*
+ * Moresby Coffee Bean
+ *
+ * Copyright (c) 2012, Barnabas Sudy (barnabas.sudy@gmail.com)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.moresbycoffee.pass.benchmarks;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.moresbycoffee.pass.api.Converter;
+import org.moresbycoffee.pass.api.Converters;
+import org.moresbycoffee.pass.api.FlatChain;
+import org.moresbycoffee.pass.api.MemoizingConverter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Nested {@link Converters.Chain}s against the flattened and fused {@link FlatChain}, and a memoized chain against the plain one.
+ * The chains parse a timestamp, convert it to a {@link Date} and back and format it: the primitive stages can be fused into one.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ChainBenchmark {
+
+    private static final String INPUT = "1349000000000";
+
+    private Converter<String, String> nested;
+    private Converter<String, String> flat;
+    private Converter<String, String> memoized;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        nested = new Converters.Chain<String, Long, String>(
+                new Converters.Chain<String, Date, Long>(
+                        new Converters.Chain<String, Long, Date>(Converters.STRING_TO_LONG, Converters.TIMESTAMP_TO_DATE),
+                        Converters.DATE_TO_TIMESTAMP),
+                Converters.LONG_TO_STRING);
+        flat = (Converter<String, String>) FlatChain.of(Converters.STRING_TO_LONG, Converters.TIMESTAMP_TO_DATE,
+                                                        Converters.DATE_TO_TIMESTAMP, Converters.LONG_TO_STRING);
+        memoized = MemoizingConverter.of(flat, 1024);
+    }
+
+    @Benchmark
+    public String nestedChain() {
+        return nested.convert(INPUT);
+    }
+
+    @Benchmark
+    public String flatChain() {
+        return flat.convert(INPUT);
+    }
+
+    @Benchmark
+    public String memoizedChain() {
+        return memoized.convert(INPUT);
+    }
+
+}
@@ -0,0 +1,137 @@
+/*
+ * Moresby Coffee Bean
+ *
+ * Copyright (c) 2012, Barnabas Sudy (barnabas.sudy@gmail.com)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.moresbycoffee.pass.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.moresbycoffee.pass.api.Converter;
+import org.moresbycoffee.pass.api.Converters;
+import org.moresbycoffee.pass.api.Parallelism;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The collection helpers of {@link Converters}: eager, parallel, lazy and streaming conversion of lists and map values, and the
+ * extraction of a map.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class CollectionsBenchmark {
+
+    @Param({ "100", "100000" })
+    private int size;
+
+    private List<String> strings;
+    private Map<Integer, String> map;
+    private Converter<String, Long> parser;
+    private ExecutorService executor;
+    private Parallelism parallelism;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        strings = new ArrayList<String>(size);
+        map = new LinkedHashMap<Integer, String>();
+        for (int i = 0; i < size; i++) {
+            final String value = Long.toString(i * 1000000007L);
+            strings.add(value);
+            map.put(Integer.valueOf(i), value);
+        }
+        parser = Converters.STRING_TO_LONG;
+        executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        parallelism = Parallelism.using(executor).withThreshold(1000);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Benchmark
+    public List<Long> convertList() {
+        return Converters.convertList(parser, strings);
+    }
+
+    @Benchmark
+    public List<Long> convertListParallel() {
+        return Converters.convertList(parser, strings, parallelism);
+    }
+
+    /** Reads every element of a lazy list once. */
+    @Benchmark
+    public long lazyList() {
+        long sum = 0;
+        for (final Long value : Converters.lazyList(parser, strings, false)) {
+            sum += value.longValue();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public long convertIterator() {
+        long sum = 0;
+        final Iterator<Long> iterator = Converters.<String, Long>convertIterator(parser, strings.iterator());
+        while (iterator.hasNext()) {
+            sum += iterator.next().longValue();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public Map<Integer, Long> convertMapValues() {
+        return Converters.convertMapValues(parser, map);
+    }
+
+    @Benchmark
+    public Map<Long, String> extractHashMap() {
+        return Converters.extractHashMap(parser, strings);
+    }
+
+}
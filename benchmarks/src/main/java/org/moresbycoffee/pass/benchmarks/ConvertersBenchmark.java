@@ -0,0 +1,143 @@
+/*
+ * Moresby Coffee Bean
+ *
+ * Copyright (c) 2012, Barnabas Sudy (barnabas.sudy@gmail.com)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.moresbycoffee.pass.benchmarks;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.moresbycoffee.pass.api.Converter;
+import org.moresbycoffee.pass.api.Converters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Throughput of the built-in converters of {@link Converters}, one benchmark per converter constant. The inputs are typical values of the
+ * input types; the array converters get 256 elements.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ConvertersBenchmark {
+
+    /** The length of the array inputs. */
+    private static final int ARRAY_LENGTH = 256;
+
+    /** The inputs by the names of the converter constants. */
+    private static final Map<String, Object> INPUTS = new HashMap<String, Object>();
+
+    static {
+        final int[] ints = new int[ARRAY_LENGTH];
+        final long[] longs = new long[ARRAY_LENGTH];
+        final float[] floats = new float[ARRAY_LENGTH];
+        final double[] doubles = new double[ARRAY_LENGTH];
+        for (int i = 0; i < ARRAY_LENGTH; i++) {
+            ints[i]    = i * 7919;
+            longs[i]   = i * 1000000007L;
+            floats[i]  = i / 3f;
+            doubles[i] = i / 7d;
+        }
+        INPUTS.put("INT_TO_BYTE", Integer.valueOf(123456789));
+        INPUTS.put("BYTE_TO_INT", Converters.INT_TO_BYTE.convert(Integer.valueOf(123456789)));
+        INPUTS.put("LONG_TO_BYTE", Long.valueOf(1234567890123L));
+        INPUTS.put("BYTE_TO_LONG", Converters.LONG_TO_BYTE.convert(Long.valueOf(1234567890123L)));
+        INPUTS.put("DOUBLE_TO_BYTE", Double.valueOf(Math.PI));
+        INPUTS.put("FLOAT_TO_BYTE", Float.valueOf((float) Math.E));
+        INPUTS.put("INT_ARRAY_TO_BYTE", ints);
+        INPUTS.put("BYTE_TO_INT_ARRAY", Converters.INT_ARRAY_TO_BYTE.convert(ints));
+        INPUTS.put("LONG_ARRAY_TO_BYTE", longs);
+        INPUTS.put("BYTE_TO_LONG_ARRAY", Converters.LONG_ARRAY_TO_BYTE.convert(longs));
+        INPUTS.put("FLOAT_ARRAY_TO_BYTE", floats);
+        INPUTS.put("BYTE_TO_FLOAT_ARRAY", Converters.FLOAT_ARRAY_TO_BYTE.convert(floats));
+        INPUTS.put("DOUBLE_ARRAY_TO_BYTE", doubles);
+        INPUTS.put("BYTE_TO_DOUBLE_ARRAY", Converters.DOUBLE_ARRAY_TO_BYTE.convert(doubles));
+        INPUTS.put("STRING_TO_UTF8", "Moresby Coffee \u00e1rv\u00edzt\u0171r\u0151 \u2603");
+        INPUTS.put("UTF8_TO_STRING", Converters.STRING_TO_UTF8.convert("Moresby Coffee \u00e1rv\u00edzt\u0171r\u0151 \u2603"));
+        INPUTS.put("STRING_TO_LONG", "1234567890123");
+        INPUTS.put("LONG_TO_STRING", Long.valueOf(1234567890123L));
+        INPUTS.put("STRING_TO_INTEGER", "123456789");
+        INPUTS.put("INTEGER_TO_STRING", Integer.valueOf(123456789));
+        INPUTS.put("STRING_TO_DOUBLE", "12345.6789");
+        INPUTS.put("STRING_TO_FLOAT", "123.456");
+        INPUTS.put("NUMBER_TO_STRING", Double.valueOf(12345.6789));
+        INPUTS.put("LONG_TO_INT", Long.valueOf(123456789L));
+        INPUTS.put("STRING_TO_BOOLEAN", "true");
+        INPUTS.put("STRING_TO_BIGDECIMAL", "12345.6789");
+        INPUTS.put("TO_UPPERCASE", "Moresby Coffee");
+        INPUTS.put("TO_LOWERCASE", "Moresby Coffee");
+        INPUTS.put("TRIM", "  Moresby Coffee  ");
+        INPUTS.put("TIMESTAMP_TO_DATE", Long.valueOf(1349000000000L));
+        INPUTS.put("DATE_TO_TIMESTAMP", new Date(1349000000000L));
+        INPUTS.put("TO_STRING", new BigDecimal("12345.6789"));
+        INPUTS.put("SORT", Arrays.asList("delta", "alpha", "echo", "charlie", "bravo"));
+    }
+
+    /** The name of the benchmarked converter constant of {@link Converters}. */
+    @Param({ "INT_TO_BYTE", "BYTE_TO_INT", "LONG_TO_BYTE", "BYTE_TO_LONG", "DOUBLE_TO_BYTE", "FLOAT_TO_BYTE",
+             "INT_ARRAY_TO_BYTE", "BYTE_TO_INT_ARRAY", "LONG_ARRAY_TO_BYTE", "BYTE_TO_LONG_ARRAY",
+             "FLOAT_ARRAY_TO_BYTE", "BYTE_TO_FLOAT_ARRAY", "DOUBLE_ARRAY_TO_BYTE", "BYTE_TO_DOUBLE_ARRAY",
+             "STRING_TO_UTF8", "UTF8_TO_STRING", "STRING_TO_LONG", "LONG_TO_STRING", "STRING_TO_INTEGER", "INTEGER_TO_STRING",
+             "STRING_TO_DOUBLE", "STRING_TO_FLOAT", "NUMBER_TO_STRING", "LONG_TO_INT", "STRING_TO_BOOLEAN", "STRING_TO_BIGDECIMAL",
+             "TO_UPPERCASE", "TO_LOWERCASE", "TRIM", "TIMESTAMP_TO_DATE", "DATE_TO_TIMESTAMP", "TO_STRING", "SORT" })
+    private String converterName;
+
+    private Converter<Object, Object> converter;
+    private Object input;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() throws ReflectiveOperationException {
+        converter = (Converter<Object, Object>) Converters.class.getField(converterName).get(null);
+        input = INPUTS.get(converterName);
+        if (input == null) {
+            throw new IllegalStateException("No input for " + converterName);
+        }
+    }
+
+    @Benchmark
+    public Object convert() {
+        return converter.convert(input);
+    }
+
+}
@@ -0,0 +1,123 @@
+/*
+ * Moresby Coffee Bean
+ *
+ * Copyright (c) 2012, Barnabas Sudy (barnabas.sudy@gmail.com)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.moresbycoffee.pass.benchmarks;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+import org.moresbycoffee.pass.api.ConversionResult;
+import org.moresbycoffee.pass.api.ConverterException;
+import org.moresbycoffee.pass.api.Converters;
+import org.moresbycoffee.pass.api.NumberParsers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link NumberParsers} against the JDK parsers (and {@link BigDecimal} for the decimals) on short and long inputs, and the cost of an
+ * invalid input through the throwing and the non-throwing conversion.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class NumberParsersBenchmark {
+
+    private static final String INVALID = "12345x";
+
+    @Param({ "42", "-1234567890123456" })
+    private String integral;
+
+    @Param({ "0.5", "-12345.678901234", "6.02214076E23" })
+    private String decimal;
+
+    @Benchmark
+    public long parseLong() {
+        return NumberParsers.parseLong(integral);
+    }
+
+    @Benchmark
+    public long parseLongJdk() {
+        return Long.parseLong(integral);
+    }
+
+    @Benchmark
+    public double parseDouble() {
+        return NumberParsers.parseDouble(decimal);
+    }
+
+    @Benchmark
+    public double parseDoubleJdk() {
+        return Double.parseDouble(decimal);
+    }
+
+    @Benchmark
+    public double parseDoubleBigDecimal() {
+        return new BigDecimal(decimal).doubleValue();
+    }
+
+    @Benchmark
+    public float parseFloat() {
+        return NumberParsers.parseFloat(decimal);
+    }
+
+    @Benchmark
+    public float parseFloatJdk() {
+        return Float.parseFloat(decimal);
+    }
+
+    @Benchmark
+    public Long convertInvalid() {
+        try {
+            return Converters.STRING_TO_LONG.convert(INVALID);
+        } catch (final ConverterException e) {
+            return null;
+        }
+    }
+
+    @Benchmark
+    public ConversionResult<Long> tryConvertInvalid() {
+        return Converters.tryConvert(Converters.STRING_TO_LONG, INVALID);
+    }
+
+    @Benchmark
+    public ConversionResult<Long> tryConvertValid() {
+        return Converters.tryConvert(Converters.STRING_TO_LONG, integral);
+    }
+
+}
@@ -0,0 +1,93 @@
+/*
+ * Moresby Coffee Bean
+ *
+ * Copyright (c) 2012, Barnabas Sudy (barnabas.sudy@gmail.com)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.moresbycoffee.pass;
+
+import java.lang.reflect.Type;
+
+/**
+ * <p>Immutable key of a conversion: the runtime class of the input object and the requested output type.</p>
+ *
+ * <p>Used as the key of the resolution cache of the {@link ConverterContext}. The hash code is computed once
+ * in the constructor, so a cache probe costs one <tt>equals</tt> call of the output {@link Type} at most.</p>
+ */
+final class ConversionKey {
+
+    /** The runtime class of the input object. */
+    private final Class<?> sourceClass;
+    /** The requested output type. */
+    private final Type targetType;
+    /** The precomputed hash code. */
+    private final int hash;
+
+    /**
+     * @param sourceClass The runtime class of the input object. (NonNull)
+     * @param targetType The requested output type. (NonNull)
+     */
+    ConversionKey(final Class<?> sourceClass, final Type targetType) {
+        this.sourceClass = sourceClass;
+        this.targetType  = targetType;
+        this.hash        = 31 * sourceClass.hashCode() + targetType.hashCode();
+    }
+
+    /** @return The runtime class of the input object. */
+    Class<?> getSourceClass() {
+        return sourceClass;
+    }
+
+    /** @return The requested output type. */
+    Type getTargetType() {
+        return targetType;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public boolean equals(final Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof ConversionKey)) {
+            return false;
+        }
+        final ConversionKey other = (ConversionKey) obj;
+        return hash == other.hash && sourceClass == other.sourceClass && targetType.equals(other.targetType);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String toString() {
+        return sourceClass.getName() + " -> " + targetType;
+    }
+
+}
@@ -0,0 +1,335 @@
+/*
+ * Moresby Coffee Bean
+ *
+ * Copyright (c) 2012, Barnabas Sudy (barnabas.sudy@gmail.com)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.moresbycoffee.pass;
+
+import java.lang.reflect.Type;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.moresbycoffee.pass.api.ConversionResult;
+import org.moresbycoffee.pass.api.Converter;
+import org.moresbycoffee.pass.api.ConverterException;
+import org.moresbycoffee.pass.api.Converters;
+import org.moresbycoffee.pass.api.TryConverter;
+
+/**
+ * <p>Call, failure and latency metrics of the conversions of a {@link ConverterContext}, see
+ * {@link ConverterContext#setMetrics(ConversionMetrics)}.</p>
+ *
+ * <p>The metrics are recorded per registered converter and per conversion (input class, output type). Every call and failure is
+ * counted, but only every {@link #getSamplingInterval() n-th} call is timed (randomly chosen), so the cost of the
+ * {@link System#nanoTime()} calls can be tuned down for production use. The latencies are collected in power of two histograms, see
+ * {@link ConversionStats}. The call counters are striped over the threads, so the instrumented conversions running on different
+ * threads don't contend on a shared counter.</p>
+ *
+ * <p>The instrumentation is compiled into the conversion plans, so a context without metrics pays nothing for it. An instrumented
+ * plan calls its converters one by one: the converters of a path are not fused (see {@link org.moresbycoffee.pass.api.FlatChain}).</p>
+ *
+ * <p>The metrics can be shared by more contexts and they are exported to JMX by registering them in an MBean server, see
+ * {@link ConversionMetricsMXBean}. This class is thread-safe.</p>
+ */
+public final class ConversionMetrics implements ConversionMetricsMXBean {
+
+    /** Every how many calls the latency is measured. */
+    private final int samplingInterval;
+
+    /** The recorders of the registered converters. */
+    private final ConcurrentMap<Converter<?, ?>, Recorder> converterRecorders = new ConcurrentHashMap<Converter<?, ?>, Recorder>();
+
+    /** The recorders of the conversions. */
+    private final ConcurrentMap<ConversionKey, Recorder> conversionRecorders = new ConcurrentHashMap<ConversionKey, Recorder>();
+
+    /**
+     * @param samplingInterval Every how many calls the latency is measured on average. <tt>1</tt> means every call is timed. (Positive)
+     */
+    public ConversionMetrics(final int samplingInterval) {
+        if (samplingInterval < 1) {
+            throw new IllegalArgumentException("The sampling interval has to be positive: " + samplingInterval);
+        }
+        this.samplingInterval = samplingInterval;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public int getSamplingInterval() {
+        return samplingInterval;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The name of a converter is the name of its class and its input and output types.</p>
+     */
+    @Override
+    public Map<String, ConversionStats> getConverterStats() {
+        final Map<String, ConversionStats> stats = new LinkedHashMap<String, ConversionStats>();
+        for (final Recorder recorder : converterRecorders.values()) {
+            stats.put(recorder.name, recorder.snapshot());
+        }
+        return stats;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public Map<String, ConversionStats> getConversionStats() {
+        final Map<String, ConversionStats> stats = new LinkedHashMap<String, ConversionStats>();
+        for (final Recorder recorder : conversionRecorders.values()) {
+            stats.put(recorder.name, recorder.snapshot());
+        }
+        return stats;
+    }
+
+    /**
+     * @param converter The registered converter. (NonNull)
+     * @return The metrics of the converter or <tt>null</tt> if it wasn't called through an instrumented context. (Nullable)
+     */
+    public ConversionStats statsOf(final Converter<?, ?> converter) {
+        final Recorder recorder = converterRecorders.get(converter);
+        return recorder == null ? null : recorder.snapshot();
+    }
+
+    /**
+     * @param sourceClass The class of the input objects. (NonNull)
+     * @param targetType The output type. (NonNull)
+     * @return The metrics of the conversion or <tt>null</tt> if it wasn't done by an instrumented context. (Nullable)
+     */
+    public ConversionStats statsOf(final Class<?> sourceClass, final Type targetType) {
+        final Recorder recorder = conversionRecorders.get(new ConversionKey(sourceClass, targetType));
+        return recorder == null ? null : recorder.snapshot();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public void reset() {
+        for (final Recorder recorder : converterRecorders.values()) {
+            recorder.reset();
+        }
+        for (final Recorder recorder : conversionRecorders.values()) {
+            recorder.reset();
+        }
+    }
+
+    /**
+     * @param registration The registration whose executed converter should be instrumented. (NonNull)
+     * @return The executed converter of the registration recording the metrics of the registered converter. (NonNull)
+     */
+    Converter<?, ?> instrument(final ConverterRegistration registration) {
+        Recorder recorder = converterRecorders.get(registration.converter);
+        if (recorder == null) {
+            final Recorder created = new Recorder(registration.converter.getClass().getName() + "[" + registration + "]");
+            recorder = converterRecorders.putIfAbsent(registration.converter, created);
+            if (recorder == null) {
+                recorder = created;
+            }
+        }
+        return new Instrumented(registration.executable, recorder, samplingInterval);
+    }
+
+    /**
+     * @param key The input class and the output type of the conversion. (NonNull)
+     * @param plan The compiled conversion. (NonNull)
+     * @return The compiled conversion recording the metrics of the conversion. (NonNull)
+     */
+    Converter<?, ?> instrument(final ConversionKey key, final Converter<?, ?> plan) {
+        Recorder recorder = conversionRecorders.get(key);
+        if (recorder == null) {
+            final Recorder created = new Recorder(key.toString());
+            recorder = conversionRecorders.putIfAbsent(key, created);
+            if (recorder == null) {
+                recorder = created;
+            }
+        }
+        return new Instrumented(plan, recorder, samplingInterval);
+    }
+
+    /** Counters and latency histogram of a converter or a conversion. */
+    private static final class Recorder {
+
+        /** The name of the converter or the conversion. */
+        private final String name;
+        private final StripedCounter calls = new StripedCounter();
+        private final AtomicLong converterFailures = new AtomicLong();
+        private final AtomicLong otherFailures = new AtomicLong();
+        private final StripedCounter sampledCalls = new StripedCounter();
+        private final StripedCounter sampledNanos = new StripedCounter();
+        private final AtomicLongArray histogram = new AtomicLongArray(ConversionStats.BUCKETS);
+
+        Recorder(final String name) {
+            this.name = name;
+        }
+
+        /** @param nanos The latency of a sampled call. */
+        void recordLatency(final long nanos) {
+            final long positive = Math.max(nanos, 1L);
+            sampledCalls.add(1L);
+            sampledNanos.add(positive);
+            histogram.incrementAndGet(63 - Long.numberOfLeadingZeros(positive));
+        }
+
+        /** @param failure The exception or error thrown by the converter. */
+        void recordFailure(final Throwable failure) {
+            if (failure instanceof ConverterException) {
+                converterFailures.incrementAndGet();
+            } else {
+                otherFailures.incrementAndGet();
+            }
+        }
+
+        ConversionStats snapshot() {
+            final long[] buckets = new long[ConversionStats.BUCKETS];
+            for (int i = 0; i < buckets.length; i++) {
+                buckets[i] = histogram.get(i);
+            }
+            return new ConversionStats(calls.sum(), converterFailures.get(), otherFailures.get(), sampledCalls.sum(), sampledNanos.sum(), buckets);
+        }
+
+        void reset() {
+            calls.reset();
+            converterFailures.set(0);
+            otherFailures.set(0);
+            sampledCalls.reset();
+            sampledNanos.reset();
+            for (int i = 0; i < ConversionStats.BUCKETS; i++) {
+                histogram.set(i, 0);
+            }
+        }
+
+    }
+
+    /**
+     * <p>Counter striped over cache line padded cells of an {@link AtomicLongArray}, a simplified
+     * <tt>java.util.concurrent.atomic.LongAdder</tt> (which needs Java 8). A thread adds to the cell chosen by the hash of its id,
+     * so threads rarely update the same cache line; the sum is read by adding up the cells.</p>
+     *
+     * <p>The sum read concurrently with the updates is not an atomic snapshot, like the sum of the <tt>LongAdder</tt>.</p>
+     */
+    private static final class StripedCounter {
+
+        /** The number of the cells, a power of two. */
+        private static final int STRIPES = Math.min(Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1), 64);
+
+        /** The distance of the cells in the array: 8 longs fill a 64 byte cache line. */
+        private static final int PADDING = 8;
+
+        /** The cells at every {@link #PADDING}-th index, starting after a padding line. */
+        private final AtomicLongArray cells = new AtomicLongArray((STRIPES + 1) * PADDING);
+
+        void add(final long delta) {
+            final long id = Thread.currentThread().getId();
+            final int hash = (int) (id ^ id >>> 32) * 0x9E3779B9;
+            cells.addAndGet((((hash >>> 16) & (STRIPES - 1)) + 1) * PADDING, delta);
+        }
+
+        long sum() {
+            long sum = 0L;
+            for (int stripe = 1; stripe <= STRIPES; stripe++) {
+                sum += cells.get(stripe * PADDING);
+            }
+            return sum;
+        }
+
+        void reset() {
+            for (int stripe = 1; stripe <= STRIPES; stripe++) {
+                cells.set(stripe * PADDING, 0L);
+            }
+        }
+
+    }
+
+    /** Converter decorator recording the calls of the decorated converter. */
+    private static final class Instrumented implements TryConverter<Object, Object> {
+
+        private final Converter<Object, Object> converter;
+        private final Recorder recorder;
+        private final int samplingInterval;
+
+        @SuppressWarnings("unchecked")
+        Instrumented(final Converter<?, ?> converter, final Recorder recorder, final int samplingInterval) {
+            this.converter        = (Converter<Object, Object>) converter;
+            this.recorder         = recorder;
+            this.samplingInterval = samplingInterval;
+        }
+
+        @Override
+        public Object convert(final Object from) throws ConverterException {
+            recorder.calls.add(1L);
+            final boolean sampled = samplingInterval == 1 || ThreadLocalRandom.current().nextInt(samplingInterval) == 0;
+            final long start = sampled ? System.nanoTime() : 0L;
+            try {
+                return converter.convert(from);
+            } catch (final RuntimeException | Error e) {
+                recorder.recordFailure(e);
+                throw e;
+            } finally {
+                if (sampled) {
+                    recorder.recordLatency(System.nanoTime() - start);
+                }
+            }
+        }
+
+        /**
+         * {@inheritDoc}
+         *
+         * <p>Calls the {@link TryConverter#tryConvert(Object)} method of the decorated converter if it has one, so the failures are
+         * not turned into exceptions; a failed result is recorded like a {@link ConverterException}.</p>
+         */
+        @Override
+        public ConversionResult<Object> tryConvert(final Object from) {
+            recorder.calls.add(1L);
+            final boolean sampled = samplingInterval == 1 || ThreadLocalRandom.current().nextInt(samplingInterval) == 0;
+            final long start = sampled ? System.nanoTime() : 0L;
+            try {
+                final ConversionResult<Object> result = Converters.tryConvert(converter, from);
+                if (!result.isSuccess()) {
+                    recorder.converterFailures.incrementAndGet();
+                }
+                return result;
+            } catch (final RuntimeException | Error e) {
+                recorder.recordFailure(e);
+                throw e;
+            } finally {
+                if (sampled) {
+                    recorder.recordLatency(System.nanoTime() - start);
+                }
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "Instrumented[" + converter + "]";
+        }
+
+    }
+
+}
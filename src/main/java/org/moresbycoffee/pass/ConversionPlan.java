@@ -0,0 +1,183 @@
+/*
+ * Moresby Coffee Bean
+ *
+ * Copyright (c) 2012, Barnabas Sudy (barnabas.sudy@gmail.com)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.moresbycoffee.pass;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.moresbycoffee.pass.api.ConversionResult;
+import org.moresbycoffee.pass.api.Converter;
+import org.moresbycoffee.pass.api.ConverterException;
+import org.moresbycoffee.pass.api.Converters;
+import org.moresbycoffee.pass.api.FlatChain;
+import org.moresbycoffee.pass.api.StacklessConverterException;
+import org.moresbycoffee.pass.api.TryConverter;
+
+/**
+ * <p>Compiles the conversion paths found by the {@link ConverterContext} into executable converters.</p>
+ *
+ * <p>The converters of a path are flattened and fused into a {@link FlatChain}, so executing a plan is a simple loop without any
+ * lookup. A path with a single step is not wrapped at all: {@link #compile(List, ConversionMetrics)} returns the converter of the step itself.</p>
+ */
+final class ConversionPlan {
+
+    /** Hidden constructor of the utility class. */
+    private ConversionPlan() {
+        throw new UnsupportedOperationException("This is a utility class.");
+    }
+
+    /**
+     * Compiles a conversion path into an executable converter.
+     *
+     * @param path The registrations of the path. (NonNull, not empty)
+     * @param metrics The metrics recorded by the converters of the path or <tt>null</tt> if they are not instrumented. (Nullable)
+     * @return The converter which executes the whole path. (NonNull)
+     */
+    @SuppressWarnings("unchecked")
+    static Converter<Object, Object> compile(final List<ConverterRegistration> path, final ConversionMetrics metrics) {
+        final Converter<?, ?>[] stages = new Converter<?, ?>[path.size()];
+        for (int i = 0; i < stages.length; i++) {
+            stages[i] = metrics == null ? path.get(i).executable : metrics.instrument(path.get(i));
+        }
+        return (Converter<Object, Object>) FlatChain.of(stages);
+    }
+
+    /**
+     * Compiles more conversion paths into a converter which converts the input along every path (see
+     * {@link ConverterContext#convertAlongAllPaths(Object, java.lang.reflect.Type)}).
+     *
+     * @param paths The conversion paths. (NonNull, not empty)
+     * @param metrics The metrics recorded by the converters of the paths or <tt>null</tt> if they are not instrumented. (Nullable)
+     * @return The converter which returns the results of the paths in an unmodifiable {@link List}. (NonNull)
+     */
+    static Converter<Object, Object> compileAll(final List<List<ConverterRegistration>> paths, final ConversionMetrics metrics) {
+        final List<Converter<Object, Object>> plans = new ArrayList<Converter<Object, Object>>(paths.size());
+        for (final List<ConverterRegistration> path : paths) {
+            plans.add(compile(path, metrics));
+        }
+        return new Converter<Object, Object>() {
+
+            @Override
+            public Object convert(final Object from) throws ConverterException {
+                final List<Object> results = new ArrayList<Object>(plans.size());
+                for (final Converter<Object, Object> plan : plans) {
+                    results.add(plan.convert(from));
+                }
+                return Collections.unmodifiableList(results);
+            }
+
+        };
+    }
+
+    /**
+     * Creates a placeholder plan for a conversion which can't be done. The placeholder can be cached like any other plan.
+     *
+     * @param message The message of the {@link ConverterException} thrown by the placeholder.
+     * @return The converter which always fails. Its {@link TryConverter#tryConvert(Object)} method returns the failure without
+     *         creating an exception. (NonNull)
+     */
+    static Converter<Object, Object> failure(final String message) {
+        return new TryConverter<Object, Object>() {
+
+            @Override
+            public Object convert(final Object from) throws ConverterException {
+                throw StacklessConverterException.failure(message);
+            }
+
+            @Override
+            public ConversionResult<Object> tryConvert(final Object from) {
+                return ConversionResult.failure(message);
+            }
+
+        };
+    }
+
+    /**
+     * Marks a compiled plan as blocking: it contains a converter which is slow or blocking, see
+     * {@link ConverterContext#setBlocking(Converter, boolean)}.
+     *
+     * @param plan The compiled plan. (NonNull)
+     * @return The plan executing the <tt>plan</tt>. (NonNull)
+     */
+    static Converter<Object, Object> blocking(final Converter<?, ?> plan) {
+        return new BlockingPlan(plan);
+    }
+
+    /**
+     * @param plan A compiled plan. (NonNull)
+     * @return <tt>true</tt> if the plan is {@link #blocking(Converter) blocking}.
+     */
+    static boolean isBlocking(final Converter<?, ?> plan) {
+        return plan instanceof BlockingPlan;
+    }
+
+    /**
+     * @param paths Conversion paths. (NonNull)
+     * @return <tt>true</tt> if a converter of the paths is blocking.
+     */
+    static boolean containsBlocking(final List<List<ConverterRegistration>> paths) {
+        for (final List<ConverterRegistration> path : paths) {
+            for (final ConverterRegistration registration : path) {
+                if (registration.blocking) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /** Marker of the plans containing a blocking converter. */
+    private static final class BlockingPlan implements TryConverter<Object, Object> {
+
+        private final Converter<Object, Object> plan;
+
+        @SuppressWarnings("unchecked")
+        BlockingPlan(final Converter<?, ?> plan) {
+            this.plan = (Converter<Object, Object>) plan;
+        }
+
+        @Override
+        public Object convert(final Object from) throws ConverterException {
+            return plan.convert(from);
+        }
+
+        @Override
+        public ConversionResult<Object> tryConvert(final Object from) {
+            return Converters.tryConvert(plan, from);
+        }
+
+        @Override
+        public String toString() {
+            return "Blocking[" + plan + "]";
+        }
+
+    }
+
+}
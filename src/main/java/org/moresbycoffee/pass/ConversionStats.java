@@ -0,0 +1,137 @@
+/*
+ * Moresby Coffee Bean
+ *
+ * Copyright (c) 2012, Barnabas Sudy (barnabas.sudy@gmail.com)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.moresbycoffee.pass;
+
+import java.beans.ConstructorProperties;
+
+/**
+ * <p>Immutable snapshot of the metrics of a converter or a conversion recorded by {@link ConversionMetrics}.</p>
+ *
+ * <p>The counts cover every call, the latencies only the sampled calls. The latency histogram has 64 buckets: the bucket
+ * <tt>i</tt> counts the sampled calls which took at least <tt>2<sup>i</sup></tt> and less than <tt>2<sup>i+1</sup></tt> nanoseconds
+ * (the bucket <tt>0</tt> contains the calls under 2 nanoseconds).</p>
+ */
+public final class ConversionStats {
+
+    /** The number of the buckets of the latency histogram. */
+    public static final int BUCKETS = 64;
+
+    private final long calls;
+    private final long converterFailures;
+    private final long otherFailures;
+    private final long sampledCalls;
+    private final long sampledNanos;
+    private final long[] latencyHistogram;
+
+    /**
+     * @param calls The number of the calls.
+     * @param converterFailures The number of the calls failed by {@link org.moresbycoffee.pass.api.ConverterException}.
+     * @param otherFailures The number of the calls failed by other exceptions or errors.
+     * @param sampledCalls The number of the calls whose latency was measured.
+     * @param sampledNanos The total latency of the sampled calls in nanoseconds.
+     * @param latencyHistogram The number of the sampled calls by the power of two latency buckets. (NonNull)
+     */
+    @ConstructorProperties({ "calls", "converterFailures", "otherFailures", "sampledCalls", "sampledNanos", "latencyHistogram" })
+    public ConversionStats(final long calls, final long converterFailures, final long otherFailures, final long sampledCalls,
+                           final long sampledNanos, final long[] latencyHistogram) {
+        this.calls             = calls;
+        this.converterFailures = converterFailures;
+        this.otherFailures     = otherFailures;
+        this.sampledCalls      = sampledCalls;
+        this.sampledNanos      = sampledNanos;
+        this.latencyHistogram  = latencyHistogram.clone();
+    }
+
+    /** @return The number of the calls. */
+    public long getCalls() {
+        return calls;
+    }
+
+    /** @return The number of the calls failed by {@link org.moresbycoffee.pass.api.ConverterException}. */
+    public long getConverterFailures() {
+        return converterFailures;
+    }
+
+    /** @return The number of the calls failed by other exceptions or errors. */
+    public long getOtherFailures() {
+        return otherFailures;
+    }
+
+    /** @return The number of the calls whose latency was measured. */
+    public long getSampledCalls() {
+        return sampledCalls;
+    }
+
+    /** @return The total latency of the sampled calls in nanoseconds. */
+    public long getSampledNanos() {
+        return sampledNanos;
+    }
+
+    /** @return The number of the sampled calls by the power of two latency buckets. (NonNull) */
+    public long[] getLatencyHistogram() {
+        return latencyHistogram.clone();
+    }
+
+    /** @return The mean latency of the sampled calls in nanoseconds or <tt>0</tt> if no call was sampled. */
+    public double getMeanNanos() {
+        return sampledCalls == 0 ? 0d : (double) sampledNanos / sampledCalls;
+    }
+
+    /**
+     * @param percentile The percentile, between <tt>0</tt> and <tt>100</tt>.
+     * @return The upper bound of the histogram bucket containing the percentile of the sampled latencies in nanoseconds
+     *         (at most twice the real value) or <tt>0</tt> if no call was sampled.
+     */
+    public long latencyPercentileNanos(final double percentile) {
+        long total = 0;
+        for (final long count : latencyHistogram) {
+            total += count;
+        }
+        if (total == 0) {
+            return 0;
+        }
+        final long rank = (long) Math.ceil(total * percentile / 100d);
+        long seen = 0;
+        for (int i = 0; i < latencyHistogram.length; i++) {
+            seen += latencyHistogram[i];
+            if (seen >= rank && seen > 0) {
+                return i == BUCKETS - 1 ? Long.MAX_VALUE : (1L << (i + 1)) - 1;
+            }
+        }
+        return Long.MAX_VALUE;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String toString() {
+        return "calls=" + calls + ", converterFailures=" + converterFailures + ", otherFailures=" + otherFailures
+             + ", sampledCalls=" + sampledCalls + ", meanNanos=" + getMeanNanos();
+    }
+
+}
@@ -28,27 +28,212 @@
  */
 package org.moresbycoffee.pass;
 
+import java.lang.reflect.Array;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
+import org.moresbycoffee.pass.api.AsyncConverters;
+import org.moresbycoffee.pass.api.ConversionResult;
 import org.moresbycoffee.pass.api.Converter;
 import org.moresbycoffee.pass.api.ConverterException;
+import org.moresbycoffee.pass.api.Converters;
+import org.moresbycoffee.pass.api.MemoizingConverter;
+import org.moresbycoffee.pass.api.TryConverter;
 
+import com.google.common.base.Function;
+import com.google.common.cache.CacheStats;
 import com.google.common.reflect.TypeToken;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
 
 /**
- * TODO javadoc.
+ * <p>Registry of {@link Converter}s which converts values between arbitrary types: {@link #convert(Object, Type)} finds the
+ * registered converter of the conversion, or the shortest chain of them, compiles it into a conversion plan and caches the plan for
+ * the (input class, output type) pair.</p>
  *
- * <p><strong>Warning:</strong> The implementation is not thread safe. Do not modify the context until it is being used.</p>
+ * <p>The context is thread safe and it is copy-on-write. The registered converters, the settings and the resolution cache are kept
+ * in an immutable snapshot. Every modification ({@link #add(Converter)}, {@link #remove(Converter)}, the setters and the memoization
+ * and blocking marks of the converters) builds a new snapshot with an empty cache and replaces the current one atomically. The
+ * modifications are serialized by a lock, but the conversions never lock: a conversion reads the snapshot once, so it never sees a
+ * half modified context and it is never blocked by a modification. A conversion running during a modification completes with the
+ * previous state of the context.</p>
+ *
+ * <p>A context which is not modified after its setup can be built frozen by the {@link #builder()}.</p>
  *
  * @author Barnabas Sudy (barnabas.sudy@gmail.com)
  * @since 2012
  */
 public class ConverterContext {
 
-    private final List<Converter<?, ?>> converters = new ArrayList<Converter<?, ?>>();
+    /** The default maximum number of the converters in a conversion path. */
+    public static final int DEFAULT_MAX_PATH_LENGTH = 4;
+
+    /**
+     * Placeholder converter cached for the conversions which are not supported by the context.
+     * Caching the negative outcome too means a repeated unsupported conversion doesn't search the converters again.
+     */
+    private static final Converter<Object, Object> NOT_SUPPORTED = ConversionPlan.failure("Not supported");
+
+    /** The current state of the context. Replaced (never modified) under the {@link #writeLock}. */
+    private volatile Snapshot snapshot;
+
+    /** Serializes the modifications of the context, so concurrent modifications don't lose each other's changes. */
+    private final Object writeLock = new Object();
+
+    /** The executor of the asynchronous conversions of the blocking converters or <tt>null</tt> for the default one. */
+    private volatile ExecutorService blockingExecutor;
+
+    /** Creates an empty context. */
+    public ConverterContext() {
+        this(new Snapshot(ConverterRegistry.EMPTY, PathPolicy.FIRST, DEFAULT_MAX_PATH_LENGTH, PlanBackend.INTERPRETED, null));
+    }
+
+    /**
+     * Creates a context with a prepared state.
+     *
+     * @param snapshot The initial state of the context. (NonNull)
+     */
+    ConverterContext(final Snapshot snapshot) {
+        this.snapshot = snapshot;
+    }
+
+    /**
+     * Creates a builder of a frozen (immutable) context. See {@link Builder}.
+     *
+     * @return The new builder. (NonNull)
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * <p>Immutable state of a {@link ConverterContext}: the registered converters, the settings and the resolution cache which is
+     * valid for these.</p>
+     *
+     * <p>Every modification of the context creates a new snapshot with an empty cache, so a resolution computed from an old state
+     * can only be written into the cache of the old snapshot.</p>
+     */
+    static final class Snapshot {
+
+        /* CHECKSTYLE:OFF because this is a Data Structure Object and the fields are immutable. */
+        /** The registered converters indexed by their input types. */
+        final ConverterRegistry registry;
+
+        /** The policy of the ambiguous conversion paths. */
+        final PathPolicy pathPolicy;
+
+        /** The maximum number of the converters in a conversion path. */
+        final int maxPathLength;
+
+        /** The execution backend of the compiled conversion plans. */
+        final PlanBackend backend;
+
+        /** The metrics recorded by the compiled conversion plans or <tt>null</tt> if the plans are not instrumented. */
+        final ConversionMetrics metrics;
+        /* CHECKSTYLE:ON */
+
+        /** The resolved converters (compiled conversion plans) by the (input class, output type) pairs. */
+        private final ConcurrentMap<ConversionKey, Converter<?, ?>> resolutionCache = new ConcurrentHashMap<ConversionKey, Converter<?, ?>>();
+
+        /** The compiled conversions along every shortest path by the (input class, output type) pairs. */
+        private final ConcurrentMap<ConversionKey, Converter<?, ?>> allPathsCache = new ConcurrentHashMap<ConversionKey, Converter<?, ?>>();
+
+        Snapshot(final ConverterRegistry registry, final PathPolicy pathPolicy, final int maxPathLength, final PlanBackend backend,
+                 final ConversionMetrics metrics) {
+            this.registry      = registry;
+            this.pathPolicy    = pathPolicy;
+            this.maxPathLength = maxPathLength;
+            this.backend       = backend;
+            this.metrics       = metrics;
+        }
+
+        /**
+         * Returns the cached converter of the <tt>key</tt> or resolves and caches it.
+         *
+         * @param key The input class and the output type.
+         * @return The compiled conversion or a failing placeholder if the conversion is not possible. (NonNull)
+         */
+        Converter<?, ?> converterOf(final ConversionKey key) {
+            Converter<?, ?> converter = resolutionCache.get(key);
+            if (converter == null) {
+                converter = resolve(key);
+                final Converter<?, ?> concurrent = resolutionCache.putIfAbsent(key, converter);
+                if (concurrent != null) {
+                    converter = concurrent;
+                }
+            }
+            return converter;
+        }
+
+        /**
+         * Returns the cached converter which converts along every shortest path of the <tt>key</tt> or resolves and caches it.
+         *
+         * @param key The input class and the output type.
+         * @return The compiled conversion returning the results of the paths in an unmodifiable {@link List}, or a failing placeholder
+         *         if the conversion is not possible. (NonNull)
+         */
+        Converter<?, ?> allPathsConverterOf(final ConversionKey key) {
+            Converter<?, ?> converter = allPathsCache.get(key);
+            if (converter == null) {
+                final List<List<ConverterRegistration>> paths = registry.findPaths(key.getSourceClass(), TypeToken.of(key.getTargetType()), maxPathLength, true);
+                converter = paths.isEmpty() ? NOT_SUPPORTED : ConversionPlan.compileAll(paths, metrics);
+                final Converter<?, ?> concurrent = allPathsCache.putIfAbsent(key, converter);
+                if (concurrent != null) {
+                    converter = concurrent;
+                }
+            }
+            return converter;
+        }
+
+        /**
+         * Finds the conversion paths from the input class of the <tt>key</tt> to the output type of the <tt>key</tt> and compiles them
+         * according to the {@link #pathPolicy}. See {@link ConverterRegistry#findPaths(Class, TypeToken, int, boolean)} for the rules of the search.
+         *
+         * @param key The input class and the output type.
+         * @return The compiled conversion or a failing placeholder if the conversion is not possible. (NonNull)
+         */
+        private Converter<?, ?> resolve(final ConversionKey key) {
+            return compile(key, registry.findPaths(key.getSourceClass(), TypeToken.of(key.getTargetType()), maxPathLength, pathPolicy == PathPolicy.FAIL));
+        }
+
+        /**
+         * Compiles the shortest conversion paths of a conversion according to the {@link #pathPolicy}.
+         *
+         * @param key The input class and the output type.
+         * @param paths The shortest conversion paths of the conversion. (NonNull)
+         * @return The compiled conversion or a failing placeholder if the conversion is not possible. (NonNull)
+         */
+        Converter<?, ?> compile(final ConversionKey key, final List<List<ConverterRegistration>> paths) {
+            Converter<?, ?> plan = compilePlan(key, paths);
+            if (metrics != null) {
+                plan = metrics.instrument(key, plan);
+            }
+            return ConversionPlan.containsBlocking(paths) ? ConversionPlan.blocking(plan) : plan;
+        }
+
+        /** See {@link #compile(ConversionKey, List)}, without the instrumentation and the blocking mark of the whole conversion. */
+        private Converter<?, ?> compilePlan(final ConversionKey key, final List<List<ConverterRegistration>> paths) {
+            if (paths.isEmpty()) {
+                return NOT_SUPPORTED;
+            }
+            if (pathPolicy == PathPolicy.FAIL && paths.size() > 1) {
+                return ConversionPlan.failure("Ambiguous conversion " + key + ", there are " + paths.size() + " conversion paths: " + paths);
+            }
+            return backend.compile(ConversionPlan.compile(paths.get(0), metrics));
+        }
+
+    }
 
     /**
      * <p>This class is a small data structure storing a from and to type (of a converter)</p>
@@ -76,28 +261,38 @@ public class ConverterContext {
     }
 
     /**
-     * Determines the input(from) and output(to) types of a converter in a {@link ConverterTypes} structure. 
+     * <p>Determines the input(from) and output(to) types of a converter in a {@link ConverterTypes} structure.</p>
+     *
+     * <p>The types are resolved on the {@link Converter} supertype of the converter's class, so converters which implement
+     * the interface through a (generic) superclass are supported too. The type arguments of a raw <tt>Converter</tt>
+     * are considered as {@link Object}.</p>
      *
      * <p>Package private for tests.</p>
      *
      * @param converter The converter
      * @return The types of the converter wrapped in a {@link ConverterTypes} object.
      */
-    ConverterTypes getConverterTypes(final Converter<?, ?> converter) {
-        final Type[] interfaces = converter.getClass().getGenericInterfaces();
-        for (final Type iface : interfaces) {
-            if (TypeToken.of(Converter.class).isAssignableFrom(TypeToken.of(iface))) {
-                /* The type of the Converter interface is ParameterizedType -> no need to check the cast*/
-                final Type[] generics = ((ParameterizedType) iface).getActualTypeArguments();
-                return new ConverterTypes(generics[0], generics[1]);
-            }
+    static ConverterTypes getConverterTypes(final Converter<?, ?> converter) {
+        @SuppressWarnings({ "rawtypes", "unchecked" })
+        final Type converterType = ((TypeToken) TypeToken.of(converter.getClass())).getSupertype(Converter.class).getType();
+        if (converterType instanceof ParameterizedType) {
+            final Type[] generics = ((ParameterizedType) converterType).getActualTypeArguments();
+            return new ConverterTypes(generics[0], generics[1]);
         }
-        /* This error should never occur. */
-        throw new IllegalStateException("The converter doesn't have <F> from and <T> to generic types.");
+        return new ConverterTypes(Object.class, Object.class);
+    }
+
+    /** @return The current state of the context. */
+    Snapshot getSnapshot() {
+        return snapshot;
     }
 
     /**
      * Converts a value (<tt>from</tt>) to a given type by the converters in the context. If the conversion is not possible the method will throw a {@link ConverterException}. 
+     *
+     * <p>If there is no converter which can do the conversion directly, the shortest chain of the registered converters is used
+     * (see {@link #setMaxPathLength(int)}). If there are more than one shortest chains, the {@link #setPathPolicy(PathPolicy) path policy}
+     * decides. The found chain is compiled and cached, so the next conversion of the same types costs the same as a direct one.</p>
      * 
      * @param <F> The type of the <em>input</em> object
      * @param <T> The type of the <em>output</em> object
@@ -110,49 +305,710 @@ public class ConverterContext {
      * @throws ConverterException If an error occurs during the conversion or the conversion is not possible. 
      */
     <F, T> T convert(final F from, final Type toType) {
-        
-        for (@SuppressWarnings("rawtypes") final Converter converter : converters) {
-
-            final ConverterTypes converterTypes = getConverterTypes(converter);
-
-            if (TypeToken.of(from.getClass()).isAssignableFrom(converterTypes.fromType)) {
-                if (TypeToken.of(toType).isAssignableFrom(converterTypes.toType)) {
-                    /* 
-                     * There is no need to check the cast because the converter will provide "toType" object.
-                     */
-                    @SuppressWarnings("unchecked")
-                    final T result = (T) converter.convert(from);
-                    return result;
+        @SuppressWarnings("rawtypes")
+        final Converter converter = converterOf(from.getClass(), toType);
+        /*
+         * There is no need to check the cast because the converter will provide "toType" object.
+         */
+        @SuppressWarnings("unchecked")
+        final T result = (T) converter.convert(from);
+        return result;
+    }
+
+    /**
+     * Converts a value along every shortest conversion path to the given type, regardless of the {@link #setPathPolicy(PathPolicy) path policy}.
+     *
+     * @param <F> The type of the <em>input</em> object
+     * @param <T> The type of the <em>output</em> object
+     *
+     * @param from The input object to be converted. (NonNull)
+     * @param toType The type of output object. (NonNull)
+     * @return The results of the paths in an unmodifiable list, in the order of the paths (see {@link PathPolicy#FIRST}). (NonNull)
+     *
+     * @throws ConverterException If an error occurs during the conversion or the conversion is not possible.
+     */
+    @SuppressWarnings("unchecked")
+    <F, T> List<T> convertAlongAllPaths(final F from, final Type toType) {
+        return (List<T>) ((Converter<F, ?>) snapshot.allPathsConverterOf(new ConversionKey(from.getClass(), toType))).convert(from);
+    }
+
+    /**
+     * Converts a value like {@link #convert(Object, Type)}, but returns the failure instead of throwing a {@link ConverterException}.
+     *
+     * <p>An unsupported or ambiguous conversion and an invalid input of a {@link TryConverter} (e.g. {@link Converters#STRING_TO_LONG}),
+     * also in a step of a longer conversion path, are reported without creating an exception. The exceptions of the other converters are caught, see
+     * {@link Converters#tryConvert(Converter, Object)}.</p>
+     *
+     * @param <F> The type of the <em>input</em> object
+     * @param <T> The type of the <em>output</em> object
+     *
+     * @param from The input object to be converted. (NonNull)
+     * @param toType The type of output object. (NonNull)
+     * @return The result of the conversion or the description of the failure. (NonNull)
+     */
+    @SuppressWarnings("unchecked")
+    <F, T> ConversionResult<T> tryConvert(final F from, final Type toType) {
+        return Converters.tryConvert((Converter<F, T>) converterOf(from.getClass(), toType), from);
+    }
+
+    /**
+     * <p>Converts a value like {@link #convert(Object, Type)} asynchronously if the conversion contains a blocking converter (see
+     * {@link #setBlocking(Converter, boolean)}): it runs on the {@link #setBlockingExecutor(ExecutorService) blocking executor}, so the
+     * calling thread is not blocked. Other conversions run on the calling thread and the returned future is already done.</p>
+     *
+     * @param <F> The type of the <em>input</em> object
+     * @param <T> The type of the <em>output</em> object
+     *
+     * @param from The input object to be converted. (NonNull)
+     * @param toType The type of output object. (NonNull)
+     * @return The future of the result. It fails with {@link ConverterException} if the conversion fails or it is not possible. (NonNull)
+     */
+    @SuppressWarnings("unchecked")
+    <F, T> ListenableFuture<T> convertAsync(final F from, final Type toType) {
+        final Converter<F, T> converter = converterOf(from.getClass(), toType);
+        if (ConversionPlan.isBlocking(converter)) {
+            return AsyncConverters.convertAsync(converter, from, getBlockingExecutor());
+        }
+        try {
+            return Futures.immediateFuture(converter.convert(from));
+        } catch (final RuntimeException e) {
+            return Futures.immediateFailedFuture(e);
+        }
+    }
+
+    /**
+     * <p>Converts the elements of a collection to the given type like {@link #convertAsync(Object, Type)}: the conversions are resolved
+     * once per element class, the elements whose conversion contains a blocking converter are converted on the
+     * {@link #setBlockingExecutor(ExecutorService) blocking executor} with at most <tt>maxConcurrency</tt> conversions running at the
+     * same time (see {@link AsyncConverters#convertAllAsync(Converter, Collection, java.util.concurrent.Executor, int)}), the others are
+     * converted on the calling thread before the blocking ones are submitted.</p>
+     *
+     * @param <F> The type of the <em>input</em> elements
+     * @param <T> The type of the <em>output</em> elements
+     *
+     * @param from The input elements. (NonNull)
+     * @param toType The type of the output elements. (NonNull)
+     * @param maxConcurrency The maximum number of the conversions running at the same time. (Positive)
+     * @return The future of the converted elements in an unmodifiable list. The <tt>null</tt> elements are converted to <tt>null</tt>.
+     *         It's already done if no element needs a blocking conversion. (NonNull)
+     */
+    @SuppressWarnings("unchecked")
+    <F, T> ListenableFuture<List<T>> convertAllAsync(final Collection<? extends F> from, final Type toType, final int maxConcurrency) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("The maximum concurrency has to be positive: " + maxConcurrency);
+        }
+        final List<F> input = new ArrayList<F>(from);
+        final List<Converter<F, T>> converters = new ArrayList<Converter<F, T>>(input.size());
+        final List<Integer> blockingIndexes = new ArrayList<Integer>();
+        final Object[] output = new Object[input.size()];
+        final BatchResolver resolver = new BatchResolver(this, toType);
+        try {
+            for (int i = 0; i < input.size(); i++) {
+                final F element = input.get(i);
+                final Converter<F, T> converter = element == null ? null : (Converter<F, T>) resolver.converterOf(element.getClass());
+                converters.add(converter);
+                if (converter == null) {
+                    continue;
+                }
+                if (ConversionPlan.isBlocking(converter)) {
+                    blockingIndexes.add(Integer.valueOf(i));
+                } else {
+                    output[i] = converter.convert(element);
+                }
+            }
+        } catch (final RuntimeException e) {
+            return Futures.immediateFailedFuture(e);
+        }
+        if (blockingIndexes.isEmpty()) {
+            return Futures.immediateFuture(Collections.unmodifiableList((List<T>) Arrays.asList(output)));
+        }
+
+        final Converter<Integer, T> blockingConversion = new Converter<Integer, T>() {
+            @Override
+            public T convert(final Integer index) throws ConverterException {
+                return converters.get(index.intValue()).convert(input.get(index.intValue()));
+            }
+        };
+        return Futures.transform(AsyncConverters.convertAllAsync(blockingConversion, blockingIndexes, getBlockingExecutor(), maxConcurrency),
+                                 new Function<List<T>, List<T>>() {
+            @Override
+            public List<T> apply(final List<T> blockingResults) {
+                for (int i = 0; i < blockingResults.size(); i++) {
+                    output[blockingIndexes.get(i).intValue()] = blockingResults.get(i);
                 }
+                return Collections.unmodifiableList((List<T>) Arrays.asList(output));
             }
+        });
+    }
 
+    /**
+     * Returns a lazy iterator which converts the elements of the source iterator to the given type when they are requested,
+     * so an unbounded input can be processed in constant memory.
+     *
+     * <p>The conversion is resolved once for the class of the first element and it is reused as long as the following elements
+     * have the same class, so the elements are converted without looking up the context again. A modification of the context
+     * during the iteration doesn't affect the already resolved conversion. The <tt>null</tt> elements are converted to <tt>null</tt>.</p>
+     *
+     * @param <F> The type of the <em>input</em> elements
+     * @param <T> The type of the <em>output</em> elements
+     *
+     * @param from The input elements. (NonNull)
+     * @param toType The type of the output elements. (NonNull)
+     * @return The iterator of the converted elements. (NonNull)
+     *
+     * @throws ConverterException By the iterator if an element can't be converted.
+     */
+    <F, T> Iterator<T> convertEach(final Iterator<? extends F> from, final Type toType) {
+        return new ConvertingIterator<T>(this, from, toType);
+    }
+
+    /**
+     * Returns a lazy view of the input which converts the elements when it is iterated, see {@link #convertEach(Iterator, Type)}.
+     *
+     * @param <F> The type of the <em>input</em> elements
+     * @param <T> The type of the <em>output</em> elements
+     *
+     * @param from The input elements. (NonNull)
+     * @param toType The type of the output elements. (NonNull)
+     * @return The view of the converted elements. (NonNull)
+     */
+    <F, T> Iterable<T> convertEach(final Iterable<? extends F> from, final Type toType) {
+        return new Iterable<T>() {
+            @Override
+            public Iterator<T> iterator() {
+                return convertEach(from.iterator(), toType);
+            }
+        };
+    }
+
+    /**
+     * Resolves the conversion of the instances of a class.
+     *
+     * @param sourceClass The class of the input objects. (NonNull)
+     * @param toType The type of the output objects. (NonNull)
+     * @return The converter, which throws {@link ConverterException} if the conversion is not supported. (NonNull)
+     */
+    @SuppressWarnings("rawtypes")
+    Converter converterOf(final Class<?> sourceClass, final Type toType) {
+        return snapshot.converterOf(new ConversionKey(sourceClass, toType));
+    }
+
+    /**
+     * <p>Converts the elements of a collection to the given type like {@link #convert(Object, Type)} into a presized list.</p>
+     *
+     * <p>The conversion is resolved once per runtime class of the elements in the batch, so the cost of the batch is dominated by the
+     * converters. The order of the elements is kept and the <tt>null</tt> elements are converted to <tt>null</tt>.</p>
+     *
+     * @param <F> The type of the <em>input</em> elements
+     * @param <T> The type of the <em>output</em> elements
+     *
+     * @param from The input elements. (NonNull)
+     * @param toType The type of the output elements. (NonNull)
+     * @return The converted elements in a new {@link ArrayList}. (NonNull)
+     *
+     * @throws ConverterException If an element can't be converted.
+     */
+    @SuppressWarnings("unchecked")
+    <F, T> List<T> convertAll(final Collection<? extends F> from, final Type toType) {
+        final BatchResolver resolver = new BatchResolver(this, toType);
+        final List<T> result = new ArrayList<T>(from.size());
+        for (final F element : from) {
+            result.add(element == null ? null : (T) resolver.converterOf(element.getClass()).convert(element));
         }
-        throw new ConverterException("Not supported");
+        return result;
+    }
 
+    /**
+     * Converts the elements of an array to the given class into a new array. See {@link #convertAll(Collection, Type)}.
+     *
+     * @param <F> The type of the <em>input</em> elements
+     * @param <T> The type of the <em>output</em> elements
+     *
+     * @param from The input elements. (NonNull)
+     * @param toClass The class of the output elements. It can't be a primitive class. (NonNull)
+     * @return The converted elements in a new array of <tt>toClass</tt>. (NonNull)
+     *
+     * @throws ConverterException If an element can't be converted.
+     */
+    @SuppressWarnings("unchecked")
+    <F, T> T[] convertAll(final F[] from, final Class<T> toClass) {
+        if (toClass.isPrimitive()) {
+            throw new IllegalArgumentException("The output class can't be primitive: " + toClass);
+        }
+        final T[] result = (T[]) Array.newInstance(toClass, from.length);
+        final BatchResolver resolver = new BatchResolver(this, toClass);
+        for (int i = 0; i < from.length; i++) {
+            final F element = from[i];
+            result[i] = element == null ? null : (T) resolver.converterOf(element.getClass()).convert(element);
+        }
+        return result;
+    }
+
+    /**
+     * Resolves the conversions of a batch of objects to a type once per runtime class. The converter of the last class is checked first,
+     * the converters of the other classes are kept in a map which is only created if the batch has more than one class.
+     */
+    private static final class BatchResolver {
+
+        private final ConverterContext context;
+        private final Type toType;
 
+        /** The class the {@link #converter} was resolved for. */
+        private Class<?> resolvedClass;
+        @SuppressWarnings("rawtypes")
+        private Converter converter;
+        /** The converters of the classes of the batch, or <tt>null</tt> until a second class is seen. */
+        @SuppressWarnings("rawtypes")
+        private Map<Class<?>, Converter> converters;
+
+        private BatchResolver(final ConverterContext context, final Type toType) {
+            this.context = context;
+            this.toType  = toType;
+        }
+
+        @SuppressWarnings("rawtypes")
+        Converter converterOf(final Class<?> elementClass) {
+            if (elementClass == resolvedClass) {
+                return converter;
+            }
+            if (resolvedClass != null && converters == null) {
+                converters = new IdentityHashMap<Class<?>, Converter>();
+                converters.put(resolvedClass, converter);
+            }
+            Converter resolved = converters == null ? null : converters.get(elementClass);
+            if (resolved == null) {
+                resolved = context.converterOf(elementClass, toType);
+                if (converters != null) {
+                    converters.put(elementClass, resolved);
+                }
+            }
+            resolvedClass = elementClass;
+            converter = resolved;
+            return resolved;
+        }
+
+    }
+
+    /**
+     * Iterator converting the elements by the converter resolved for the class of the previous element if it's the same.
+     */
+    private static final class ConvertingIterator<T> implements Iterator<T> {
+
+        private final ConverterContext context;
+        private final Iterator<?> from;
+        private final Type toType;
+
+        /** The class the {@link #converter} was resolved for. */
+        private Class<?> resolvedClass;
+        @SuppressWarnings("rawtypes")
+        private Converter converter;
+
+        private ConvertingIterator(final ConverterContext context, final Iterator<?> from, final Type toType) {
+            this.context = context;
+            this.from    = from;
+            this.toType  = toType;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return from.hasNext();
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T next() {
+            final Object element = from.next();
+            if (element == null) {
+                return null;
+            }
+            final Class<?> elementClass = element.getClass();
+            if (elementClass != resolvedClass) {
+                converter = context.converterOf(elementClass, toType);
+                resolvedClass = elementClass;
+            }
+            return (T) converter.convert(element);
+        }
+
+        @Override
+        public void remove() {
+            from.remove();
+        }
+
+    }
+
+    /**
+     * <p>Sets the policy of the ambiguous conversions: what should happen if there are more than one shortest conversion paths.
+     * The default policy is {@link PathPolicy#FIRST}.</p>
+     *
+     * @param pathPolicy The policy. (NonNull)
+     */
+    public void setPathPolicy(final PathPolicy pathPolicy) {
+        if (pathPolicy == null) {
+            throw new IllegalArgumentException("The path policy can't be null.");
+        }
+        synchronized (writeLock) {
+            final Snapshot current = snapshot;
+            snapshot = new Snapshot(current.registry, pathPolicy, current.maxPathLength, current.backend, current.metrics);
+        }
+    }
+
+    /** @return The policy of the ambiguous conversions. */
+    public PathPolicy getPathPolicy() {
+        return snapshot.pathPolicy;
+    }
+
+    /**
+     * <p>Sets the maximum number of the converters which can be chained to do a conversion. <tt>1</tt> means only direct conversions are
+     * supported. The default value is {@value #DEFAULT_MAX_PATH_LENGTH}.</p>
+     *
+     * @param maxPathLength The maximum length of the conversion paths. (Positive)
+     */
+    public void setMaxPathLength(final int maxPathLength) {
+        if (maxPathLength < 1) {
+            throw new IllegalArgumentException("The maximum path length has to be positive: " + maxPathLength);
+        }
+        synchronized (writeLock) {
+            final Snapshot current = snapshot;
+            snapshot = new Snapshot(current.registry, current.pathPolicy, maxPathLength, current.backend, current.metrics);
+        }
+    }
+
+    /** @return The maximum number of the converters in a conversion path. */
+    public int getMaxPathLength() {
+        return snapshot.maxPathLength;
+    }
+
+    /**
+     * <p>Sets the execution backend of the compiled conversion plans. The default backend is {@link PlanBackend#INTERPRETED}.</p>
+     * <p>{@link PlanBackend#METHOD_HANDLES} generates a class for every hot chain, see its costs there.</p>
+     *
+     * @param backend The backend. (NonNull)
+     */
+    public void setPlanBackend(final PlanBackend backend) {
+        if (backend == null) {
+            throw new IllegalArgumentException("The plan backend can't be null.");
+        }
+        synchronized (writeLock) {
+            final Snapshot current = snapshot;
+            snapshot = new Snapshot(current.registry, current.pathPolicy, current.maxPathLength, backend, current.metrics);
+        }
+    }
+
+    /** @return The execution backend of the compiled conversion plans. */
+    public PlanBackend getPlanBackend() {
+        return snapshot.backend;
+    }
+
+    /**
+     * <p>Turns on the recording of the call, failure and latency metrics of the conversions and the registered converters, or turns it
+     * off if <tt>metrics</tt> is <tt>null</tt>. The metrics are off by default. See {@link ConversionMetrics}.</p>
+     *
+     * @param metrics The metrics to be recorded. (Nullable)
+     */
+    public void setMetrics(final ConversionMetrics metrics) {
+        synchronized (writeLock) {
+            final Snapshot current = snapshot;
+            snapshot = new Snapshot(current.registry, current.pathPolicy, current.maxPathLength, current.backend, metrics);
+        }
+    }
+
+    /** @return The metrics recorded by the context or <tt>null</tt> if the metrics are off. (Nullable) */
+    public ConversionMetrics getMetrics() {
+        return snapshot.metrics;
     }
 
     /**
      * <p>Adds (registers) a {@link Converter} into the {@link ConverterContext}. A registered converter will be used in the 
      * converter algorithm what tries to find conversion between arbitrary types.</p>
-     * <p><strong>Warning:</strong> The implementation is not thread safe. Do not modify the context until it is being used.</p>
+     * <p>The input and output types of the converter are determined here, once.</p>
      *
      * @param converter The converter to be added to the context.
      */
     public <F, T> void add(final Converter<F, T> converter) {
-        converters.add(converter);
+        final ConverterRegistration registration = new ConverterRegistration(converter, getConverterTypes(converter));
+        synchronized (writeLock) {
+            final Snapshot current = snapshot;
+            snapshot = new Snapshot(current.registry.add(registration), current.pathPolicy, current.maxPathLength, current.backend, current.metrics);
+        }
     }
 
     /**
      * <p>Removes (unregisters) a {@link Converter} from the {@link ConverterContext}. The removed converter is no longer used in the
      * conversion algorithm.</p>
      * <p>To find the removable convert the {@link Object#equals(Object)} method is used.</p>
-     * <p><strong>Warning:</strong> The implementation is not thread safe. Do not modify the context until it is being used.</p>
      *
      * @param converter The converter to be removed.
      */
     public <F, T> boolean remove(final Converter<F, T> converter) {
-        return converters.remove(converter);
+        synchronized (writeLock) {
+            final Snapshot current = snapshot;
+            final ConverterRegistry registry = current.registry.remove(converter);
+            if (registry == current.registry) {
+                return false;
+            }
+            snapshot = new Snapshot(registry, current.pathPolicy, current.maxPathLength, current.backend, current.metrics);
+            return true;
+        }
     }
     
+    /**
+     * <p>Turns on the memoization of a registered converter: the conversions of the context call the converter through a
+     * {@link MemoizingConverter} with a cache of at most <tt>maximumSize</tt> results. If the converter is already memoized,
+     * its cache is replaced by a new, empty one.</p>
+     * <p>The converter has to be a pure function of its input, see {@link MemoizingConverter}.</p>
+     *
+     * @param converter The registered converter. It is compared by the {@link Object#equals(Object)} method.
+     * @param maximumSize The maximum number of the cached results.
+     * @return <tt>true</tt> if the converter is registered.
+     */
+    public <F, T> boolean memoize(final Converter<F, T> converter, final long maximumSize) {
+        return replaceExecutable(converter, MemoizingConverter.of(converter, maximumSize));
+    }
+
+    /**
+     * <p>Turns off the memoization of a registered converter, see {@link #memoize(Converter, long)}.</p>
+     *
+     * @param converter The registered converter. It is compared by the {@link Object#equals(Object)} method.
+     * @return <tt>true</tt> if the converter is registered.
+     */
+    public <F, T> boolean unmemoize(final Converter<F, T> converter) {
+        return replaceExecutable(converter, converter);
+    }
+
+    /**
+     * @param converter The registered converter. It is compared by the {@link Object#equals(Object)} method.
+     * @return The statistics of the cache of the converter or <tt>null</tt> if the converter isn't registered or isn't memoized. (Nullable)
+     */
+    public CacheStats getCacheStats(final Converter<?, ?> converter) {
+        final ConverterRegistration registration = snapshot.registry.registrationOf(converter);
+        if (registration == null || !(registration.executable instanceof MemoizingConverter)) {
+            return null;
+        }
+        return ((MemoizingConverter<?, ?>) registration.executable).stats();
+    }
+
+    /**
+     * <p>Marks a registered converter as slow or blocking (or unmarks it): the asynchronous conversions containing it run on the
+     * {@link #setBlockingExecutor(ExecutorService) blocking executor}, see {@link #convertAsync(Object, Type)}.</p>
+     *
+     * @param converter The registered converter. It is compared by the {@link Object#equals(Object)} method.
+     * @param blocking <tt>true</tt> if the converter is slow or blocking.
+     * @return <tt>true</tt> if the converter is registered.
+     */
+    public <F, T> boolean setBlocking(final Converter<F, T> converter, final boolean blocking) {
+        synchronized (writeLock) {
+            final Snapshot current = snapshot;
+            final ConverterRegistration registration = current.registry.registrationOf(converter);
+            if (registration == null) {
+                return false;
+            }
+            final ConverterRegistry registry = current.registry.replace(converter, registration.withBlocking(blocking));
+            snapshot = new Snapshot(registry, current.pathPolicy, current.maxPathLength, current.backend, current.metrics);
+            return true;
+        }
+    }
+
+    /**
+     * @param converter The registered converter. It is compared by the {@link Object#equals(Object)} method.
+     * @return <tt>true</tt> if the converter is registered and it is marked as blocking.
+     */
+    public boolean isBlocking(final Converter<?, ?> converter) {
+        final ConverterRegistration registration = snapshot.registry.registrationOf(converter);
+        return registration != null && registration.blocking;
+    }
+
+    /**
+     * Sets the executor of the asynchronous conversions of the blocking converters. The default executor is
+     * {@link AsyncConverters#defaultBlockingExecutor()}, which uses virtual threads if the JVM supports them.
+     *
+     * @param executor The executor or <tt>null</tt> for the default one. (Nullable)
+     */
+    public void setBlockingExecutor(final ExecutorService executor) {
+        this.blockingExecutor = executor;
+    }
+
+    /** @return The executor of the asynchronous conversions of the blocking converters. (NonNull) */
+    public ExecutorService getBlockingExecutor() {
+        final ExecutorService executor = blockingExecutor;
+        return executor == null ? AsyncConverters.defaultBlockingExecutor() : executor;
+    }
+
+    /**
+     * Replaces the converter executed by the conversion plans instead of the registered <tt>converter</tt>.
+     *
+     * @return <tt>true</tt> if the converter is registered.
+     */
+    private boolean replaceExecutable(final Converter<?, ?> converter, final Converter<?, ?> executable) {
+        synchronized (writeLock) {
+            final Snapshot current = snapshot;
+            final ConverterRegistration registration = current.registry.registrationOf(converter);
+            if (registration == null) {
+                return false;
+            }
+            final ConverterRegistry registry = current.registry.replace(converter, registration.withExecutable(executable));
+            snapshot = new Snapshot(registry, current.pathPolicy, current.maxPathLength, current.backend, current.metrics);
+            return true;
+        }
+    }
+
+    /**
+     * <p>Builder of a frozen (immutable) {@link ConverterContext}.</p>
+     *
+     * <p>The conversions of the frozen context are resolved when the context is {@link #build() built}: every (input type, output type)
+     * pair which is reachable through the registered converters is compiled into a dispatch table, so a conversion is a table lookup
+     * without any synchronization. If the path policy is {@link PathPolicy#FAIL}, the ambiguous conversions are reported by the
+     * {@link #build()} method; under {@link PathPolicy#FIRST} they are resolved by their first path, as in a modifiable context.</p>
+     *
+     * <p>The input types of the precomputed conversions are the input types of the converters. Conversions of other runtime classes
+     * (e.g. a {@link Long} converted by a converter of {@link Number}) are resolved on their first use, unless the class is declared by the
+     * {@link #source(Class)} method.</p>
+     */
+    public static final class Builder {
+
+        private final List<ConverterRegistration> registrations = new ArrayList<ConverterRegistration>();
+        private final List<Class<?>> sources = new ArrayList<Class<?>>();
+        private final List<Type> targets = new ArrayList<Type>();
+        private PathPolicy pathPolicy = PathPolicy.FIRST;
+        private int maxPathLength = DEFAULT_MAX_PATH_LENGTH;
+        private PlanBackend backend = PlanBackend.INTERPRETED;
+        private ConversionMetrics metrics;
+        private ExecutorService blockingExecutor;
+
+        /** Use {@link ConverterContext#builder()}. */
+        Builder() {
+        }
+
+        /**
+         * Registers a converter. See {@link ConverterContext#add(Converter)}.
+         *
+         * @param converter The converter. (NonNull)
+         * @return This builder.
+         */
+        public <F, T> Builder add(final Converter<F, T> converter) {
+            registrations.add(new ConverterRegistration(converter, getConverterTypes(converter)));
+            return this;
+        }
+
+        /**
+         * Registers a memoized converter. See {@link ConverterContext#memoize(Converter, long)}.
+         *
+         * @param converter The converter. It has to be a pure function of its input. (NonNull)
+         * @param maximumSize The maximum number of the cached results.
+         * @return This builder.
+         */
+        public <F, T> Builder addMemoized(final Converter<F, T> converter, final long maximumSize) {
+            registrations.add(new ConverterRegistration(converter, getConverterTypes(converter), MemoizingConverter.of(converter, maximumSize)));
+            return this;
+        }
+
+        /**
+         * Registers a slow or blocking converter. See {@link ConverterContext#setBlocking(Converter, boolean)}.
+         *
+         * @param converter The converter. (NonNull)
+         * @return This builder.
+         */
+        public <F, T> Builder addBlocking(final Converter<F, T> converter) {
+            registrations.add(new ConverterRegistration(converter, getConverterTypes(converter), converter, true));
+            return this;
+        }
+
+        /**
+         * Declares a runtime class of the input objects whose conversions should be precomputed.
+         *
+         * @param sourceClass The class of the input objects. (NonNull)
+         * @return This builder.
+         */
+        public Builder source(final Class<?> sourceClass) {
+            sources.add(sourceClass);
+            return this;
+        }
+
+        /**
+         * Declares a requested output type whose conversions should be precomputed in addition to the output types of the converters.
+         *
+         * @param targetType The output type. (NonNull)
+         * @return This builder.
+         */
+        public Builder target(final Type targetType) {
+            targets.add(targetType);
+            return this;
+        }
+
+        /**
+         * Sets the path policy. See {@link ConverterContext#setPathPolicy(PathPolicy)}.
+         *
+         * @param policy The policy. (NonNull)
+         * @return This builder.
+         */
+        public Builder pathPolicy(final PathPolicy policy) {
+            if (policy == null) {
+                throw new IllegalArgumentException("The path policy can't be null.");
+            }
+            this.pathPolicy = policy;
+            return this;
+        }
+
+        /**
+         * Sets the maximum path length. See {@link ConverterContext#setMaxPathLength(int)}.
+         *
+         * @param length The maximum length of the conversion paths. (Positive)
+         * @return This builder.
+         */
+        public Builder maxPathLength(final int length) {
+            if (length < 1) {
+                throw new IllegalArgumentException("The maximum path length has to be positive: " + length);
+            }
+            this.maxPathLength = length;
+            return this;
+        }
+
+        /**
+         * Sets the execution backend of the compiled conversion plans. See {@link ConverterContext#setPlanBackend(PlanBackend)}.
+         *
+         * @param planBackend The backend. (NonNull)
+         * @return This builder.
+         */
+        public Builder planBackend(final PlanBackend planBackend) {
+            if (planBackend == null) {
+                throw new IllegalArgumentException("The plan backend can't be null.");
+            }
+            this.backend = planBackend;
+            return this;
+        }
+
+        /**
+         * Sets the metrics recorded by the context. See {@link ConverterContext#setMetrics(ConversionMetrics)}.
+         *
+         * @param conversionMetrics The metrics. (Nullable)
+         * @return This builder.
+         */
+        public Builder metrics(final ConversionMetrics conversionMetrics) {
+            this.metrics = conversionMetrics;
+            return this;
+        }
+
+        /**
+         * Sets the executor of the blocking conversions. See {@link ConverterContext#setBlockingExecutor(ExecutorService)}.
+         *
+         * @param executor The executor or <tt>null</tt> for the default one. (Nullable)
+         * @return This builder.
+         */
+        public Builder blockingExecutor(final ExecutorService executor) {
+            this.blockingExecutor = executor;
+            return this;
+        }
+
+        /**
+         * Builds the frozen context and resolves its conversions.
+         *
+         * @return The frozen context. Its modifier methods throw {@link UnsupportedOperationException}. (NonNull)
+         * @throws ConverterException If the path policy is {@link PathPolicy#FAIL} and there are ambiguous conversions.
+         */
+        public ConverterContext build() {
+            return new FrozenConverterContext(new Snapshot(ConverterRegistry.of(registrations), pathPolicy, maxPathLength, backend, metrics), sources, targets,
+                                              blockingExecutor);
+        }
+
+    }
+
 }
@@ -0,0 +1,112 @@
+/*
+ * Moresby Coffee Bean
+ *
+ * Copyright (c) 2012, Barnabas Sudy (barnabas.sudy@gmail.com)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.moresbycoffee.pass;
+
+import org.moresbycoffee.pass.ConverterContext.ConverterTypes;
+import org.moresbycoffee.pass.api.Converter;
+import org.moresbycoffee.pass.api.MemoizingConverter;
+
+import com.google.common.reflect.TypeToken;
+
+/**
+ * <p>Registration record of a {@link Converter} in the {@link ConverterContext}.</p>
+ *
+ * <p>The input and output types of the converter are resolved once when the converter is
+ * {@link ConverterContext#add(Converter) added} to the context, so the conversion doesn't need any reflection.</p>
+ */
+final class ConverterRegistration extends ConverterTypes {
+
+    /* CHECKSTYLE:OFF because this is a Data Structure Object without any logic and it will never have any setter nor complex getter. */
+    /** The registered converter. */
+    public final Converter<?, ?> converter;
+    /** The converter executed by the conversion plans: the registered converter or its {@link MemoizingConverter memoizing decorator}. */
+    public final Converter<?, ?> executable;
+    /** <tt>true</tt> if the converter is slow or blocking, so its asynchronous conversions run on the blocking executor of the context. */
+    public final boolean blocking;
+    /** The {@link TypeToken} of the input type of the converter. */
+    public final TypeToken<?> fromToken;
+    /** The {@link TypeToken} of the output type of the converter. */
+    public final TypeToken<?> toToken;
+    /* CHECKSTYLE:ON */
+
+    /**
+     * @param converter The registered converter. (NonNull)
+     * @param types The input and output types of the converter. (NonNull)
+     */
+    ConverterRegistration(final Converter<?, ?> converter, final ConverterTypes types) {
+        this(converter, types, converter);
+    }
+
+    /**
+     * @param converter The registered converter. (NonNull)
+     * @param types The input and output types of the converter. (NonNull)
+     * @param executable The converter executed by the conversion plans instead of the registered one. (NonNull)
+     */
+    ConverterRegistration(final Converter<?, ?> converter, final ConverterTypes types, final Converter<?, ?> executable) {
+        this(converter, types, executable, false);
+    }
+
+    /**
+     * @param converter The registered converter. (NonNull)
+     * @param types The input and output types of the converter. (NonNull)
+     * @param executable The converter executed by the conversion plans instead of the registered one. (NonNull)
+     * @param blocking <tt>true</tt> if the converter is slow or blocking.
+     */
+    ConverterRegistration(final Converter<?, ?> converter, final ConverterTypes types, final Converter<?, ?> executable, final boolean blocking) {
+        super(types.fromType, types.toType);
+        this.converter  = converter;
+        this.executable = executable;
+        this.blocking   = blocking;
+        this.fromToken  = TypeToken.of(fromType);
+        this.toToken    = TypeToken.of(toType);
+    }
+
+    /**
+     * @param newExecutable The converter executed by the conversion plans. (NonNull)
+     * @return A copy of this registration with the new executed converter. (NonNull)
+     */
+    ConverterRegistration withExecutable(final Converter<?, ?> newExecutable) {
+        return new ConverterRegistration(converter, this, newExecutable, blocking);
+    }
+
+    /**
+     * @param newBlocking <tt>true</tt> if the converter is slow or blocking.
+     * @return A copy of this registration with the new blocking flag. (NonNull)
+     */
+    ConverterRegistration withBlocking(final boolean newBlocking) {
+        return new ConverterRegistration(converter, this, executable, newBlocking);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String toString() {
+        return fromType + " -> " + toType;
+    }
+
+}
@@ -0,0 +1,429 @@
+/*
+ * Moresby Coffee Bean
+ *
+ * Copyright (c) 2012, Barnabas Sudy (barnabas.sudy@gmail.com)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.moresbycoffee.pass;
+
+import java.lang.reflect.Array;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.moresbycoffee.pass.api.Converter;
+
+import com.google.common.reflect.TypeToken;
+
+/**
+ * <p>The registered converters of a {@link ConverterContext} indexed by the raw type of their input.</p>
+ *
+ * <p>A converter is looked up by walking the type hierarchy of the input class (the class itself, then its superclasses and
+ * interfaces breadth-first) and probing the index with every type. The cost of the lookup depends on the depth of the
+ * hierarchy instead of the number of the registered converters.</p>
+ *
+ * <p>The lookup is deterministic: the converter registered for the closest supertype of the input class wins, and
+ * among the converters of the same input type the one with the most specific output type is chosen. If there are still more
+ * than one candidate, the earlier registered one is used.</p>
+ *
+ * <p>If there is no direct converter, the registry can search for conversion paths through intermediate types too
+ * (see {@link #findPaths(Class, TypeToken, int, boolean)}).</p>
+ *
+ * <p>The registry is immutable, the {@link #add(ConverterRegistration)} and {@link #remove(Converter)} methods create new instances,
+ * so a registry can be shared between threads without synchronization.</p>
+ */
+final class ConverterRegistry {
+
+    /** The empty registry. */
+    static final ConverterRegistry EMPTY = new ConverterRegistry(Collections.<ConverterRegistration>emptyList());
+
+    /** The registrations in the order of the registration. (Unmodifiable) */
+    private final List<ConverterRegistration> registrations;
+
+    /** The registrations by the raw input type of the converter. The lists keep the order of the registration. */
+    private final Map<Class<?>, List<ConverterRegistration>> bySourceType = new HashMap<Class<?>, List<ConverterRegistration>>();
+
+    /**
+     * Builds the index of the registrations.
+     *
+     * @param registrations The registrations in the order of the registration. (NonNull, Unmodifiable)
+     */
+    private ConverterRegistry(final List<ConverterRegistration> registrations) {
+        this.registrations = registrations;
+        for (final ConverterRegistration registration : registrations) {
+            final Class<?> sourceType = registration.fromToken.getRawType();
+            List<ConverterRegistration> sourceRegistrations = bySourceType.get(sourceType);
+            if (sourceRegistrations == null) {
+                sourceRegistrations = new ArrayList<ConverterRegistration>(1);
+                bySourceType.put(sourceType, sourceRegistrations);
+            }
+            sourceRegistrations.add(registration);
+        }
+    }
+
+    /**
+     * Creates a registry of the <tt>registrations</tt>.
+     *
+     * @param registrations The registrations in the order of the registration. (NonNull)
+     * @return The new registry. (NonNull)
+     */
+    static ConverterRegistry of(final List<ConverterRegistration> registrations) {
+        return new ConverterRegistry(Collections.unmodifiableList(new ArrayList<ConverterRegistration>(registrations)));
+    }
+
+    /**
+     * Creates a new registry containing the registrations of this one and the new <tt>registration</tt>.
+     *
+     * @param registration The new registration. (NonNull)
+     * @return The new registry. (NonNull)
+     */
+    ConverterRegistry add(final ConverterRegistration registration) {
+        final List<ConverterRegistration> newRegistrations = new ArrayList<ConverterRegistration>(registrations.size() + 1);
+        newRegistrations.addAll(registrations);
+        newRegistrations.add(registration);
+        return new ConverterRegistry(Collections.unmodifiableList(newRegistrations));
+    }
+
+    /**
+     * Creates a new registry without the first registration of the <tt>converter</tt>.
+     * The converters are compared by the {@link Object#equals(Object)} method.
+     *
+     * @param converter The converter to be removed.
+     * @return The new registry or this one if the converter is not registered. (NonNull)
+     */
+    ConverterRegistry remove(final Converter<?, ?> converter) {
+        for (int i = 0; i < registrations.size(); i++) {
+            if (registrations.get(i).converter.equals(converter)) {
+                final List<ConverterRegistration> newRegistrations = new ArrayList<ConverterRegistration>(registrations);
+                newRegistrations.remove(i);
+                return new ConverterRegistry(Collections.unmodifiableList(newRegistrations));
+            }
+        }
+        return this;
+    }
+
+    /**
+     * Creates a new registry in which the first registration of the <tt>converter</tt> is replaced.
+     * The converters are compared by the {@link Object#equals(Object)} method.
+     *
+     * @param converter The registered converter. (NonNull)
+     * @param replacement The new registration. (NonNull)
+     * @return The new registry or this one if the converter is not registered. (NonNull)
+     */
+    ConverterRegistry replace(final Converter<?, ?> converter, final ConverterRegistration replacement) {
+        for (int i = 0; i < registrations.size(); i++) {
+            if (registrations.get(i).converter.equals(converter)) {
+                final List<ConverterRegistration> newRegistrations = new ArrayList<ConverterRegistration>(registrations);
+                newRegistrations.set(i, replacement);
+                return new ConverterRegistry(Collections.unmodifiableList(newRegistrations));
+            }
+        }
+        return this;
+    }
+
+    /**
+     * @param converter The registered converter.
+     * @return The first registration of the converter or <tt>null</tt> if it is not registered. (Nullable)
+     */
+    ConverterRegistration registrationOf(final Converter<?, ?> converter) {
+        for (final ConverterRegistration registration : registrations) {
+            if (registration.converter.equals(converter)) {
+                return registration;
+            }
+        }
+        return null;
+    }
+
+    /** @return The registrations in the order of the registration. (NonNull, Unmodifiable) */
+    List<ConverterRegistration> getRegistrations() {
+        return registrations;
+    }
+
+    /**
+     * Finds the registration which is able to convert an instance of the <tt>sourceClass</tt> to the <tt>targetToken</tt> type directly.
+     *
+     * @param sourceClass The runtime class of the input object. (NonNull)
+     * @param targetToken The requested output type. (NonNull)
+     * @return The matching registration or <tt>null</tt> if there is no registered converter for the conversion. (Nullable)
+     */
+    ConverterRegistration find(final Class<?> sourceClass, final TypeToken<?> targetToken) {
+        final List<ConverterRegistration> candidates = directCandidates(sourceClass, null, targetToken);
+        return candidates.isEmpty() ? null : candidates.get(0);
+    }
+
+    /**
+     * <p>Finds the shortest conversion paths from the <tt>sourceClass</tt> to the <tt>targetToken</tt> type. A path is a sequence of
+     * registrations where the output of a converter is the input of the next one. The search is breadth-first, so the found paths have
+     * the fewest possible conversion steps. A step is only followed by a converter whose input type accepts the exact (generic) output
+     * type of the step, e.g. the output of a <tt>List&lt;String&gt;</tt> producer is not passed to a <tt>List&lt;Integer&gt;</tt> consumer.</p>
+     *
+     * <p>The paths are ordered by the same rules as the {@link #find(Class, TypeToken)} method uses on every step, the first path is
+     * the one which the direct lookup would choose if the path is one step long.</p>
+     *
+     * @param sourceClass The runtime class of the input object. (NonNull)
+     * @param targetToken The requested output type. (NonNull)
+     * @param maxLength The maximum number of the steps of a path.
+     * @param all <tt>true</tt> if every shortest path is needed, <tt>false</tt> if the first one is enough.
+     * @return The shortest paths; empty list if there is no path within <tt>maxLength</tt> steps. (NonNull)
+     */
+    List<List<ConverterRegistration>> findPaths(final Class<?> sourceClass, final TypeToken<?> targetToken, final int maxLength, final boolean all) {
+        final TypeToken<?> sourceToken = TypeToken.of(sourceClass);
+        final Set<TypeToken<?>> visited = new HashSet<TypeToken<?>>();
+        visited.add(sourceToken);
+        Map<TypeToken<?>, List<Step>> level = new LinkedHashMap<TypeToken<?>, List<Step>>();
+        level.put(sourceToken, Collections.<Step>singletonList(null));
+
+        for (int length = 1; length <= maxLength && !level.isEmpty(); length++) {
+
+            final List<List<ConverterRegistration>> paths = new ArrayList<List<ConverterRegistration>>();
+            for (final Map.Entry<TypeToken<?>, List<Step>> node : level.entrySet()) {
+                final TypeToken<?> inputToken = length == 1 ? null : node.getKey();
+                for (final ConverterRegistration terminal : directCandidates(node.getKey().getRawType(), inputToken, targetToken)) {
+                    for (final Step step : node.getValue()) {
+                        paths.add(new Step(step, terminal).toPath());
+                        if (!all) {
+                            return paths;
+                        }
+                    }
+                }
+            }
+            if (!paths.isEmpty()) {
+                return paths;
+            }
+
+            final Map<TypeToken<?>, List<Step>> nextLevel = new LinkedHashMap<TypeToken<?>, List<Step>>();
+            for (final Map.Entry<TypeToken<?>, List<Step>> node : level.entrySet()) {
+                final TypeToken<?> inputToken = length == 1 ? null : node.getKey();
+                for (final ConverterRegistration registration : successors(node.getKey().getRawType(), inputToken)) {
+                    final TypeToken<?> nextNode = registration.toToken;
+                    if (visited.contains(nextNode)) {
+                        continue;
+                    }
+                    List<Step> nextSteps = nextLevel.get(nextNode);
+                    if (nextSteps == null) {
+                        nextSteps = new ArrayList<Step>(1);
+                        nextLevel.put(nextNode, nextSteps);
+                    } else if (!all) {
+                        continue;
+                    }
+                    for (final Step step : node.getValue()) {
+                        nextSteps.add(new Step(step, registration));
+                        if (!all) {
+                            break;
+                        }
+                    }
+                }
+            }
+            visited.addAll(nextLevel.keySet());
+            level = nextLevel;
+        }
+        return Collections.emptyList();
+    }
+
+    /**
+     * Collects the raw types which can be reached from the <tt>sourceClass</tt> by at most <tt>maxLength</tt> conversion steps.
+     *
+     * @param sourceClass The class of the input object. (NonNull)
+     * @param maxLength The maximum number of the steps.
+     * @return The raw output types of the reachable converters in the order of their discovery. (NonNull)
+     */
+    Set<Class<?>> reachableFrom(final Class<?> sourceClass, final int maxLength) {
+        final Set<TypeToken<?>> reachable = new LinkedHashSet<TypeToken<?>>();
+        List<TypeToken<?>> level = Collections.<TypeToken<?>>singletonList(TypeToken.of(sourceClass));
+        for (int length = 1; length <= maxLength && !level.isEmpty(); length++) {
+            final List<TypeToken<?>> nextLevel = new ArrayList<TypeToken<?>>();
+            for (final TypeToken<?> node : level) {
+                for (final ConverterRegistration registration : successors(node.getRawType(), length == 1 ? null : node)) {
+                    if (reachable.add(registration.toToken)) {
+                        nextLevel.add(registration.toToken);
+                    }
+                }
+            }
+            level = nextLevel;
+        }
+        final Set<Class<?>> rawTypes = new LinkedHashSet<Class<?>>();
+        for (final TypeToken<?> token : reachable) {
+            rawTypes.add(token.getRawType());
+        }
+        return rawTypes;
+    }
+
+    /**
+     * Lists the registrations which accept the output of a conversion step.
+     *
+     * @param rawType The raw type of the input. (NonNull)
+     * @param inputToken The exact type of the input, or <tt>null</tt> if only the raw type is known (the runtime class of the input object).
+     * @return The registrations of the supertypes of the <tt>rawType</tt> which accept the <tt>inputToken</tt>. (NonNull)
+     */
+    private List<ConverterRegistration> successors(final Class<?> rawType, final TypeToken<?> inputToken) {
+        final List<ConverterRegistration> successors = new ArrayList<ConverterRegistration>();
+        for (final Class<?> sourceType : hierarchyOf(rawType)) {
+            final List<ConverterRegistration> sourceRegistrations = bySourceType.get(sourceType);
+            if (sourceRegistrations == null) {
+                continue;
+            }
+            for (final ConverterRegistration registration : sourceRegistrations) {
+                if (accepts(registration, inputToken)) {
+                    successors.add(registration);
+                }
+            }
+        }
+        return successors;
+    }
+
+    /**
+     * @param inputToken The exact type of the input, or <tt>null</tt> if only the raw type is known.
+     * @return <tt>true</tt> if the converter of the <tt>registration</tt> accepts an input of the <tt>inputToken</tt> type. Without an
+     *         exact type the raw type decides, which is checked by the index already.
+     */
+    private static boolean accepts(final ConverterRegistration registration, final TypeToken<?> inputToken) {
+        return inputToken == null || registration.fromToken.isAssignableFrom(inputToken);
+    }
+
+    /**
+     * <p>Lists the registrations which are able to convert an instance of the <tt>sourceClass</tt> to the <tt>targetToken</tt> type
+     * directly. Only the registrations of the closest supertype of the <tt>sourceClass</tt> which has any matching registration are
+     * listed (the closest supertype wins); among them the more specific output types come first, otherwise the order of the
+     * registration is kept.</p>
+     *
+     * @param sourceClass The class of the input object. (NonNull)
+     * @param inputToken The exact type of the input, or <tt>null</tt> if only the raw type is known. (Nullable)
+     * @param targetToken The requested output type. (NonNull)
+     * @return The ordered matching registrations. (NonNull)
+     */
+    private List<ConverterRegistration> directCandidates(final Class<?> sourceClass, final TypeToken<?> inputToken, final TypeToken<?> targetToken) {
+        final List<ConverterRegistration> candidates = new ArrayList<ConverterRegistration>();
+        for (final Class<?> sourceType : hierarchyOf(sourceClass)) {
+            final List<ConverterRegistration> sourceRegistrations = bySourceType.get(sourceType);
+            if (sourceRegistrations == null) {
+                continue;
+            }
+            final List<ConverterRegistration> matching = new ArrayList<ConverterRegistration>();
+            for (final ConverterRegistration registration : sourceRegistrations) {
+                if (targetToken.isAssignableFrom(registration.toToken) && accepts(registration, inputToken)) {
+                    matching.add(registration);
+                }
+            }
+            /* Selection by specificity: the output types are only partially ordered, so a comparator based sort can't be used. */
+            while (!matching.isEmpty()) {
+                ConverterRegistration best = null;
+                for (final ConverterRegistration registration : matching) {
+                    if (best == null || isMoreSpecific(registration, best)) {
+                        best = registration;
+                    }
+                }
+                matching.remove(best);
+                candidates.add(best);
+            }
+            if (!candidates.isEmpty()) {
+                break;
+            }
+        }
+        return candidates;
+    }
+
+    /**
+     * @return <tt>true</tt> if the output type of the <tt>candidate</tt> is a strict subtype of the output type of the <tt>current</tt>.
+     */
+    private static boolean isMoreSpecific(final ConverterRegistration candidate, final ConverterRegistration current) {
+        return current.toToken.isAssignableFrom(candidate.toToken) && !candidate.toToken.isAssignableFrom(current.toToken);
+    }
+
+    /**
+     * <p>Lists the type hierarchy of a class breadth-first: the class itself, then its direct superclass and interfaces,
+     * then their supertypes and so on. Every type is listed once, at its closest position.</p>
+     *
+     * <p>For arrays of reference types the arrays of the supertypes of the component type are listed too (as arrays are covariant),
+     * followed by the supertypes of all arrays.</p>
+     *
+     * @param type The class. (NonNull)
+     * @return The ordered type hierarchy. (NonNull)
+     */
+    static Set<Class<?>> hierarchyOf(final Class<?> type) {
+        final Set<Class<?>> hierarchy = new LinkedHashSet<Class<?>>();
+        if (type.isArray() && !type.getComponentType().isPrimitive()) {
+            for (final Class<?> componentSupertype : hierarchyOf(type.getComponentType())) {
+                hierarchy.add(Array.newInstance(componentSupertype, 0).getClass());
+            }
+        } else {
+            hierarchy.add(type);
+        }
+        final List<Class<?>> level = new ArrayList<Class<?>>(hierarchy);
+        for (int i = 0; i < level.size(); i++) {
+            final Class<?> current = level.get(i);
+            final Class<?> superclass = current.getSuperclass();
+            if (superclass != null && hierarchy.add(superclass)) {
+                level.add(superclass);
+            }
+            for (final Class<?> iface : current.getInterfaces()) {
+                if (hierarchy.add(iface)) {
+                    level.add(iface);
+                }
+            }
+        }
+        if (type.isInterface() && hierarchy.add(Object.class)) {
+            level.add(Object.class);
+        }
+        return hierarchy;
+    }
+
+    /**
+     * A step of a conversion path under construction. The steps are linked backward, so the paths with common prefixes share
+     * their steps.
+     */
+    private static final class Step {
+
+        /** The previous step or <tt>null</tt> if this is the first one. */
+        private final Step previous;
+        /** The registration of the step. */
+        private final ConverterRegistration registration;
+        /** The number of the steps including this one. */
+        private final int length;
+
+        Step(final Step previous, final ConverterRegistration registration) {
+            this.previous     = previous;
+            this.registration = registration;
+            this.length       = previous == null ? 1 : previous.length + 1;
+        }
+
+        /** @return The registrations of the path from the first step to this one. */
+        List<ConverterRegistration> toPath() {
+            final ConverterRegistration[] path = new ConverterRegistration[length];
+            for (Step step = this; step != null; step = step.previous) {
+                path[step.length - 1] = step.registration;
+            }
+            return Arrays.asList(path);
+        }
+
+    }
+
+}
@@ -0,0 +1,110 @@
+/*
+ * Moresby Coffee Bean
+ *
+ * Copyright (c) 2012, Barnabas Sudy (barnabas.sudy@gmail.com)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.moresbycoffee.pass;
+
+import java.lang.reflect.Type;
+import java.util.Map;
+
+import org.moresbycoffee.pass.api.Converter;
+
+/**
+ * <p>Immutable, precomputed table of the resolved conversions of a frozen context.</p>
+ *
+ * <p>The rows are stored in an open addressing array keyed by the identity of the input class (the hash code of a {@link Class}
+ * is its identity hash code), every row contains the output types and the converters in two parallel arrays. A lookup is a probe
+ * in the array followed by a short scan of the row; there is no allocation and no synchronization.</p>
+ */
+final class DispatchTable {
+
+    /** The input classes; <tt>null</tt> marks an empty slot. The length is a power of two. */
+    private final Class<?>[] sourceClasses;
+    /** The output types of the rows, parallel with {@link #sourceClasses}. */
+    private final Type[][] targetTypes;
+    /** The converters of the rows, parallel with {@link #targetTypes}. */
+    private final Converter<?, ?>[][] converters;
+    /** <tt>sourceClasses.length - 1</tt> */
+    private final int mask;
+
+    /**
+     * @param conversions The resolved converters by the input classes and the output types. (NonNull)
+     */
+    DispatchTable(final Map<Class<?>, Map<Type, Converter<?, ?>>> conversions) {
+        /* At most half of the slots are used, so the probe sequences are short. */
+        int capacity = 2;
+        while (capacity < conversions.size() * 2) {
+            capacity <<= 1;
+        }
+        sourceClasses = new Class<?>[capacity];
+        targetTypes   = new Type[capacity][];
+        converters    = new Converter<?, ?>[capacity][];
+        mask          = capacity - 1;
+
+        for (final Map.Entry<Class<?>, Map<Type, Converter<?, ?>>> row : conversions.entrySet()) {
+            int slot = row.getKey().hashCode() & mask;
+            while (sourceClasses[slot] != null) {
+                slot = (slot + 1) & mask;
+            }
+            sourceClasses[slot] = row.getKey();
+            targetTypes[slot]   = row.getValue().keySet().toArray(new Type[row.getValue().size()]);
+            converters[slot]    = row.getValue().values().toArray(new Converter<?, ?>[row.getValue().size()]);
+        }
+    }
+
+    /**
+     * Looks up the converter of a conversion.
+     *
+     * @param sourceClass The runtime class of the input object. (NonNull)
+     * @param targetType The requested output type. (NonNull)
+     * @return The precomputed converter or <tt>null</tt> if the conversion is not in the table. (Nullable)
+     */
+    Converter<?, ?> get(final Class<?> sourceClass, final Type targetType) {
+        int slot = sourceClass.hashCode() & mask;
+        Class<?> current;
+        while ((current = sourceClasses[slot]) != sourceClass) {
+            if (current == null) {
+                return null;
+            }
+            slot = (slot + 1) & mask;
+        }
+        final Type[] rowTypes = targetTypes[slot];
+        for (int i = 0; i < rowTypes.length; i++) {
+            if (rowTypes[i] == targetType) {
+                return converters[slot][i];
+            }
+        }
+        /* Non-class types (e.g. parameterized types) are equal without being identical. */
+        for (int i = 0; i < rowTypes.length; i++) {
+            if (rowTypes[i].equals(targetType)) {
+                return converters[slot][i];
+            }
+        }
+        return null;
+    }
+
+}
@@ -0,0 +1,228 @@
+/*
+ * Moresby Coffee Bean
+ *
+ * Copyright (c) 2012, Barnabas Sudy (barnabas.sudy@gmail.com)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.moresbycoffee.pass;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+
+import org.moresbycoffee.pass.api.Converter;
+import org.moresbycoffee.pass.api.ConverterException;
+
+import com.google.common.reflect.TypeToken;
+
+/**
+ * <p>Immutable {@link ConverterContext} built by the {@link ConverterContext.Builder}.</p>
+ *
+ * <p>Every conversion which is reachable from the input types of the registered converters (and from the
+ * {@link ConverterContext.Builder#source(Class) declared source classes}) is resolved when the context is built and stored in a
+ * {@link DispatchTable}, so a conversion is a table lookup without any synchronization. The conversions which are not in the table
+ * (e.g. the input is a subclass of the input type of a converter) are resolved and cached as in a modifiable context.</p>
+ *
+ * <p>The modifier methods throw {@link UnsupportedOperationException}.</p>
+ */
+final class FrozenConverterContext extends ConverterContext {
+
+    /** The precomputed conversions. */
+    private final DispatchTable dispatchTable;
+
+    /**
+     * Resolves the reachable conversions.
+     *
+     * @param snapshot The state of the context. (NonNull)
+     * @param sources The classes of the input objects to be precomputed in addition to the input types of the converters. (NonNull)
+     * @param targets The types to be precomputed in addition to the output types of the converters. (NonNull)
+     * @param blockingExecutor The executor of the blocking conversions or <tt>null</tt> for the default one. (Nullable)
+     * @throws ConverterException If the path policy is {@link PathPolicy#FAIL} and there are ambiguous conversions.
+     */
+    FrozenConverterContext(final Snapshot snapshot, final Collection<Class<?>> sources, final Collection<Type> targets,
+                           final ExecutorService blockingExecutor) {
+        super(snapshot);
+        super.setBlockingExecutor(blockingExecutor);
+        final ConverterRegistry registry = snapshot.registry;
+
+        final Set<Class<?>> allSources = new LinkedHashSet<Class<?>>();
+        final Set<Type> allTargets = new LinkedHashSet<Type>(targets);
+        for (final ConverterRegistration registration : registry.getRegistrations()) {
+            allSources.add(registration.fromToken.getRawType());
+            allTargets.add(registration.toType);
+        }
+        allSources.addAll(sources);
+
+        final Map<Class<?>, Map<Type, Converter<?, ?>>> conversions = new LinkedHashMap<Class<?>, Map<Type, Converter<?, ?>>>();
+        /* The ambiguities are only reported by the FAIL policy; the FIRST policy resolves them silently like a modifiable context. */
+        final List<String> ambiguities = snapshot.pathPolicy == PathPolicy.FAIL ? new ArrayList<String>() : null;
+        for (final Class<?> source : allSources) {
+            final Set<Class<?>> reachable = registry.reachableFrom(source, snapshot.maxPathLength);
+            final Map<Type, Converter<?, ?>> row = new LinkedHashMap<Type, Converter<?, ?>>();
+            for (final Type target : allTargets) {
+                if (!isReachable(reachable, target)) {
+                    continue;
+                }
+                final ConversionKey key = new ConversionKey(source, target);
+                final List<List<ConverterRegistration>> paths = registry.findPaths(source, TypeToken.of(target), snapshot.maxPathLength, true);
+                if (paths.isEmpty()) {
+                    continue;
+                }
+                if (ambiguities != null && paths.size() > 1) {
+                    ambiguities.add(key + " (" + paths.size() + " paths: " + paths + ")");
+                }
+                row.put(target, snapshot.compile(key, paths));
+            }
+            if (!row.isEmpty()) {
+                conversions.put(source, row);
+            }
+        }
+        if (ambiguities != null && !ambiguities.isEmpty()) {
+            throw new ConverterException("Ambiguous conversions: " + ambiguities);
+        }
+        this.dispatchTable = new DispatchTable(conversions);
+    }
+
+    /**
+     * @return <tt>true</tt> if an instance of the <tt>target</tt> can be produced from the <tt>reachable</tt> raw types.
+     */
+    private static boolean isReachable(final Set<Class<?>> reachable, final Type target) {
+        final Class<?> rawTarget = TypeToken.of(target).getRawType();
+        for (final Class<?> type : reachable) {
+            if (rawTarget.isAssignableFrom(type)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    @SuppressWarnings("rawtypes")
+    Converter converterOf(final Class<?> sourceClass, final Type toType) {
+        final Converter converter = dispatchTable.get(sourceClass, toType);
+        if (converter != null) {
+            return converter;
+        }
+        return super.converterOf(sourceClass, toType);
+    }
+
+    /**
+     * Not supported.
+     * @throws UnsupportedOperationException Always.
+     */
+    @Override
+    public <F, T> void add(final Converter<F, T> converter) {
+        throw new UnsupportedOperationException("The context is frozen.");
+    }
+
+    /**
+     * Not supported.
+     * @throws UnsupportedOperationException Always.
+     */
+    @Override
+    public <F, T> boolean remove(final Converter<F, T> converter) {
+        throw new UnsupportedOperationException("The context is frozen.");
+    }
+
+    /**
+     * Not supported.
+     * @throws UnsupportedOperationException Always.
+     */
+    @Override
+    public void setPathPolicy(final PathPolicy pathPolicy) {
+        throw new UnsupportedOperationException("The context is frozen.");
+    }
+
+    /**
+     * Not supported.
+     * @throws UnsupportedOperationException Always.
+     */
+    @Override
+    public void setMaxPathLength(final int maxPathLength) {
+        throw new UnsupportedOperationException("The context is frozen.");
+    }
+
+    /**
+     * Not supported.
+     * @throws UnsupportedOperationException Always.
+     */
+    @Override
+    public void setPlanBackend(final PlanBackend backend) {
+        throw new UnsupportedOperationException("The context is frozen.");
+    }
+
+    /**
+     * Not supported.
+     * @throws UnsupportedOperationException Always.
+     */
+    @Override
+    public void setMetrics(final ConversionMetrics metrics) {
+        throw new UnsupportedOperationException("The context is frozen.");
+    }
+
+    /**
+     * Not supported.
+     * @throws UnsupportedOperationException Always.
+     */
+    @Override
+    public <F, T> boolean memoize(final Converter<F, T> converter, final long maximumSize) {
+        throw new UnsupportedOperationException("The context is frozen.");
+    }
+
+    /**
+     * Not supported.
+     * @throws UnsupportedOperationException Always.
+     */
+    @Override
+    public <F, T> boolean unmemoize(final Converter<F, T> converter) {
+        throw new UnsupportedOperationException("The context is frozen.");
+    }
+
+    /**
+     * Not supported.
+     * @throws UnsupportedOperationException Always.
+     */
+    @Override
+    public <F, T> boolean setBlocking(final Converter<F, T> converter, final boolean blocking) {
+        throw new UnsupportedOperationException("The context is frozen.");
+    }
+
+    /**
+     * Not supported.
+     * @throws UnsupportedOperationException Always.
+     */
+    @Override
+    public void setBlockingExecutor(final ExecutorService executor) {
+        throw new UnsupportedOperationException("The context is frozen.");
+    }
+
+}
@@ -0,0 +1,435 @@
+/*
+ * Moresby Coffee Bean
+ *
+ * Copyright (c) 2012, Barnabas Sudy (barnabas.sudy@gmail.com)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.moresbycoffee.pass;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+import org.moresbycoffee.pass.api.ConversionResult;
+import org.moresbycoffee.pass.api.Converter;
+import org.moresbycoffee.pass.api.ConverterException;
+import org.moresbycoffee.pass.api.FlatChain;
+import org.moresbycoffee.pass.api.TryConverter;
+
+/**
+ * <p>Compiles the {@link FlatChain} conversion plans into generated classes calling a {@link MethodHandle} tree (see
+ * {@link PlanBackend#METHOD_HANDLES}).</p>
+ *
+ * <p>Every stage becomes a handle of its <tt>convert</tt> method bound to the converter object, and the handles are composed by
+ * {@link MethodHandles#filterReturnValue(MethodHandle, MethodHandle)}. If the class of the converter is public, its own
+ * <tt>convert</tt> method is bound. If every stage preserves <tt>null</tt>, the tree starts with a null guard.</p>
+ *
+ * <p>HotSpot inlines a handle tree only if the handle is a constant of the compiled code, e.g. it's read from a <tt>static final</tt>
+ * field. So every plan gets its own class, defined by its own class loader from the same class file:</p>
+ *
+ * <pre>
+ * public final class CompiledPlan implements Converter {
+ *     private static final MethodHandle HANDLE = (MethodHandle) ((Callable) CompiledPlan.class.getClassLoader()).call();
+ *     public Object convert(Object from) {
+ *         return HANDLE.invokeExact(from);
+ *     }
+ * }
+ * </pre>
+ *
+ * <p>The call site of the <tt>convert</tt> method of the generated class is monomorphic and its target is constant, so the stages
+ * and the converters bound to them are inlined into it. The class is unloaded together with its loader when the plan is no longer
+ * referenced.</p>
+ *
+ * <p>A class is only generated for the chains which get hot, see {@link HotPlan}.</p>
+ *
+ * <p>The other plans (single converters, failures, the plans of {@link ConverterContext#convertAlongAllPaths(Object, java.lang.reflect.Type)})
+ * are returned as they are: they are a single call already.</p>
+ */
+final class MethodHandlePlans {
+
+    /**
+     * The number of the conversions of a chain after which its class is generated. Lower than the invocation count at which HotSpot
+     * compiles a method with C2, so the generated class is there by the time the callers get compiled.
+     */
+    static final int COMPILE_THRESHOLD = 5000;
+
+    /** The binary name of the generated classes. Every class is defined by a different loader, so the name can be the same. */
+    private static final String PLAN_CLASS = "org.moresbycoffee.pass.generated.CompiledPlan";
+
+    /** The class file of the generated classes, see the class description. */
+    private static final byte[] PLAN_CLASS_FILE = planClassFile();
+
+    /** <tt>Object Converter.convert(Object)</tt>. */
+    private static final MethodHandle CONVERT;
+
+    /** <tt>boolean isNull(Object)</tt>. */
+    private static final MethodHandle IS_NULL;
+
+    /** <tt>Object (Object)</tt> returning <tt>null</tt>. */
+    private static final MethodHandle RETURN_NULL;
+
+    /** <tt>Object (Object)</tt>, the type of the compiled trees. */
+    private static final MethodType CONVERT_TYPE = MethodType.methodType(Object.class, Object.class);
+
+    static {
+        try {
+            CONVERT = MethodHandles.publicLookup().findVirtual(Converter.class, "convert", CONVERT_TYPE);
+            IS_NULL = MethodHandles.lookup().findStatic(MethodHandlePlans.class, "isNull", MethodType.methodType(boolean.class, Object.class));
+        } catch (final ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+        RETURN_NULL = MethodHandles.dropArguments(MethodHandles.constant(Object.class, null), 0, Object.class);
+    }
+
+    /** Hidden constructor of the utility class. */
+    private MethodHandlePlans() {
+        throw new UnsupportedOperationException("This is a utility class.");
+    }
+
+    /**
+     * @param plan The compiled plan. (NonNull)
+     * @return The {@link HotPlan} generating the class of the plan when it gets hot, or the plan itself if it's not a chain. (NonNull)
+     */
+    static Converter<Object, Object> compile(final Converter<Object, Object> plan) {
+        if (!(plan instanceof FlatChain)) {
+            return plan;
+        }
+        return new HotPlan((FlatChain<Object, Object>) plan);
+    }
+
+    /**
+     * @param chain The chain. (NonNull)
+     * @return The instance of the class generated for the chain. (NonNull)
+     */
+    private static Converter<Object, Object> generate(final FlatChain<?, ?> chain) {
+        MethodHandle handle = null;
+        for (final Converter<?, ?> stage : chain.getStages()) {
+            final MethodHandle stageHandle = stageHandle(stage);
+            handle = handle == null ? stageHandle : MethodHandles.filterReturnValue(handle, stageHandle);
+        }
+        if (chain.preservesNull()) {
+            handle = MethodHandles.guardWithTest(IS_NULL, RETURN_NULL, handle);
+        }
+        return new PlanLoader(handle).newPlan();
+    }
+
+    /** @return <tt>Object (Object)</tt> handle calling the converter. */
+    private static MethodHandle stageHandle(final Converter<?, ?> stage) {
+        final Class<?> stageClass = stage.getClass();
+        if (Modifier.isPublic(stageClass.getModifiers())) {
+            try {
+                final Method method = stageClass.getMethod("convert", Object.class);
+                if (Modifier.isPublic(method.getDeclaringClass().getModifiers())) {
+                    return MethodHandles.publicLookup().unreflect(method).bindTo(stage).asType(CONVERT_TYPE);
+                }
+            } catch (final ReflectiveOperationException e) {
+                // Falls back to the interface method.
+            }
+        }
+        return CONVERT.bindTo(stage);
+    }
+
+    @SuppressWarnings("unused") // Called through IS_NULL.
+    private static boolean isNull(final Object value) {
+        return value == null;
+    }
+
+    /**
+     * <p>Plan which runs its chain interpreted until it has been called {@link #COMPILE_THRESHOLD} times, then generates the class of the
+     * chain and calls that. So only the hot chains cost a class and a class loader, even if a frozen context resolves every reachable
+     * conversion or a modification of the context drops the resolved plans.</p>
+     *
+     * <p>{@link #tryConvert(Object)} always calls the chain: a failure is not on the hot path.</p>
+     */
+    static final class HotPlan implements TryConverter<Object, Object> {
+
+        private final FlatChain<Object, Object> chain;
+
+        /** The instance of the generated class or <tt>null</tt> until the chain gets hot. */
+        private volatile Converter<Object, Object> compiled;
+
+        /** The number of the interpreted calls. Not synchronized: a lost update only delays the generation of the class. */
+        private int calls;
+
+        private HotPlan(final FlatChain<Object, Object> chain) {
+            this.chain = chain;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public Object convert(final Object from) throws ConverterException {
+            final Converter<Object, Object> target = compiled;
+            if (target != null) {
+                return target.convert(from);
+            }
+            if (++calls >= COMPILE_THRESHOLD) {
+                generateOnce();
+            }
+            return chain.convert(from);
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public ConversionResult<Object> tryConvert(final Object from) {
+            return chain.tryConvert(from);
+        }
+
+        private synchronized void generateOnce() {
+            if (compiled == null) {
+                compiled = generate(chain);
+            }
+        }
+
+        /** @return The instance of the generated class or <tt>null</tt> if the chain isn't hot yet. (Nullable) */
+        Converter<Object, Object> getCompiled() {
+            return compiled;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public String toString() {
+            return (compiled == null ? "Interpreted" : "Compiled") + chain;
+        }
+
+    }
+
+    /**
+     * The loader of a single generated class. The static initializer of the class reads its handle by {@link #call()}.
+     */
+    private static final class PlanLoader extends ClassLoader implements Callable<Object> {
+
+        /** <tt>Object (Object)</tt> */
+        private final MethodHandle handle;
+
+        private PlanLoader(final MethodHandle handle) {
+            super(MethodHandlePlans.class.getClassLoader());
+            this.handle = handle;
+        }
+
+        /** @return A new instance of the generated class. (NonNull) */
+        @SuppressWarnings("unchecked")
+        private Converter<Object, Object> newPlan() {
+            final Class<?> planClass = defineClass(PLAN_CLASS, PLAN_CLASS_FILE, 0, PLAN_CLASS_FILE.length);
+            try {
+                return (Converter<Object, Object>) planClass.getConstructor().newInstance();
+            } catch (final ReflectiveOperationException e) {
+                throw new IllegalStateException("The compiled plan can't be instantiated.", e);
+            }
+        }
+
+        /** @return The handle of the generated class. */
+        @Override
+        public Object call() {
+            return handle;
+        }
+
+    }
+
+    /** @return The class file of the generated classes. See the class description. */
+    private static byte[] planClassFile() {
+        final ConstantPool pool = new ConstantPool();
+        final int thisClass = pool.classRef(PLAN_CLASS.replace('.', '/'));
+        final int objectClass = pool.classRef("java/lang/Object");
+        final int converterClass = pool.classRef(internalName(Converter.class));
+        final int handleField = pool.memberRef(ConstantPool.FIELDREF, thisClass, "HANDLE", "Ljava/lang/invoke/MethodHandle;");
+        final int getClassLoader = pool.memberRef(ConstantPool.METHODREF, pool.classRef("java/lang/Class"), "getClassLoader", "()Ljava/lang/ClassLoader;");
+        final int callableClass = pool.classRef(internalName(Callable.class));
+        final int call = pool.memberRef(ConstantPool.INTERFACE_METHODREF, callableClass, "call", "()Ljava/lang/Object;");
+        final int handleClass = pool.classRef(internalName(MethodHandle.class));
+        final int objectInit = pool.memberRef(ConstantPool.METHODREF, objectClass, "<init>", "()V");
+        final int invokeExact = pool.memberRef(ConstantPool.METHODREF, handleClass, "invokeExact", "(Ljava/lang/Object;)Ljava/lang/Object;");
+
+        final byte[] staticInit = {
+            0x12, (byte) thisClass,                                  // ldc CompiledPlan.class
+            (byte) 0xb6, hi(getClassLoader), lo(getClassLoader),     // invokevirtual Class.getClassLoader
+            (byte) 0xc0, hi(callableClass), lo(callableClass),       // checkcast Callable
+            (byte) 0xb9, hi(call), lo(call), 1, 0,                   // invokeinterface Callable.call
+            (byte) 0xc0, hi(handleClass), lo(handleClass),           // checkcast MethodHandle
+            (byte) 0xb3, hi(handleField), lo(handleField),           // putstatic HANDLE
+            (byte) 0xb1,                                             // return
+        };
+        final byte[] init = {
+            0x2a,                                                    // aload_0
+            (byte) 0xb7, hi(objectInit), lo(objectInit),             // invokespecial Object.<init>
+            (byte) 0xb1,                                             // return
+        };
+        final byte[] convert = {
+            (byte) 0xb2, hi(handleField), lo(handleField),           // getstatic HANDLE
+            0x2b,                                                    // aload_1
+            (byte) 0xb6, hi(invokeExact), lo(invokeExact),           // invokevirtual MethodHandle.invokeExact
+            (byte) 0xb0,                                             // areturn
+        };
+
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final DataOutputStream out = new DataOutputStream(bytes);
+        try {
+            out.writeInt(0xCAFEBABE);
+            out.writeShort(0);
+            out.writeShort(51); // Java 7, no stack map frames are needed without branches.
+            final int code = pool.utf8("Code");
+            final int handleName = pool.utf8("HANDLE");
+            final int handleType = pool.utf8("Ljava/lang/invoke/MethodHandle;");
+            final int clinitName = pool.utf8("<clinit>");
+            final int initName = pool.utf8("<init>");
+            final int voidType = pool.utf8("()V");
+            final int convertName = pool.utf8("convert");
+            final int convertType = pool.utf8("(Ljava/lang/Object;)Ljava/lang/Object;");
+            pool.writeTo(out);
+
+            out.writeShort(Modifier.PUBLIC | Modifier.FINAL | 0x0020); // ACC_SUPER
+            out.writeShort(thisClass);
+            out.writeShort(objectClass);
+            out.writeShort(1);
+            out.writeShort(converterClass);
+
+            out.writeShort(1);
+            out.writeShort(Modifier.PRIVATE | Modifier.STATIC | Modifier.FINAL);
+            out.writeShort(handleName);
+            out.writeShort(handleType);
+            out.writeShort(0);
+
+            out.writeShort(3);
+            writeMethod(out, Modifier.STATIC, clinitName, voidType, code, 1, 0, staticInit);
+            writeMethod(out, Modifier.PUBLIC, initName, voidType, code, 1, 1, init);
+            writeMethod(out, Modifier.PUBLIC, convertName, convertType, code, 2, 2, convert);
+
+            out.writeShort(0);
+            out.flush();
+        } catch (final IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static void writeMethod(final DataOutputStream out, final int access, final int name, final int descriptor, final int codeName,
+                                    final int maxStack, final int maxLocals, final byte[] code) throws IOException {
+        out.writeShort(access);
+        out.writeShort(name);
+        out.writeShort(descriptor);
+        out.writeShort(1);
+        out.writeShort(codeName);
+        out.writeInt(12 + code.length);
+        out.writeShort(maxStack);
+        out.writeShort(maxLocals);
+        out.writeInt(code.length);
+        out.write(code);
+        out.writeShort(0); // exception table
+        out.writeShort(0); // attributes
+    }
+
+    private static String internalName(final Class<?> type) {
+        return type.getName().replace('.', '/');
+    }
+
+    private static byte hi(final int index) {
+        return (byte) (index >>> 8);
+    }
+
+    private static byte lo(final int index) {
+        return (byte) index;
+    }
+
+    /**
+     * The constant pool of a class file. The equal constants are added once.
+     */
+    private static final class ConstantPool {
+
+        private static final int UTF8 = 1;
+        private static final int CLASS = 7;
+        private static final int FIELDREF = 9;
+        private static final int METHODREF = 10;
+        private static final int INTERFACE_METHODREF = 11;
+        private static final int NAME_AND_TYPE = 12;
+
+        /** The indexes of the constants by their encoded forms. */
+        private final Map<String, Integer> indexes = new HashMap<String, Integer>();
+
+        private final ByteArrayOutputStream entries = new ByteArrayOutputStream();
+        private final DataOutputStream out = new DataOutputStream(entries);
+
+        int utf8(final String value) {
+            final Integer index = indexes.get(UTF8 + ":" + value);
+            if (index != null) {
+                return index;
+            }
+            try {
+                out.writeByte(UTF8);
+                out.writeUTF(value);
+            } catch (final IOException e) {
+                throw new IllegalStateException(e);
+            }
+            return register(UTF8 + ":" + value);
+        }
+
+        int classRef(final String internalName) {
+            return reference(CLASS, utf8(internalName), -1);
+        }
+
+        int memberRef(final int tag, final int owner, final String name, final String descriptor) {
+            return reference(tag, owner, reference(NAME_AND_TYPE, utf8(name), utf8(descriptor)));
+        }
+
+        /** Adds a constant of one or two indexes (<tt>second</tt> is <tt>-1</tt> if there is only one). */
+        private int reference(final int tag, final int first, final int second) {
+            final String key = tag + ":" + first + ":" + second;
+            final Integer index = indexes.get(key);
+            if (index != null) {
+                return index;
+            }
+            try {
+                out.writeByte(tag);
+                out.writeShort(first);
+                if (second >= 0) {
+                    out.writeShort(second);
+                }
+            } catch (final IOException e) {
+                throw new IllegalStateException(e);
+            }
+            return register(key);
+        }
+
+        private int register(final String key) {
+            final int index = indexes.size() + 1;
+            indexes.put(key, index);
+            return index;
+        }
+
+        void writeTo(final DataOutputStream classFile) throws IOException {
+            classFile.writeShort(indexes.size() + 1);
+            out.flush();
+            entries.writeTo(classFile);
+        }
+
+    }
+
+}
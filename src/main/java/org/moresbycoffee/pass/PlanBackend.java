@@ -0,0 +1,70 @@
+/*
+ * Moresby Coffee Bean
+ *
+ * Copyright (c) 2012, Barnabas Sudy (barnabas.sudy@gmail.com)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.moresbycoffee.pass;
+
+import org.moresbycoffee.pass.api.Converter;
+
+/**
+ * The execution backend of the compiled conversion plans of a {@link ConverterContext}.
+ */
+public enum PlanBackend {
+
+    /** The plans are executed by the converter objects: a chain calls its stages in a loop. This is the default. */
+    INTERPRETED {
+        @Override
+        Converter<Object, Object> compile(final Converter<Object, Object> plan) {
+            return plan;
+        }
+    },
+
+    /**
+     * Every chain is compiled into a tree of {@link java.lang.invoke.MethodHandle}s held by a class generated for the chain, see
+     * {@link MethodHandlePlans}. The JIT sees the stages of the chain as constants, so it can inline the whole chain into the
+     * <tt>convert</tt> method of the generated class instead of calling the stages through interface calls in a loop.
+     *
+     * <p>A chain runs interpreted until it has been called {@value MethodHandlePlans#COMPILE_THRESHOLD} times; only then is its class
+     * generated. Every generated class costs a class loader and some metaspace, and it is generated again after each modification of
+     * the context, which drops the resolved plans. So the backend suits the contexts which are not modified while they are used and
+     * whose hot conversions are chains of cheap converters. Chains of expensive converters (e.g. number parsing) gain nothing
+     * measurable.</p>
+     */
+    METHOD_HANDLES {
+        @Override
+        Converter<Object, Object> compile(final Converter<Object, Object> plan) {
+            return MethodHandlePlans.compile(plan);
+        }
+    };
+
+    /**
+     * @param plan The plan compiled by the {@link ConversionPlan}. (NonNull)
+     * @return The converter executing the plan by this backend. (NonNull)
+     */
+    abstract Converter<Object, Object> compile(Converter<Object, Object> plan);
+
+}
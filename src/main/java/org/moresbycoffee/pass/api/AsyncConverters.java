@@ -0,0 +1,170 @@
+/*
+ * Moresby Coffee Bean
+ *
+ * Copyright (c) 2012, Barnabas Sudy (barnabas.sudy@gmail.com)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.moresbycoffee.pass.api;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListenableFutureTask;
+import com.google.common.util.concurrent.SettableFuture;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+/**
+ * <p>Asynchronous execution of converters which are slow or blocking (e.g. lookups in file backed dictionaries), so the calling
+ * threads are not blocked by them.</p>
+ *
+ * <p>The results are Guava {@link ListenableFuture}s. The blocking converters should run on an executor dedicated to them, see
+ * {@link #newBlockingExecutor()}: it uses virtual threads if the JVM supports them, so a blocked conversion doesn't hold a platform
+ * thread.</p>
+ */
+public final class AsyncConverters {
+
+    /** Hidden constructor of the utility class. */
+    private AsyncConverters() {
+        throw new UnsupportedOperationException("This is a utility class.");
+    }
+
+    /**
+     * Creates an executor for blocking converters: a virtual thread per task executor if the JVM supports virtual threads (Java 21+),
+     * otherwise an unbounded pool of daemon threads which are discarded after one minute of idleness.
+     *
+     * @return The new executor. (NonNull)
+     */
+    public static ExecutorService newBlockingExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (final ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(new ThreadFactoryBuilder().setDaemon(true).setNameFormat("pass-blocking-%d").build());
+        }
+    }
+
+    /** @return The shared executor of the blocking conversions, created by {@link #newBlockingExecutor()} on the first use. (NonNull) */
+    public static ExecutorService defaultBlockingExecutor() {
+        return DefaultBlockingExecutor.INSTANCE;
+    }
+
+    /** Lazy holder of the {@link #defaultBlockingExecutor()}. */
+    private static final class DefaultBlockingExecutor {
+        private static final ExecutorService INSTANCE = newBlockingExecutor();
+    }
+
+    /**
+     * Converts a value on the executor.
+     *
+     * @param converter The converter. (NonNull)
+     * @param from The value to be converted.
+     * @param executor The executor running the conversion. (NonNull)
+     * @return The future of the converted value. It fails with the exception of the converter, or with
+     *         {@link RejectedExecutionException} if the executor doesn't accept the conversion. (NonNull)
+     */
+    public static <F, T> ListenableFuture<T> convertAsync(final Converter<F, ? extends T> converter, final F from, final Executor executor) {
+        final ListenableFutureTask<T> task = ListenableFutureTask.create(new Callable<T>() {
+            @Override
+            public T call() throws ConverterException {
+                return converter.convert(from);
+            }
+        });
+        try {
+            executor.execute(task);
+        } catch (final RejectedExecutionException e) {
+            return Futures.immediateFailedFuture(e);
+        }
+        return task;
+    }
+
+    /**
+     * <p>Converts the elements of a collection on the executor, with at most <tt>maxConcurrency</tt> conversions running at the same
+     * time. The elements are taken in iteration order by <tt>maxConcurrency</tt> (or fewer) tasks, so a slow element delays only the
+     * task converting it.</p>
+     *
+     * <p>The order of the elements is kept. If a conversion fails, the future fails with its exception and the remaining elements are not
+     * converted. Cancelling the future stops the conversion of the remaining elements too.</p>
+     *
+     * @param converter The converter. It has to be thread safe. (NonNull)
+     * @param from The values to be converted. (NonNull)
+     * @param executor The executor running the conversions. (NonNull)
+     * @param maxConcurrency The maximum number of the conversions running at the same time. (Positive)
+     * @return The future of the converted values in an unmodifiable list. (NonNull)
+     */
+    public static <F, T> ListenableFuture<List<T>> convertAllAsync(final Converter<F, ? extends T> converter, final Collection<? extends F> from,
+                                                                   final Executor executor, final int maxConcurrency) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("The maximum concurrency has to be positive: " + maxConcurrency);
+        }
+        final List<F> input = new ArrayList<F>(from);
+        final SettableFuture<List<T>> result = SettableFuture.create();
+        if (input.isEmpty()) {
+            result.set(Collections.<T>emptyList());
+            return result;
+        }
+        final Object[] output = new Object[input.size()];
+        final AtomicInteger nextIndex = new AtomicInteger();
+        final AtomicInteger remaining = new AtomicInteger(input.size());
+        final int tasks = Math.min(maxConcurrency, input.size());
+        final Runnable worker = new Runnable() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public void run() {
+                int index;
+                while (!result.isDone() && (index = nextIndex.getAndIncrement()) < output.length) {
+                    try {
+                        output[index] = converter.convert(input.get(index));
+                    } catch (final RuntimeException | Error e) {
+                        result.setException(e);
+                        return;
+                    }
+                    if (remaining.decrementAndGet() == 0) {
+                        result.set(Collections.unmodifiableList((List<T>) Arrays.asList(output)));
+                    }
+                }
+            }
+        };
+        for (int i = 0; i < tasks; i++) {
+            try {
+                executor.execute(worker);
+            } catch (final RejectedExecutionException e) {
+                result.setException(e);
+                break;
+            }
+        }
+        return result;
+    }
+
+}
@@ -0,0 +1,761 @@
+/*
+ * Moresby Coffee Bean
+ *
+ * Copyright (c) 2012, Barnabas Sudy (barnabas.sudy@gmail.com)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.moresbycoffee.pass.api;
+
+import java.nio.Buffer;
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * <p>Allocation free encoder and decoder of the primitive numbers which writes into and reads from caller supplied
+ * <tt>byte[]</tt> regions and {@link ByteBuffer}s (heap or direct) with a configurable byte order.</p>
+ *
+ * <p>The {@link #BIG_ENDIAN} codec produces the same layout as the {@link Converters#INT_TO_BYTE}, {@link Converters#LONG_TO_BYTE},
+ * {@link Converters#FLOAT_TO_BYTE} and {@link Converters#DOUBLE_TO_BYTE} converters.</p>
+ *
+ * <p>The {@link ByteBuffer} methods use the byte order of the codec regardless of the {@link ByteBuffer#order() order of the buffer}
+ * and they don't modify the order of the buffer. The absolute methods don't modify the position of the buffer either, the relative
+ * ones advance it like the {@link ByteBuffer} methods.</p>
+ *
+ * <p>Arrays of values are encoded and decoded in a single pass through {@link ByteBuffer} views (e.g. {@link ByteBuffer#asIntBuffer()})
+ * by the <tt>putInts</tt>, <tt>getInts</tt>, etc. methods.</p>
+ *
+ * <p>The instances are immutable and thread safe.</p>
+ */
+public final class ByteCodec {
+
+    /** Codec using big-endian (network) byte order. */
+    public static final ByteCodec BIG_ENDIAN = new ByteCodec(ByteOrder.BIG_ENDIAN);
+
+    /** Codec using little-endian byte order. */
+    public static final ByteCodec LITTLE_ENDIAN = new ByteCodec(ByteOrder.LITTLE_ENDIAN);
+
+    /** The byte order of the codec. */
+    private final ByteOrder order;
+
+    /** <tt>true</tt> if the byte order is big-endian. */
+    private final boolean bigEndian;
+
+    /**
+     * @param order The byte order.
+     */
+    private ByteCodec(final ByteOrder order) {
+        this.order     = order;
+        this.bigEndian = order == ByteOrder.BIG_ENDIAN;
+    }
+
+    /**
+     * Returns the codec of the given byte order.
+     *
+     * @param order The byte order. (NonNull)
+     * @return The codec. (NonNull)
+     */
+    public static ByteCodec of(final ByteOrder order) {
+        if (order == null) {
+            throw new IllegalArgumentException("The byte order can't be null.");
+        }
+        return order == ByteOrder.BIG_ENDIAN ? BIG_ENDIAN : LITTLE_ENDIAN;
+    }
+
+    /** @return The byte order of the codec. */
+    public ByteOrder order() {
+        return order;
+    }
+
+    /**
+     * Checks whether the region fits into the array.
+     *
+     * @throws IndexOutOfBoundsException If the region doesn't fit into the array.
+     */
+    private static void checkBounds(final byte[] array, final int offset, final int length) {
+        if (offset < 0 || offset > array.length - length) {
+            throw new IndexOutOfBoundsException("Can't access " + length + " bytes at " + offset + " in an array of " + array.length + " bytes.");
+        }
+    }
+
+    /**
+     * Computes the number of the bytes of <tt>length</tt> values of <tt>width</tt> bytes each.
+     *
+     * @throws IndexOutOfBoundsException If the number of the bytes doesn't fit into an int.
+     */
+    private static int byteLength(final int length, final int width) {
+        if (length > Integer.MAX_VALUE / width) {
+            throw new IndexOutOfBoundsException("Can't access " + length + " values of " + width + " bytes, the region would be longer than " + Integer.MAX_VALUE + " bytes.");
+        }
+        return length * width;
+    }
+
+    /**
+     * Checks whether the region is valid in an array of <tt>arrayLength</tt> length.
+     *
+     * @throws IndexOutOfBoundsException If the region is invalid.
+     */
+    private static void checkRegion(final int arrayLength, final int offset, final int length) {
+        if (offset < 0 || length < 0 || offset > arrayLength - length) {
+            throw new IndexOutOfBoundsException("Invalid region: offset " + offset + ", length " + length + " in an array of " + arrayLength + " elements.");
+        }
+    }
+
+    /**
+     * Writes an int into the array.
+     *
+     * @param dst The destination array. (NonNull)
+     * @param offset The index of the first byte.
+     * @param value The value.
+     * @return The index after the written bytes (<tt>offset + 4</tt>).
+     * @throws IndexOutOfBoundsException If the value doesn't fit into the array. Nothing is written in this case.
+     */
+    public int putInt(final byte[] dst, final int offset, final int value) {
+        checkBounds(dst, offset, 4);
+        if (bigEndian) {
+            dst[offset]     = (byte) (value >>> 24);
+            dst[offset + 1] = (byte) (value >>> 16);
+            dst[offset + 2] = (byte) (value >>> 8);
+            dst[offset + 3] = (byte) value;
+        } else {
+            dst[offset]     = (byte) value;
+            dst[offset + 1] = (byte) (value >>> 8);
+            dst[offset + 2] = (byte) (value >>> 16);
+            dst[offset + 3] = (byte) (value >>> 24);
+        }
+        return offset + 4;
+    }
+
+    /**
+     * Reads an int from the array.
+     *
+     * @param src The source array. (NonNull)
+     * @param offset The index of the first byte.
+     * @return The value.
+     * @throws IndexOutOfBoundsException If the array doesn't contain 4 bytes from the <tt>offset</tt>.
+     */
+    public int getInt(final byte[] src, final int offset) {
+        checkBounds(src, offset, 4);
+        if (bigEndian) {
+            return (src[offset] << 24) | ((src[offset + 1] & 0xFF) << 16) | ((src[offset + 2] & 0xFF) << 8) | (src[offset + 3] & 0xFF);
+        }
+        return (src[offset + 3] << 24) | ((src[offset + 2] & 0xFF) << 16) | ((src[offset + 1] & 0xFF) << 8) | (src[offset] & 0xFF);
+    }
+
+    /**
+     * Writes a long into the array.
+     *
+     * @param dst The destination array. (NonNull)
+     * @param offset The index of the first byte.
+     * @param value The value.
+     * @return The index after the written bytes (<tt>offset + 8</tt>).
+     * @throws IndexOutOfBoundsException If the value doesn't fit into the array. Nothing is written in this case.
+     */
+    public int putLong(final byte[] dst, final int offset, final long value) {
+        checkBounds(dst, offset, 8);
+        if (bigEndian) {
+            for (int i = 0; i < 8; i++) {
+                dst[offset + i] = (byte) (value >>> ((7 - i) * 8));
+            }
+        } else {
+            for (int i = 0; i < 8; i++) {
+                dst[offset + i] = (byte) (value >>> (i * 8));
+            }
+        }
+        return offset + 8;
+    }
+
+    /**
+     * Reads a long from the array.
+     *
+     * @param src The source array. (NonNull)
+     * @param offset The index of the first byte.
+     * @return The value.
+     * @throws IndexOutOfBoundsException If the array doesn't contain 8 bytes from the <tt>offset</tt>.
+     */
+    public long getLong(final byte[] src, final int offset) {
+        checkBounds(src, offset, 8);
+        long result = 0;
+        if (bigEndian) {
+            for (int i = 0; i < 8; i++) {
+                result = (result << 8) | (src[offset + i] & 0xFFL);
+            }
+        } else {
+            for (int i = 7; i >= 0; i--) {
+                result = (result << 8) | (src[offset + i] & 0xFFL);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Writes a float into the array using its raw int bits ({@link Float#floatToRawIntBits(float)}).
+     *
+     * @param dst The destination array. (NonNull)
+     * @param offset The index of the first byte.
+     * @param value The value.
+     * @return The index after the written bytes (<tt>offset + 4</tt>).
+     * @throws IndexOutOfBoundsException If the value doesn't fit into the array. Nothing is written in this case.
+     */
+    public int putFloat(final byte[] dst, final int offset, final float value) {
+        return putInt(dst, offset, Float.floatToRawIntBits(value));
+    }
+
+    /**
+     * Reads a float from the array.
+     *
+     * @param src The source array. (NonNull)
+     * @param offset The index of the first byte.
+     * @return The value.
+     * @throws IndexOutOfBoundsException If the array doesn't contain 4 bytes from the <tt>offset</tt>.
+     */
+    public float getFloat(final byte[] src, final int offset) {
+        return Float.intBitsToFloat(getInt(src, offset));
+    }
+
+    /**
+     * Writes a double into the array using its raw long bits ({@link Double#doubleToRawLongBits(double)}).
+     *
+     * @param dst The destination array. (NonNull)
+     * @param offset The index of the first byte.
+     * @param value The value.
+     * @return The index after the written bytes (<tt>offset + 8</tt>).
+     * @throws IndexOutOfBoundsException If the value doesn't fit into the array. Nothing is written in this case.
+     */
+    public int putDouble(final byte[] dst, final int offset, final double value) {
+        return putLong(dst, offset, Double.doubleToRawLongBits(value));
+    }
+
+    /**
+     * Reads a double from the array.
+     *
+     * @param src The source array. (NonNull)
+     * @param offset The index of the first byte.
+     * @return The value.
+     * @throws IndexOutOfBoundsException If the array doesn't contain 8 bytes from the <tt>offset</tt>.
+     */
+    public double getDouble(final byte[] src, final int offset) {
+        return Double.longBitsToDouble(getLong(src, offset));
+    }
+
+    /**
+     * Writes an int into the buffer at the given index. The position of the buffer is not changed.
+     *
+     * @param dst The destination buffer. (NonNull)
+     * @param index The index of the first byte.
+     * @param value The value.
+     * @throws IndexOutOfBoundsException If the value doesn't fit into the buffer.
+     * @throws java.nio.ReadOnlyBufferException If the buffer is read-only.
+     */
+    public void putInt(final ByteBuffer dst, final int index, final int value) {
+        dst.putInt(index, dst.order() == order ? value : Integer.reverseBytes(value));
+    }
+
+    /**
+     * Writes an int into the buffer at its position and advances the position by 4.
+     *
+     * @param dst The destination buffer. (NonNull)
+     * @param value The value.
+     * @throws java.nio.BufferOverflowException If there are fewer than 4 bytes remaining in the buffer.
+     * @throws java.nio.ReadOnlyBufferException If the buffer is read-only.
+     */
+    public void putInt(final ByteBuffer dst, final int value) {
+        dst.putInt(dst.order() == order ? value : Integer.reverseBytes(value));
+    }
+
+    /**
+     * Reads an int from the buffer at the given index. The position of the buffer is not changed.
+     *
+     * @param src The source buffer. (NonNull)
+     * @param index The index of the first byte.
+     * @return The value.
+     * @throws IndexOutOfBoundsException If the buffer doesn't contain 4 bytes from the <tt>index</tt>.
+     */
+    public int getInt(final ByteBuffer src, final int index) {
+        final int value = src.getInt(index);
+        return src.order() == order ? value : Integer.reverseBytes(value);
+    }
+
+    /**
+     * Reads an int from the buffer at its position and advances the position by 4.
+     *
+     * @param src The source buffer. (NonNull)
+     * @return The value.
+     * @throws java.nio.BufferUnderflowException If there are fewer than 4 bytes remaining in the buffer.
+     */
+    public int getInt(final ByteBuffer src) {
+        final int value = src.getInt();
+        return src.order() == order ? value : Integer.reverseBytes(value);
+    }
+
+    /**
+     * Writes a long into the buffer at the given index. The position of the buffer is not changed.
+     *
+     * @param dst The destination buffer. (NonNull)
+     * @param index The index of the first byte.
+     * @param value The value.
+     * @throws IndexOutOfBoundsException If the value doesn't fit into the buffer.
+     * @throws java.nio.ReadOnlyBufferException If the buffer is read-only.
+     */
+    public void putLong(final ByteBuffer dst, final int index, final long value) {
+        dst.putLong(index, dst.order() == order ? value : Long.reverseBytes(value));
+    }
+
+    /**
+     * Writes a long into the buffer at its position and advances the position by 8.
+     *
+     * @param dst The destination buffer. (NonNull)
+     * @param value The value.
+     * @throws java.nio.BufferOverflowException If there are fewer than 8 bytes remaining in the buffer.
+     * @throws java.nio.ReadOnlyBufferException If the buffer is read-only.
+     */
+    public void putLong(final ByteBuffer dst, final long value) {
+        dst.putLong(dst.order() == order ? value : Long.reverseBytes(value));
+    }
+
+    /**
+     * Reads a long from the buffer at the given index. The position of the buffer is not changed.
+     *
+     * @param src The source buffer. (NonNull)
+     * @param index The index of the first byte.
+     * @return The value.
+     * @throws IndexOutOfBoundsException If the buffer doesn't contain 8 bytes from the <tt>index</tt>.
+     */
+    public long getLong(final ByteBuffer src, final int index) {
+        final long value = src.getLong(index);
+        return src.order() == order ? value : Long.reverseBytes(value);
+    }
+
+    /**
+     * Reads a long from the buffer at its position and advances the position by 8.
+     *
+     * @param src The source buffer. (NonNull)
+     * @return The value.
+     * @throws java.nio.BufferUnderflowException If there are fewer than 8 bytes remaining in the buffer.
+     */
+    public long getLong(final ByteBuffer src) {
+        final long value = src.getLong();
+        return src.order() == order ? value : Long.reverseBytes(value);
+    }
+
+    /**
+     * Writes a float into the buffer at the given index using its raw bits. The position of the buffer is not changed.
+     *
+     * @param dst The destination buffer. (NonNull)
+     * @param index The index of the first byte.
+     * @param value The value.
+     * @throws IndexOutOfBoundsException If the value doesn't fit into the buffer.
+     * @throws java.nio.ReadOnlyBufferException If the buffer is read-only.
+     */
+    public void putFloat(final ByteBuffer dst, final int index, final float value) {
+        putInt(dst, index, Float.floatToRawIntBits(value));
+    }
+
+    /**
+     * Writes a float into the buffer at its position using its raw bits and advances the position by 4.
+     *
+     * @param dst The destination buffer. (NonNull)
+     * @param value The value.
+     * @throws java.nio.BufferOverflowException If there are fewer than 4 bytes remaining in the buffer.
+     * @throws java.nio.ReadOnlyBufferException If the buffer is read-only.
+     */
+    public void putFloat(final ByteBuffer dst, final float value) {
+        putInt(dst, Float.floatToRawIntBits(value));
+    }
+
+    /**
+     * Reads a float from the buffer at the given index. The position of the buffer is not changed.
+     *
+     * @param src The source buffer. (NonNull)
+     * @param index The index of the first byte.
+     * @return The value.
+     * @throws IndexOutOfBoundsException If the buffer doesn't contain 4 bytes from the <tt>index</tt>.
+     */
+    public float getFloat(final ByteBuffer src, final int index) {
+        return Float.intBitsToFloat(getInt(src, index));
+    }
+
+    /**
+     * Reads a float from the buffer at its position and advances the position by 4.
+     *
+     * @param src The source buffer. (NonNull)
+     * @return The value.
+     * @throws java.nio.BufferUnderflowException If there are fewer than 4 bytes remaining in the buffer.
+     */
+    public float getFloat(final ByteBuffer src) {
+        return Float.intBitsToFloat(getInt(src));
+    }
+
+    /**
+     * Writes a double into the buffer at the given index using its raw bits. The position of the buffer is not changed.
+     *
+     * @param dst The destination buffer. (NonNull)
+     * @param index The index of the first byte.
+     * @param value The value.
+     * @throws IndexOutOfBoundsException If the value doesn't fit into the buffer.
+     * @throws java.nio.ReadOnlyBufferException If the buffer is read-only.
+     */
+    public void putDouble(final ByteBuffer dst, final int index, final double value) {
+        putLong(dst, index, Double.doubleToRawLongBits(value));
+    }
+
+    /**
+     * Writes a double into the buffer at its position using its raw bits and advances the position by 8.
+     *
+     * @param dst The destination buffer. (NonNull)
+     * @param value The value.
+     * @throws java.nio.BufferOverflowException If there are fewer than 8 bytes remaining in the buffer.
+     * @throws java.nio.ReadOnlyBufferException If the buffer is read-only.
+     */
+    public void putDouble(final ByteBuffer dst, final double value) {
+        putLong(dst, Double.doubleToRawLongBits(value));
+    }
+
+    /**
+     * Reads a double from the buffer at the given index. The position of the buffer is not changed.
+     *
+     * @param src The source buffer. (NonNull)
+     * @param index The index of the first byte.
+     * @return The value.
+     * @throws IndexOutOfBoundsException If the buffer doesn't contain 8 bytes from the <tt>index</tt>.
+     */
+    public double getDouble(final ByteBuffer src, final int index) {
+        return Double.longBitsToDouble(getLong(src, index));
+    }
+
+    /**
+     * Reads a double from the buffer at its position and advances the position by 8.
+     *
+     * @param src The source buffer. (NonNull)
+     * @return The value.
+     * @throws java.nio.BufferUnderflowException If there are fewer than 8 bytes remaining in the buffer.
+     */
+    public double getDouble(final ByteBuffer src) {
+        return Double.longBitsToDouble(getLong(src));
+    }
+
+    /**
+     * Writes int values into the array in a single pass (4 bytes per value).
+     *
+     * @param dst The destination array. (NonNull)
+     * @param offset The index of the first byte.
+     * @param src The values. (NonNull)
+     * @param srcOffset The index of the first value.
+     * @param length The number of the values.
+     * @return The index after the written bytes (<tt>offset + 4 * length</tt>).
+     * @throws IndexOutOfBoundsException If the values don't fit into the array or the source region is invalid. Nothing is written in this case.
+     */
+    public int putInts(final byte[] dst, final int offset, final int[] src, final int srcOffset, final int length) {
+        checkRegion(src.length, srcOffset, length);
+        final int bytes = byteLength(length, 4);
+        checkBounds(dst, offset, bytes);
+        ByteBuffer.wrap(dst, offset, bytes).order(order).asIntBuffer().put(src, srcOffset, length);
+        return offset + bytes;
+    }
+
+    /**
+     * Reads int values from the array in a single pass (4 bytes per value).
+     *
+     * @param src The source array. (NonNull)
+     * @param offset The index of the first byte.
+     * @param dst The destination of the values. (NonNull)
+     * @param dstOffset The index of the first value.
+     * @param length The number of the values.
+     * @throws IndexOutOfBoundsException If the array doesn't contain enough bytes or the destination region is invalid.
+     */
+    public void getInts(final byte[] src, final int offset, final int[] dst, final int dstOffset, final int length) {
+        checkRegion(dst.length, dstOffset, length);
+        final int bytes = byteLength(length, 4);
+        checkBounds(src, offset, bytes);
+        ByteBuffer.wrap(src, offset, bytes).order(order).asIntBuffer().get(dst, dstOffset, length);
+    }
+
+    /**
+     * Writes int values into the buffer at its position in a single pass and advances the position by <tt>4 * length</tt>.
+     * The order of the buffer is not changed.
+     *
+     * @param dst The destination buffer. (NonNull)
+     * @param src The values. (NonNull)
+     * @param srcOffset The index of the first value.
+     * @param length The number of the values.
+     * @throws java.nio.BufferOverflowException If there is insufficient space in the buffer.
+     * @throws java.nio.ReadOnlyBufferException If the buffer is read-only.
+     */
+    public void putInts(final ByteBuffer dst, final int[] src, final int srcOffset, final int length) {
+        checkRegion(src.length, srcOffset, length);
+        if (length > dst.remaining() / 4) {
+            throw new BufferOverflowException();
+        }
+        dst.duplicate().order(order).asIntBuffer().put(src, srcOffset, length);
+        /* Called on Buffer: the covariant ByteBuffer.position(int) of Java 9+ doesn't exist on Java 7 and 8. */
+        ((Buffer) dst).position(dst.position() + length * 4);
+    }
+
+    /**
+     * Reads int values from the buffer at its position in a single pass and advances the position by <tt>4 * length</tt>.
+     * The order of the buffer is not changed.
+     *
+     * @param src The source buffer. (NonNull)
+     * @param dst The destination of the values. (NonNull)
+     * @param dstOffset The index of the first value.
+     * @param length The number of the values.
+     * @throws java.nio.BufferUnderflowException If there are fewer than <tt>4 * length</tt> bytes remaining in the buffer.
+     */
+    public void getInts(final ByteBuffer src, final int[] dst, final int dstOffset, final int length) {
+        checkRegion(dst.length, dstOffset, length);
+        if (length > src.remaining() / 4) {
+            throw new BufferUnderflowException();
+        }
+        src.duplicate().order(order).asIntBuffer().get(dst, dstOffset, length);
+        ((Buffer) src).position(src.position() + length * 4);
+    }
+
+    /**
+     * Writes long values into the array in a single pass (8 bytes per value).
+     *
+     * @param dst The destination array. (NonNull)
+     * @param offset The index of the first byte.
+     * @param src The values. (NonNull)
+     * @param srcOffset The index of the first value.
+     * @param length The number of the values.
+     * @return The index after the written bytes (<tt>offset + 8 * length</tt>).
+     * @throws IndexOutOfBoundsException If the values don't fit into the array or the source region is invalid. Nothing is written in this case.
+     */
+    public int putLongs(final byte[] dst, final int offset, final long[] src, final int srcOffset, final int length) {
+        checkRegion(src.length, srcOffset, length);
+        final int bytes = byteLength(length, 8);
+        checkBounds(dst, offset, bytes);
+        ByteBuffer.wrap(dst, offset, bytes).order(order).asLongBuffer().put(src, srcOffset, length);
+        return offset + bytes;
+    }
+
+    /**
+     * Reads long values from the array in a single pass (8 bytes per value).
+     *
+     * @param src The source array. (NonNull)
+     * @param offset The index of the first byte.
+     * @param dst The destination of the values. (NonNull)
+     * @param dstOffset The index of the first value.
+     * @param length The number of the values.
+     * @throws IndexOutOfBoundsException If the array doesn't contain enough bytes or the destination region is invalid.
+     */
+    public void getLongs(final byte[] src, final int offset, final long[] dst, final int dstOffset, final int length) {
+        checkRegion(dst.length, dstOffset, length);
+        final int bytes = byteLength(length, 8);
+        checkBounds(src, offset, bytes);
+        ByteBuffer.wrap(src, offset, bytes).order(order).asLongBuffer().get(dst, dstOffset, length);
+    }
+
+    /**
+     * Writes long values into the buffer at its position in a single pass and advances the position by <tt>8 * length</tt>.
+     * The order of the buffer is not changed.
+     *
+     * @param dst The destination buffer. (NonNull)
+     * @param src The values. (NonNull)
+     * @param srcOffset The index of the first value.
+     * @param length The number of the values.
+     * @throws java.nio.BufferOverflowException If there is insufficient space in the buffer.
+     * @throws java.nio.ReadOnlyBufferException If the buffer is read-only.
+     */
+    public void putLongs(final ByteBuffer dst, final long[] src, final int srcOffset, final int length) {
+        checkRegion(src.length, srcOffset, length);
+        if (length > dst.remaining() / 8) {
+            throw new BufferOverflowException();
+        }
+        dst.duplicate().order(order).asLongBuffer().put(src, srcOffset, length);
+        ((Buffer) dst).position(dst.position() + length * 8);
+    }
+
+    /**
+     * Reads long values from the buffer at its position in a single pass and advances the position by <tt>8 * length</tt>.
+     * The order of the buffer is not changed.
+     *
+     * @param src The source buffer. (NonNull)
+     * @param dst The destination of the values. (NonNull)
+     * @param dstOffset The index of the first value.
+     * @param length The number of the values.
+     * @throws java.nio.BufferUnderflowException If there are fewer than <tt>8 * length</tt> bytes remaining in the buffer.
+     */
+    public void getLongs(final ByteBuffer src, final long[] dst, final int dstOffset, final int length) {
+        checkRegion(dst.length, dstOffset, length);
+        if (length > src.remaining() / 8) {
+            throw new BufferUnderflowException();
+        }
+        src.duplicate().order(order).asLongBuffer().get(dst, dstOffset, length);
+        ((Buffer) src).position(src.position() + length * 8);
+    }
+
+    /**
+     * Writes float values into the array in a single pass (4 bytes per value).
+     *
+     * @param dst The destination array. (NonNull)
+     * @param offset The index of the first byte.
+     * @param src The values. (NonNull)
+     * @param srcOffset The index of the first value.
+     * @param length The number of the values.
+     * @return The index after the written bytes (<tt>offset + 4 * length</tt>).
+     * @throws IndexOutOfBoundsException If the values don't fit into the array or the source region is invalid. Nothing is written in this case.
+     */
+    public int putFloats(final byte[] dst, final int offset, final float[] src, final int srcOffset, final int length) {
+        checkRegion(src.length, srcOffset, length);
+        final int bytes = byteLength(length, 4);
+        checkBounds(dst, offset, bytes);
+        ByteBuffer.wrap(dst, offset, bytes).order(order).asFloatBuffer().put(src, srcOffset, length);
+        return offset + bytes;
+    }
+
+    /**
+     * Reads float values from the array in a single pass (4 bytes per value).
+     *
+     * @param src The source array. (NonNull)
+     * @param offset The index of the first byte.
+     * @param dst The destination of the values. (NonNull)
+     * @param dstOffset The index of the first value.
+     * @param length The number of the values.
+     * @throws IndexOutOfBoundsException If the array doesn't contain enough bytes or the destination region is invalid.
+     */
+    public void getFloats(final byte[] src, final int offset, final float[] dst, final int dstOffset, final int length) {
+        checkRegion(dst.length, dstOffset, length);
+        final int bytes = byteLength(length, 4);
+        checkBounds(src, offset, bytes);
+        ByteBuffer.wrap(src, offset, bytes).order(order).asFloatBuffer().get(dst, dstOffset, length);
+    }
+
+    /**
+     * Writes float values into the buffer at its position in a single pass and advances the position by <tt>4 * length</tt>.
+     * The order of the buffer is not changed.
+     *
+     * @param dst The destination buffer. (NonNull)
+     * @param src The values. (NonNull)
+     * @param srcOffset The index of the first value.
+     * @param length The number of the values.
+     * @throws java.nio.BufferOverflowException If there is insufficient space in the buffer.
+     * @throws java.nio.ReadOnlyBufferException If the buffer is read-only.
+     */
+    public void putFloats(final ByteBuffer dst, final float[] src, final int srcOffset, final int length) {
+        checkRegion(src.length, srcOffset, length);
+        if (length > dst.remaining() / 4) {
+            throw new BufferOverflowException();
+        }
+        dst.duplicate().order(order).asFloatBuffer().put(src, srcOffset, length);
+        ((Buffer) dst).position(dst.position() + length * 4);
+    }
+
+    /**
+     * Reads float values from the buffer at its position in a single pass and advances the position by <tt>4 * length</tt>.
+     * The order of the buffer is not changed.
+     *
+     * @param src The source buffer. (NonNull)
+     * @param dst The destination of the values. (NonNull)
+     * @param dstOffset The index of the first value.
+     * @param length The number of the values.
+     * @throws java.nio.BufferUnderflowException If there are fewer than <tt>4 * length</tt> bytes remaining in the buffer.
+     */
+    public void getFloats(final ByteBuffer src, final float[] dst, final int dstOffset, final int length) {
+        checkRegion(dst.length, dstOffset, length);
+        if (length > src.remaining() / 4) {
+            throw new BufferUnderflowException();
+        }
+        src.duplicate().order(order).asFloatBuffer().get(dst, dstOffset, length);
+        ((Buffer) src).position(src.position() + length * 4);
+    }
+
+    /**
+     * Writes double values into the array in a single pass (8 bytes per value).
+     *
+     * @param dst The destination array. (NonNull)
+     * @param offset The index of the first byte.
+     * @param src The values. (NonNull)
+     * @param srcOffset The index of the first value.
+     * @param length The number of the values.
+     * @return The index after the written bytes (<tt>offset + 8 * length</tt>).
+     * @throws IndexOutOfBoundsException If the values don't fit into the array or the source region is invalid. Nothing is written in this case.
+     */
+    public int putDoubles(final byte[] dst, final int offset, final double[] src, final int srcOffset, final int length) {
+        checkRegion(src.length, srcOffset, length);
+        final int bytes = byteLength(length, 8);
+        checkBounds(dst, offset, bytes);
+        ByteBuffer.wrap(dst, offset, bytes).order(order).asDoubleBuffer().put(src, srcOffset, length);
+        return offset + bytes;
+    }
+
+    /**
+     * Reads double values from the array in a single pass (8 bytes per value).
+     *
+     * @param src The source array. (NonNull)
+     * @param offset The index of the first byte.
+     * @param dst The destination of the values. (NonNull)
+     * @param dstOffset The index of the first value.
+     * @param length The number of the values.
+     * @throws IndexOutOfBoundsException If the array doesn't contain enough bytes or the destination region is invalid.
+     */
+    public void getDoubles(final byte[] src, final int offset, final double[] dst, final int dstOffset, final int length) {
+        checkRegion(dst.length, dstOffset, length);
+        final int bytes = byteLength(length, 8);
+        checkBounds(src, offset, bytes);
+        ByteBuffer.wrap(src, offset, bytes).order(order).asDoubleBuffer().get(dst, dstOffset, length);
+    }
+
+    /**
+     * Writes double values into the buffer at its position in a single pass and advances the position by <tt>8 * length</tt>.
+     * The order of the buffer is not changed.
+     *
+     * @param dst The destination buffer. (NonNull)
+     * @param src The values. (NonNull)
+     * @param srcOffset The index of the first value.
+     * @param length The number of the values.
+     * @throws java.nio.BufferOverflowException If there is insufficient space in the buffer.
+     * @throws java.nio.ReadOnlyBufferException If the buffer is read-only.
+     */
+    public void putDoubles(final ByteBuffer dst, final double[] src, final int srcOffset, final int length) {
+        checkRegion(src.length, srcOffset, length);
+        if (length > dst.remaining() / 8) {
+            throw new BufferOverflowException();
+        }
+        dst.duplicate().order(order).asDoubleBuffer().put(src, srcOffset, length);
+        ((Buffer) dst).position(dst.position() + length * 8);
+    }
+
+    /**
+     * Reads double values from the buffer at its position in a single pass and advances the position by <tt>8 * length</tt>.
+     * The order of the buffer is not changed.
+     *
+     * @param src The source buffer. (NonNull)
+     * @param dst The destination of the values. (NonNull)
+     * @param dstOffset The index of the first value.
+     * @param length The number of the values.
+     * @throws java.nio.BufferUnderflowException If there are fewer than <tt>8 * length</tt> bytes remaining in the buffer.
+     */
+    public void getDoubles(final ByteBuffer src, final double[] dst, final int dstOffset, final int length) {
+        checkRegion(dst.length, dstOffset, length);
+        if (length > src.remaining() / 8) {
+            throw new BufferUnderflowException();
+        }
+        src.duplicate().order(order).asDoubleBuffer().get(dst, dstOffset, length);
+        ((Buffer) src).position(src.position() + length * 8);
+    }
+
+}
@@ -0,0 +1,160 @@
+/*
+ * Moresby Coffee Bean
+ *
+ * Copyright (c) 2012, Barnabas Sudy (barnabas.sudy@gmail.com)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.moresbycoffee.pass.api;
+
+/**
+ * <p>Result of a non-throwing conversion (see {@link TryConverter} and {@link Converters#tryConvert(Converter, Object)}): either the
+ * converted value or the description of the failure.</p>
+ *
+ * <p>A failure only holds a message and optionally the exception which caused it, so an invalid input doesn't cost a stack trace unless
+ * the converter had to throw one.</p>
+ *
+ * @param <T> The type of the converted value.
+ */
+public final class ConversionResult<T> {
+
+    /** The successful result of the <tt>null</tt> input. */
+    private static final ConversionResult<Object> NULL = new ConversionResult<Object>(null, false, null, null);
+
+    private final T value;
+    /** <tt>true</tt> if the conversion failed. */
+    private final boolean failed;
+    /** The message of the failure or <tt>null</tt> if it's the message of the {@link #failureCause}. */
+    private final String failureMessage;
+    private final Throwable failureCause;
+
+    private ConversionResult(final T value, final boolean failed, final String failureMessage, final Throwable failureCause) {
+        this.value          = value;
+        this.failed         = failed;
+        this.failureMessage = failureMessage;
+        this.failureCause   = failureCause;
+    }
+
+    /**
+     * @param value The converted value. (Nullable)
+     * @return The successful result. (NonNull)
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> ConversionResult<T> success(final T value) {
+        if (value == null) {
+            return (ConversionResult<T>) NULL;
+        }
+        return new ConversionResult<T>(value, false, null, null);
+    }
+
+    /**
+     * @param message The description of the failure. (NonNull)
+     * @return The failed result. (NonNull)
+     */
+    public static <T> ConversionResult<T> failure(final String message) {
+        return failure(message, null);
+    }
+
+    /**
+     * @param message The description of the failure. (NonNull)
+     * @param cause The exception which caused the failure. (Nullable)
+     * @return The failed result. (NonNull)
+     */
+    public static <T> ConversionResult<T> failure(final String message, final Throwable cause) {
+        if (message == null) {
+            throw new IllegalArgumentException("The message can't be null.");
+        }
+        return new ConversionResult<T>(null, true, message, cause);
+    }
+
+    /**
+     * @param cause The exception of the failed conversion. (NonNull)
+     * @return The failed result with the message of the exception. The message is only read when it's requested. (NonNull)
+     */
+    public static <T> ConversionResult<T> failure(final Throwable cause) {
+        if (cause == null) {
+            throw new IllegalArgumentException("The cause can't be null.");
+        }
+        return new ConversionResult<T>(null, true, null, cause);
+    }
+
+    /**
+     * @return This failed result as the result of a conversion of an other type: the failures don't hold any value. (NonNull)
+     * @throws IllegalStateException If the conversion succeeded.
+     */
+    @SuppressWarnings("unchecked")
+    <U> ConversionResult<U> asFailure() {
+        if (!failed) {
+            throw new IllegalStateException("The conversion succeeded.");
+        }
+        return (ConversionResult<U>) this;
+    }
+
+    /** @return <tt>true</tt> if the conversion succeeded. */
+    public boolean isSuccess() {
+        return !failed;
+    }
+
+    /**
+     * @return The converted value. (Nullable)
+     * @throws ConverterException If the conversion failed. The cause of the failure is rethrown if it was a {@link ConverterException}.
+     */
+    public T get() throws ConverterException {
+        if (failed) {
+            if (failureCause instanceof ConverterException && !(failureCause instanceof StacklessConverterException)) {
+                throw (ConverterException) failureCause;
+            }
+            throw new ConverterException(getFailureMessage(), failureCause);
+        }
+        return value;
+    }
+
+    /**
+     * @param defaultValue The value to be returned if the conversion failed. (Nullable)
+     * @return The converted value or the <tt>defaultValue</tt>. (Nullable)
+     */
+    public T or(final T defaultValue) {
+        return failed ? defaultValue : value;
+    }
+
+    /** @return The description of the failure or <tt>null</tt> if the conversion succeeded. (Nullable) */
+    public String getFailureMessage() {
+        if (!failed || failureMessage != null) {
+            return failureMessage;
+        }
+        return failureCause.getMessage() == null ? failureCause.toString() : failureCause.getMessage();
+    }
+
+    /** @return The exception which caused the failure or <tt>null</tt> if there isn't any. (Nullable) */
+    public Throwable getFailureCause() {
+        return failureCause;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String toString() {
+        return failed ? "Failure[" + getFailureMessage() + "]" : "Success[" + value + "]";
+    }
+
+}
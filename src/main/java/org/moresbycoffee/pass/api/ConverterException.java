@@ -52,4 +52,13 @@ public class ConverterException extends RuntimeException {
         super(message, cause);
     }
 
+    /**
+     * See {@link RuntimeException#RuntimeException(String, Throwable, boolean, boolean)}.
+     *
+     * @see StacklessConverterException
+     */
+    protected ConverterException(final String message, final Throwable cause, final boolean enableSuppression, final boolean writableStackTrace) {
+        super(message, cause, enableSuppression, writableStackTrace);
+    }
+
 }
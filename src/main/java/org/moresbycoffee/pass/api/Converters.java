@@ -28,54 +28,75 @@
  */
 package org.moresbycoffee.pass.api;
 
-import java.io.UnsupportedEncodingException;
 import java.math.BigDecimal;
+import java.util.AbstractList;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.RandomAccess;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.moresbycoffee.pass.api.PrimitiveConverters.FromDoubleConverter;
+import org.moresbycoffee.pass.api.PrimitiveConverters.FromFloatConverter;
+import org.moresbycoffee.pass.api.PrimitiveConverters.FromIntConverter;
+import org.moresbycoffee.pass.api.PrimitiveConverters.FromLongConverter;
+import org.moresbycoffee.pass.api.PrimitiveConverters.LongToIntConverter;
+import org.moresbycoffee.pass.api.PrimitiveConverters.ToBooleanConverter;
+import org.moresbycoffee.pass.api.PrimitiveConverters.ToDoubleConverter;
+import org.moresbycoffee.pass.api.PrimitiveConverters.ToFloatConverter;
+import org.moresbycoffee.pass.api.PrimitiveConverters.ToIntConverter;
+import org.moresbycoffee.pass.api.PrimitiveConverters.ToLongConverter;
+
+import com.google.common.base.Function;
+import com.google.common.cache.Weigher;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 
 /**
- * Utility class which provides different implementations of {@link Converter}.
+ * <p>Utility class which provides different implementations of {@link Converter}.</p>
+ *
+ * <p>The converters with a primitive input or output are available under two names: the <tt>PRIMITIVE_</tt> fields are declared with
+ * the primitive specialized types of {@link PrimitiveConverters}, the other fields declare the same instances as plain {@link Converter}s.</p>
  */
 public final class Converters {
 
     /**
      * <p>Implementation of {@link Converter} which is able to convert an integer to a byte[] containing the byte representation of the integer.</p>
+     * <p>Use {@link ByteCodec} to write the value into an existing array or buffer without allocation.</p>
      */
-    public static final Converter<Integer, byte[]> INT_TO_BYTE = new Converter<Integer, byte[]>() {
+    public static final FromIntConverter<byte[]> PRIMITIVE_INT_TO_BYTE = new FromIntConverter<byte[]>() {
 
         private static final int LENGTH = 4;
 
         @Override
-        public byte[] convert(final Integer from) throws ConverterException {
-            if (from == null) {
-                return null;
-            }
-            int value = from.intValue();
-            byte[] result = new byte[LENGTH];
-            for (int i = 0; i < result.length; i++) {
-                result[i] = (byte) (value >>> ((result.length - 1 - i) * 8));
-            }
+        public byte[] fromInt(final int value) throws ConverterException {
+            final byte[] result = new byte[LENGTH];
+            ByteCodec.BIG_ENDIAN.putInt(result, 0, value);
             return result;
         }
 
     };
 
+    /** {@link #PRIMITIVE_INT_TO_BYTE} declared as a plain {@link Converter}. */
+    public static final Converter<Integer, byte[]> INT_TO_BYTE = PRIMITIVE_INT_TO_BYTE;
+
     /**
      * <p>Implementation of {@link Converter} which is able to deconvert the converted integer (by {@link #INT_TO_BYTE}).</p>
      */
-    public static final Converter<byte[], Integer> BYTE_TO_INT = new Converter<byte[], Integer>() {
+    public static final ToIntConverter<byte[]> BYTE_TO_PRIMITIVE_INT = new ToIntConverter<byte[]>() {
 
         @Override
-        public Integer convert(final byte[] from) throws ConverterException {
-            if (from == null) {
-                return null;
-            }
+        public int toInt(final byte[] from) throws ConverterException {
             if (from.length > 4) {
                 throw new ConverterException("The maximum length of a byte array containing a integer is 4. This array is " + from.length + " long.");
             }
@@ -86,44 +107,42 @@ public final class Converters {
                 result ^= from[i] & 0xFF;
             }
 
-            return Integer.valueOf(result);
+            return result;
 
         }
 
     };
 
+    /** {@link #BYTE_TO_PRIMITIVE_INT} declared as a plain {@link Converter}. */
+    public static final Converter<byte[], Integer> BYTE_TO_INT = BYTE_TO_PRIMITIVE_INT;
+
     /**
      * <p>Implementation of {@link Converter} which is able to convert an long to a byte[] containing the byte representation of the long.</p>
+     * <p>Use {@link ByteCodec} to write the value into an existing array or buffer without allocation.</p>
      */
-    public static final Converter<Long, byte[]> LONG_TO_BYTE = new Converter<Long, byte[]>() {
+    public static final FromLongConverter<byte[]> PRIMITIVE_LONG_TO_BYTE = new FromLongConverter<byte[]>() {
 
         private static final int LENGTH = 8;
 
         @Override
-        public byte[] convert(final Long from) throws ConverterException {
-            if (from == null) {
-                return null;
-            }
-            long value = from.longValue();
-            byte[] result = new byte[LENGTH];
-            for (int i = 0; i < result.length; i++) {
-                result[i] = (byte) (value >>> ((result.length - 1 - i) * 8));
-            }
+        public byte[] fromLong(final long value) throws ConverterException {
+            final byte[] result = new byte[LENGTH];
+            ByteCodec.BIG_ENDIAN.putLong(result, 0, value);
             return result;
         }
 
     };
 
+    /** {@link #PRIMITIVE_LONG_TO_BYTE} declared as a plain {@link Converter}. */
+    public static final Converter<Long, byte[]> LONG_TO_BYTE = PRIMITIVE_LONG_TO_BYTE;
+
     /**
      * <p>Implementation of {@link Converter} which is able to deconvert the converted long (by {@link #LONG_TO_BYTE}).</p>
      */
-    public static final Converter<byte[], Long> BYTE_TO_LONG = new Converter<byte[], Long>() {
+    public static final ToLongConverter<byte[]> BYTE_TO_PRIMITIVE_LONG = new ToLongConverter<byte[]>() {
 
         @Override
-        public Long convert(final byte[] from) throws ConverterException {
-            if (from == null) {
-                return null;
-            }
+        public long toLong(final byte[] from) throws ConverterException {
             if (from.length > 8) {
                 throw new ConverterException("The maximum length of a byte array containing a long is 8. This array is " + from.length + " long.");
             }
@@ -134,176 +153,365 @@ public final class Converters {
                 result ^= (long) from[i] & 0xFF;
             }
 
-            return Long.valueOf(result);
+            return result;
 
         }
 
     };
 
+    /** {@link #BYTE_TO_PRIMITIVE_LONG} declared as a plain {@link Converter}. */
+    public static final Converter<byte[], Long> BYTE_TO_LONG = BYTE_TO_PRIMITIVE_LONG;
+
 
     /**
      * <p>Implementation of {@link Converter} which is able to convert an double to a byte[] containing the byte representation of the double.</p>
      */
-    public static final Converter<Double, byte[]> DOUBLE_TO_BYTE = new Converter<Double, byte[]>() {
+    public static final FromDoubleConverter<byte[]> PRIMITIVE_DOUBLE_TO_BYTE = new FromDoubleConverter<byte[]>() {
 
         @Override
-        public byte[] convert(final Double from) throws ConverterException {
+        public byte[] fromDouble(final double value) throws ConverterException {
+            final byte[] result = new byte[8];
+            ByteCodec.BIG_ENDIAN.putDouble(result, 0, value);
+            return result;
+        }
+
+    };
+
+    /** {@link #PRIMITIVE_DOUBLE_TO_BYTE} declared as a plain {@link Converter}. */
+    public static final Converter<Double, byte[]> DOUBLE_TO_BYTE = PRIMITIVE_DOUBLE_TO_BYTE;
+
+    /**
+     * <p>Implementation of {@link Converter} which is able to convert an float to a byte[] containing the byte representation of the float.</p>
+     */
+    public static final FromFloatConverter<byte[]> PRIMITIVE_FLOAT_TO_BYTE = new FromFloatConverter<byte[]>() {
+
+        @Override
+        public byte[] fromFloat(final float value) throws ConverterException {
+            final byte[] result = new byte[4];
+            ByteCodec.BIG_ENDIAN.putFloat(result, 0, value);
+            return result;
+        }
+
+    };
+
+    /** {@link #PRIMITIVE_FLOAT_TO_BYTE} declared as a plain {@link Converter}. */
+    public static final Converter<Float, byte[]> FLOAT_TO_BYTE = PRIMITIVE_FLOAT_TO_BYTE;
+
+
+    /**
+     * <p>Implementation of {@link Converter} which is able to convert an int[] to a byte[] in a single pass. The layout is the
+     * concatenation of the values converted by {@link #INT_TO_BYTE}.</p>
+     */
+    public static final Converter<int[], byte[]> INT_ARRAY_TO_BYTE = new Converter<int[], byte[]>() {
+
+        @Override
+        public byte[] convert(final int[] from) throws ConverterException {
             if (from == null) {
                 return null;
             }
-            return LONG_TO_BYTE.convert(Long.valueOf(Double.doubleToRawLongBits(from.doubleValue())));
+            final byte[] result = new byte[byteArrayLength(from.length, 4)];
+            ByteCodec.BIG_ENDIAN.putInts(result, 0, from, 0, from.length);
+            return result;
         }
 
     };
 
     /**
-     * <p>Implementation of {@link Converter} which is able to convert an float to a byte[] containing the byte representation of the float.</p>
+     * <p>Implementation of {@link Converter} which is able to deconvert the converted int[] (by {@link #INT_ARRAY_TO_BYTE}).</p>
      */
-    public static final Converter<Float, byte[]> FLOAT_TO_BYTE = new Converter<Float, byte[]>() {
+    public static final Converter<byte[], int[]> BYTE_TO_INT_ARRAY = new Converter<byte[], int[]>() {
 
         @Override
-        public byte[] convert(final Float from) throws ConverterException {
+        public int[] convert(final byte[] from) throws ConverterException {
             if (from == null) {
                 return null;
             }
-            return INT_TO_BYTE.convert(Integer.valueOf(Float.floatToRawIntBits(from.floatValue())));
+            if (from.length % 4 != 0) {
+                throw new ConverterException("The length of a byte array containing int values has to be a multiple of 4. This array is " + from.length + " long.");
+            }
+            final int[] result = new int[from.length / 4];
+            ByteCodec.BIG_ENDIAN.getInts(from, 0, result, 0, result.length);
+            return result;
         }
 
     };
 
+    /**
+     * <p>Implementation of {@link Converter} which is able to convert a long[] to a byte[] in a single pass. The layout is the
+     * concatenation of the values converted by {@link #LONG_TO_BYTE}.</p>
+     */
+    public static final Converter<long[], byte[]> LONG_ARRAY_TO_BYTE = new Converter<long[], byte[]>() {
+
+        @Override
+        public byte[] convert(final long[] from) throws ConverterException {
+            if (from == null) {
+                return null;
+            }
+            final byte[] result = new byte[byteArrayLength(from.length, 8)];
+            ByteCodec.BIG_ENDIAN.putLongs(result, 0, from, 0, from.length);
+            return result;
+        }
+
+    };
 
     /**
-     * <p>Implementation of {@link Converter} which is able to convert a String to its byte[] representation in which the content is utf8 encoded.</p>
+     * <p>Implementation of {@link Converter} which is able to deconvert the converted long[] (by {@link #LONG_ARRAY_TO_BYTE}).</p>
      */
-    public static final Converter<String, byte[]> STRING_TO_UTF8 = new Converter<String, byte[]>() {
+    public static final Converter<byte[], long[]> BYTE_TO_LONG_ARRAY = new Converter<byte[], long[]>() {
 
         @Override
-        public byte[] convert(final String from) throws ConverterException {
+        public long[] convert(final byte[] from) throws ConverterException {
             if (from == null) {
                 return null;
             }
-            try {
-                return from.getBytes("UTF-8");
-            } catch (UnsupportedEncodingException e) {
-                throw new ConverterException(e); //Should never happen.
+            if (from.length % 8 != 0) {
+                throw new ConverterException("The length of a byte array containing long values has to be a multiple of 8. This array is " + from.length + " long.");
             }
+            final long[] result = new long[from.length / 8];
+            ByteCodec.BIG_ENDIAN.getLongs(from, 0, result, 0, result.length);
+            return result;
         }
 
+    };
+
+    /**
+     * <p>Implementation of {@link Converter} which is able to convert a float[] to a byte[] in a single pass. The layout is the
+     * concatenation of the values converted by {@link #FLOAT_TO_BYTE}.</p>
+     */
+    public static final Converter<float[], byte[]> FLOAT_ARRAY_TO_BYTE = new Converter<float[], byte[]>() {
+
+        @Override
+        public byte[] convert(final float[] from) throws ConverterException {
+            if (from == null) {
+                return null;
+            }
+            final byte[] result = new byte[byteArrayLength(from.length, 4)];
+            ByteCodec.BIG_ENDIAN.putFloats(result, 0, from, 0, from.length);
+            return result;
+        }
 
     };
 
     /**
-     * <p>Implementation of {@link Converter} which is able to convert a String to Long using the {@link Long#valueOf(String)} method.</p>
-     * <p>If the input value is <tt>null</tt> than the converter returns a <tt>null</tt>
+     * <p>Implementation of {@link Converter} which is able to deconvert the converted float[] (by {@link #FLOAT_ARRAY_TO_BYTE}).</p>
      */
-    public static final Converter<String, Long> STRING_TO_LONG = new Converter<String, Long>() {
+    public static final Converter<byte[], float[]> BYTE_TO_FLOAT_ARRAY = new Converter<byte[], float[]>() {
 
         @Override
-        public Long convert(final String from) throws ConverterException {
+        public float[] convert(final byte[] from) throws ConverterException {
             if (from == null) {
                 return null;
             }
-            try {
-                return Long.valueOf(from);
-            } catch (final NumberFormatException e) {
-                throw new ConverterException(e);
+            if (from.length % 4 != 0) {
+                throw new ConverterException("The length of a byte array containing float values has to be a multiple of 4. This array is " + from.length + " long.");
             }
+            final float[] result = new float[from.length / 4];
+            ByteCodec.BIG_ENDIAN.getFloats(from, 0, result, 0, result.length);
+            return result;
         }
 
     };
 
     /**
-     * <p>Implementation of {@link Converter} which is able to convert a Long to a String.</p>
-     * <p>If the input value is <tt>null</tt> than the converter returns a <tt>null</tt>
+     * <p>Implementation of {@link Converter} which is able to convert a double[] to a byte[] in a single pass. The layout is the
+     * concatenation of the values converted by {@link #DOUBLE_TO_BYTE}.</p>
      */
-    public static final Converter<Long, String> LONG_TO_STRING = new Converter<Long, String>() {
+    public static final Converter<double[], byte[]> DOUBLE_ARRAY_TO_BYTE = new Converter<double[], byte[]>() {
 
         @Override
-        public String convert(final Long from) throws ConverterException {
+        public byte[] convert(final double[] from) throws ConverterException {
             if (from == null) {
                 return null;
             }
-            return from.toString();
+            final byte[] result = new byte[byteArrayLength(from.length, 8)];
+            ByteCodec.BIG_ENDIAN.putDoubles(result, 0, from, 0, from.length);
+            return result;
         }
 
     };
 
     /**
-     * <p>Implementation of {@link Converter} which is able to convert a String to Integer using the {@link Integer#valueOf(String)} method.</p>
-     * <p>If the input value is <tt>null</tt> than the converter returns a <tt>null</tt>
+     * <p>Implementation of {@link Converter} which is able to deconvert the converted double[] (by {@link #DOUBLE_ARRAY_TO_BYTE}).</p>
      */
-    public static final Converter<String, Integer> STRING_TO_INTEGER = new Converter<String, Integer>() {
+    public static final Converter<byte[], double[]> BYTE_TO_DOUBLE_ARRAY = new Converter<byte[], double[]>() {
 
         @Override
-        public Integer convert(final String from) throws ConverterException {
+        public double[] convert(final byte[] from) throws ConverterException {
             if (from == null) {
                 return null;
             }
-            try {
-                return Integer.valueOf(new BigDecimal(from).intValueExact());
-            } catch (final Exception e) {
-                throw new ConverterException(e);
+            if (from.length % 8 != 0) {
+                throw new ConverterException("The length of a byte array containing double values has to be a multiple of 8. This array is " + from.length + " long.");
             }
+            final double[] result = new double[from.length / 8];
+            ByteCodec.BIG_ENDIAN.getDoubles(from, 0, result, 0, result.length);
+            return result;
         }
 
     };
 
     /**
-     * <p>Implementation of {@link Converter} which is able to convert a Long to a String.</p>
-     * <p>If the input value is <tt>null</tt> than the converter returns a <tt>null</tt>
+     * <p>Implementation of {@link Converter} which is able to convert a String to its byte[] representation in which the content is utf8 encoded.</p>
+     * <p>The content is encoded by {@link Utf8#encode(CharSequence)} into an array of the exact size. Use the {@link Utf8} methods directly
+     * to encode into a reusable array or {@link java.nio.ByteBuffer}.</p>
      */
-    public static final Converter<Integer, String> INTEGER_TO_STRING = new Converter<Integer, String>() {
+    public static final Converter<String, byte[]> STRING_TO_UTF8 = new Converter<String, byte[]>() {
 
         @Override
-        public String convert(final Integer from) throws ConverterException {
+        public byte[] convert(final String from) throws ConverterException {
             if (from == null) {
                 return null;
             }
-            return from.toString();
+            return Utf8.encode(from);
         }
 
+
     };
 
     /**
-     * <p>Implementation of {@link Converter} which is able to convert a String to Double using the {@link Double#valueOf(String)} method.</p>
+     * <p>Implementation of {@link Converter} which is able to convert utf8 encoded bytes to String. This is the counterpart of the {@link #STRING_TO_UTF8}.</p>
+     * <p>The content is decoded by {@link Utf8#decode(byte[], int, int)}. Malformed input is replaced the same way as by the
+     * {@link String#String(byte[], java.nio.charset.Charset)} constructor.</p>
      * <p>If the input value is <tt>null</tt> than the converter returns a <tt>null</tt>
      */
-    public static final Converter<String, Double> STRING_TO_DOUBLE = new Converter<String, Double>() {
+    public static final Converter<byte[], String> UTF8_TO_STRING = new Converter<byte[], String>() {
 
         @Override
-        public Double convert(final String from) throws ConverterException {
+        public String convert(final byte[] from) throws ConverterException {
             if (from == null) {
                 return null;
             }
+            return Utf8.decode(from, 0, from.length);
+        }
+
+    };
+
+    /**
+     * <p>Implementation of {@link Converter} which is able to convert a String to Long using the {@link NumberParsers#parseLong(CharSequence)} method
+     * (same format as {@link Long#parseLong(String)}).</p>
+     * <p>If the input value is <tt>null</tt> than the converter returns a <tt>null</tt>
+     */
+    public static final ToLongConverter<String> STRING_TO_PRIMITIVE_LONG = new ToLongConverter<String>() {
+
+        @Override
+        public long toLong(final String from) throws ConverterException {
+            return NumberParsers.parseLong(from);
+        }
+
+        /** Reports an invalid input by a {@link StacklessConverterException}, so it costs no stack trace. */
+        @Override
+        public ConversionResult<Long> tryConvert(final String from) {
+            if (from == null) {
+                return ConversionResult.success(null);
+            }
             try {
-                return Double.valueOf(from);
-            } catch (final NumberFormatException e) {
-                throw new ConverterException(e);
+                return ConversionResult.success(Long.valueOf(NumberParsers.parseLong(from, 0, from.length(), true)));
+            } catch (final ConverterException e) {
+                return ConversionResult.failure(e);
             }
         }
 
     };
 
+    /** {@link #STRING_TO_PRIMITIVE_LONG} declared as a plain {@link Converter}. */
+    public static final Converter<String, Long> STRING_TO_LONG = STRING_TO_PRIMITIVE_LONG;
+
+    /**
+     * <p>Implementation of {@link Converter} which is able to convert a Long to a String.</p>
+     * <p>If the input value is <tt>null</tt> than the converter returns a <tt>null</tt>
+     */
+    public static final FromLongConverter<String> PRIMITIVE_LONG_TO_STRING = new FromLongConverter<String>() {
+
+        @Override
+        public String fromLong(final long value) throws ConverterException {
+            return Long.toString(value);
+        }
+
+    };
+
+    /** {@link #PRIMITIVE_LONG_TO_STRING} declared as a plain {@link Converter}. */
+    public static final Converter<Long, String> LONG_TO_STRING = PRIMITIVE_LONG_TO_STRING;
+
     /**
-     * <p>Implementation of {@link Converter} which is able to convert a String to Float using the {@link Float#valueOf(String)} method.</p>
+     * <p>Implementation of {@link Converter} which is able to convert a String to Integer using the {@link NumberParsers#parseInt(CharSequence)} method.
+     * Integral decimal numbers are accepted too (e.g. <tt>"4.0"</tt>), but the values out of the int range are rejected.</p>
      * <p>If the input value is <tt>null</tt> than the converter returns a <tt>null</tt>
      */
-    public static final Converter<String, Float> STRING_TO_FLOAT = new Converter<String, Float>() {
+    public static final ToIntConverter<String> STRING_TO_PRIMITIVE_INT = new ToIntConverter<String>() {
 
         @Override
-        public Float convert(final String from) throws ConverterException {
+        public int toInt(final String from) throws ConverterException {
+            return NumberParsers.parseInt(from);
+        }
+
+        /** Reports an invalid input by a {@link StacklessConverterException}, so it costs no stack trace. */
+        @Override
+        public ConversionResult<Integer> tryConvert(final String from) {
             if (from == null) {
-                return null;
+                return ConversionResult.success(null);
             }
             try {
-                return Float.valueOf(from);
-            } catch (final NumberFormatException e) {
-                throw new ConverterException(e);
+                return ConversionResult.success(Integer.valueOf(NumberParsers.parseInt(from, 0, from.length(), true)));
+            } catch (final ConverterException e) {
+                return ConversionResult.failure(e);
             }
         }
 
     };
 
+    /** {@link #STRING_TO_PRIMITIVE_INT} declared as a plain {@link Converter}. */
+    public static final Converter<String, Integer> STRING_TO_INTEGER = STRING_TO_PRIMITIVE_INT;
+
+    /**
+     * <p>Implementation of {@link Converter} which is able to convert a Long to a String.</p>
+     * <p>If the input value is <tt>null</tt> than the converter returns a <tt>null</tt>
+     */
+    public static final FromIntConverter<String> PRIMITIVE_INT_TO_STRING = new FromIntConverter<String>() {
+
+        @Override
+        public String fromInt(final int value) throws ConverterException {
+            return Integer.toString(value);
+        }
+
+    };
+
+    /** {@link #PRIMITIVE_INT_TO_STRING} declared as a plain {@link Converter}. */
+    public static final Converter<Integer, String> INTEGER_TO_STRING = PRIMITIVE_INT_TO_STRING;
+
+    /**
+     * <p>Implementation of {@link Converter} which is able to convert a String to Double using the {@link NumberParsers#parseDouble(CharSequence)} method
+     * (same format and result as {@link Double#parseDouble(String)}).</p>
+     * <p>If the input value is <tt>null</tt> than the converter returns a <tt>null</tt>
+     */
+    public static final ToDoubleConverter<String> STRING_TO_PRIMITIVE_DOUBLE = new ToDoubleConverter<String>() {
+
+        @Override
+        public double toDouble(final String from) throws ConverterException {
+            return NumberParsers.parseDouble(from);
+        }
+
+    };
+
+    /** {@link #STRING_TO_PRIMITIVE_DOUBLE} declared as a plain {@link Converter}. */
+    public static final Converter<String, Double> STRING_TO_DOUBLE = STRING_TO_PRIMITIVE_DOUBLE;
+
+    /**
+     * <p>Implementation of {@link Converter} which is able to convert a String to Float using the {@link NumberParsers#parseFloat(CharSequence)} method
+     * (same format and result as {@link Float#parseFloat(String)}).</p>
+     * <p>If the input value is <tt>null</tt> than the converter returns a <tt>null</tt>
+     */
+    public static final ToFloatConverter<String> STRING_TO_PRIMITIVE_FLOAT = new ToFloatConverter<String>() {
+
+        @Override
+        public float toFloat(final String from) throws ConverterException {
+            return NumberParsers.parseFloat(from);
+        }
+
+    };
+
+    /** {@link #STRING_TO_PRIMITIVE_FLOAT} declared as a plain {@link Converter}. */
+    public static final Converter<String, Float> STRING_TO_FLOAT = STRING_TO_PRIMITIVE_FLOAT;
+
     /**
      * <p>Implementation of {@link Converter} which is able to convert a Long to a String.</p>
      * <p>If the input value is <tt>null</tt> than the converter returns a <tt>null</tt>
@@ -324,34 +532,33 @@ public final class Converters {
      * Converts a {@link Long} to {@link Integer} if the value of the long is int the integer range.
      * Otherwise it will throw a {@link ConverterException}.
      */
-    public static final Converter<Long, Integer> LONG_TO_INT = new Converter<Long, Integer>() {
+    public static final LongToIntConverter PRIMITIVE_LONG_TO_INT = new LongToIntConverter() {
 
         /** {@inheritDoc} */
         @Override
-        public Integer convert(final Long from) throws ConverterException {
-            if (from == null) {
-                return null;
-            }
-            if (from.longValue() > Integer.MAX_VALUE | from.longValue() < Integer.MIN_VALUE) {
-                throw new ConverterException("The value of long is out of the integer range: " + from.longValue());
+        public int longToInt(final long value) throws ConverterException {
+            if (value > Integer.MAX_VALUE | value < Integer.MIN_VALUE) {
+                throw StacklessConverterException.failure("The value of long is out of the integer range: " + value);
             }
-            return Integer.valueOf(from.intValue());
+            return (int) value;
         }
     };
 
-    public static final Converter<String, Boolean> STRING_TO_BOOLEAN = new Converter<String, Boolean>() {
+    /** {@link #PRIMITIVE_LONG_TO_INT} declared as a plain {@link Converter}. */
+    public static final Converter<Long, Integer> LONG_TO_INT = PRIMITIVE_LONG_TO_INT;
 
-        @Override
-        public Boolean convert(final String from) throws ConverterException {
-            if (from == null) {
-                return null;
-            }
-            return new Boolean(from);
+    public static final ToBooleanConverter<String> STRING_TO_PRIMITIVE_BOOLEAN = new ToBooleanConverter<String>() {
 
+        @Override
+        public boolean toBoolean(final String from) throws ConverterException {
+            return Boolean.parseBoolean(from);
         }
 
     };
 
+    /** {@link #STRING_TO_PRIMITIVE_BOOLEAN} declared as a plain {@link Converter}. */
+    public static final Converter<String, Boolean> STRING_TO_BOOLEAN = STRING_TO_PRIMITIVE_BOOLEAN;
+
     public static final Converter<String, BigDecimal> STRING_TO_BIGDECIMAL = new Converter<String, BigDecimal>() {
 
         @Override
@@ -410,53 +617,49 @@ public final class Converters {
 
     };
 
+    /**
+     * Creates a converter which splits the String around the matches of the regular expression like {@link String#split(String)}.
+     * The expression is compiled once, literal delimiters are matched without the regular expression engine.
+     *
+     * @param regex The delimiting regular expression. (NonNull)
+     * @return The converter, see {@link StringSplitter}. (NonNull)
+     * @throws java.util.regex.PatternSyntaxException If the expression's syntax is invalid.
+     */
     public static Converter<String, String[]> splitter(final String regex) {
-
-        return new Converter<String, String[]>() {
-
-            @Override
-            public String[] convert(final String from) throws ConverterException {
-                if (from == null) {
-                    return null;
-                }
-                return from.split(regex);
-            }
-
-        };
-
+        return StringSplitter.of(regex);
     }
 
     /**
      * Converts a UTC timestamp to Date object using the {@link Date#Date(long)} constructor.
      */
-    public static final Converter<Long, Date> TIMESTAMP_TO_DATE = new Converter<Long, Date>() {
+    public static final FromLongConverter<Date> PRIMITIVE_TIMESTAMP_TO_DATE = new FromLongConverter<Date>() {
 
         @Override
-        public Date convert(final Long from) throws ConverterException {
-            if (from == null) {
-                return null;
-            }
-            return new Date(from.longValue());
+        public Date fromLong(final long value) throws ConverterException {
+            return new Date(value);
         }
 
     };
 
+    /** {@link #PRIMITIVE_TIMESTAMP_TO_DATE} declared as a plain {@link Converter}. */
+    public static final Converter<Long, Date> TIMESTAMP_TO_DATE = PRIMITIVE_TIMESTAMP_TO_DATE;
+
     /**
      * Converts a {@link Date} object to UTC timestamp.
      */
-    public static final Converter<Date, Long> DATE_TO_TIMESTAMP = new Converter<Date, Long>() {
+    public static final ToLongConverter<Date> DATE_TO_PRIMITIVE_TIMESTAMP = new ToLongConverter<Date>() {
 
         @Override
-        public Long convert(final Date from) throws ConverterException {
-            if (from == null) {
-                return null;
-            }
-            return Long.valueOf(from.getTime());
+        public long toLong(final Date from) throws ConverterException {
+            return from.getTime();
         }
 
 
     };
 
+    /** {@link #DATE_TO_PRIMITIVE_TIMESTAMP} declared as a plain {@link Converter}. */
+    public static final Converter<Date, Long> DATE_TO_TIMESTAMP = DATE_TO_PRIMITIVE_TIMESTAMP;
+
     public static final Converter<Object, String> TO_STRING = new Converter<Object, String>() {
         
         @Override
@@ -524,7 +727,8 @@ public final class Converters {
      * <p>One implementation of {@link Converter} interface which is able to convert the elements of a {@link Collection}.
      * The result will be yield into an ArrayList.</p>
      *
-     * <p>The implementation needs an other converter which is able to convert the elements.</p>
+     * <p>The implementation needs an other converter which is able to convert the elements. Large collections can be converted
+     * in parallel, see {@link Parallelism}.</p>
      *
      * @param <F> The type of the elements of the input {@link Collection}.
      * @param <T> The type of the elements of the output {@link ArrayList}
@@ -533,11 +737,22 @@ public final class Converters {
 
         private final Converter<F, T> converter;
 
+        private final Parallelism parallelism;
+
         /**
          * @param converter  The converter which converts the elements of the Collection.
          */
         public CollectionConverterToArrayList(final Converter<F, T> converter) {
-            this.converter = converter;
+            this(converter, Parallelism.SEQUENTIAL);
+        }
+
+        /**
+         * @param converter  The converter which converts the elements of the Collection.
+         * @param parallelism The configuration of the parallel conversion. (NonNull)
+         */
+        public CollectionConverterToArrayList(final Converter<F, T> converter, final Parallelism parallelism) {
+            this.converter   = converter;
+            this.parallelism = parallelism;
         }
 
         /** {@inheritDoc} */
@@ -546,12 +761,7 @@ public final class Converters {
             if (from == null) {
                 return null;
             }
-
-            final ArrayList<T> result = new ArrayList<T>();
-            for (F fromObject : from) {
-                result.add(converter.convert(fromObject));
-            }
-            return result;
+            return parallelism.convert(converter, from);
         }
 
     }
@@ -571,6 +781,19 @@ public final class Converters {
 
     }
 
+    /**
+     * Convert the elements of a {@link Collection}, in parallel if the collection is large enough, and returns the result in a {@link List}.
+     *
+     * @param converter The converter which converts the elements of the Collection. It has to be thread safe.
+     * @param from The collection.
+     * @param parallelism The configuration of the parallel conversion. (NonNull)
+     * @return The List of the converted objects in the order of the collection.
+     * @throws ConverterException The exception of the first failing element.
+     */
+    public static <F, T> List<T> convertList(final Converter<F, T> converter, final Collection<? extends F> from, final Parallelism parallelism) throws ConverterException {
+        return new CollectionConverterToArrayList<F, T>(converter, parallelism).convert(from);
+    }
+
     /**
      * Returns a {@link Converter} what converts the elements of a {@link Collection} and returns the result in a {@link List}.
      * 
@@ -581,6 +804,110 @@ public final class Converters {
         return new CollectionConverterToArrayList<F, T>(converter);
     }
 
+    /**
+     * Returns a {@link Converter} what converts the elements of a {@link Collection}, in parallel if the collection is large enough,
+     * and returns the result in a {@link List}.
+     *
+     * @param converter The converter to convert the element of the list. It has to be thread safe.
+     * @param parallelism The configuration of the parallel conversion. (NonNull)
+     * @return The {@link Converter} what can convert elements of {@link Collection}.
+     */
+    public static <F, T> Converter<Collection<? extends F>, ArrayList<T>> listConverter(final Converter<F, T> converter, final Parallelism parallelism) {
+        return new CollectionConverterToArrayList<F, T>(converter, parallelism);
+    }
+
+    /**
+     * Returns an {@link Iterator} which converts the elements of the source iterator lazily, when they are requested.
+     * The {@link Iterator#remove()} is delegated to the source iterator.
+     *
+     * @param converter The converter of the elements.
+     * @param from The source iterator.
+     * @return The iterator of the converted elements.
+     */
+    public static <F, T> Iterator<T> convertIterator(final Converter<? super F, ? extends T> converter, final Iterator<? extends F> from) {
+        if (from == null) {
+            return null;
+        }
+        return new Iterator<T>() {
+
+            @Override
+            public boolean hasNext() {
+                return from.hasNext();
+            }
+
+            @Override
+            public T next() {
+                return converter.convert(from.next());
+            }
+
+            @Override
+            public void remove() {
+                from.remove();
+            }
+
+        };
+    }
+
+    /**
+     * Returns a view of the {@link Iterable} which converts the elements lazily, when they are iterated. Nothing is materialized,
+     * so an unbounded input can be processed in constant memory.
+     *
+     * @param converter The converter of the elements.
+     * @param from The source iterable.
+     * @return The view of the converted elements.
+     */
+    public static <F, T> Iterable<T> convertIterable(final Converter<? super F, ? extends T> converter, final Iterable<? extends F> from) {
+        if (from == null) {
+            return null;
+        }
+        return new Iterable<T>() {
+
+            @Override
+            public Iterator<T> iterator() {
+                return Converters.<F, T>convertIterator(converter, from.iterator());
+            }
+
+        };
+    }
+
+    /**
+     * Returns a {@link Converter} which converts iterators lazily, see {@link #convertIterator(Converter, Iterator)}.
+     *
+     * @param converter The converter of the elements.
+     * @return The converter of the iterators.
+     */
+    public static <F, T> Converter<Iterator<? extends F>, Iterator<T>> iteratorConverter(final Converter<? super F, ? extends T> converter) {
+
+        return new Converter<Iterator<? extends F>, Iterator<T>>() {
+
+            @Override
+            public Iterator<T> convert(final Iterator<? extends F> from) throws ConverterException {
+                return Converters.<F, T>convertIterator(converter, from);
+            }
+
+        };
+
+    }
+
+    /**
+     * Returns a {@link Converter} which converts iterables into lazy views, see {@link #convertIterable(Converter, Iterable)}.
+     *
+     * @param converter The converter of the elements.
+     * @return The converter of the iterables.
+     */
+    public static <F, T> Converter<Iterable<? extends F>, Iterable<T>> iterableConverter(final Converter<? super F, ? extends T> converter) {
+
+        return new Converter<Iterable<? extends F>, Iterable<T>>() {
+
+            @Override
+            public Iterable<T> convert(final Iterable<? extends F> from) throws ConverterException {
+                return Converters.<F, T>convertIterable(converter, from);
+            }
+
+        };
+
+    }
+
     /**
      * Generates a {@link HashMap} from the a collection generating the key with the keyExtractor converter.
      *
@@ -590,12 +917,35 @@ public final class Converters {
      * @throws ConverterException If error occurs during the conversion.
      */
     public static <F, T> Map<T, F> extractHashMap(final Converter<F, T> keyExtractor, final Collection<? extends F> from) throws ConverterException {
+        return extractHashMap(keyExtractor, from, Parallelism.SEQUENTIAL);
+    }
+
+    /**
+     * Generates a {@link HashMap} from the a collection generating the key with the keyExtractor converter. The keys are extracted
+     * in parallel if the collection is large enough, the map is filled in the order of the collection.
+     *
+     * @param keyExtractor The converter to generate a key. It has to be thread safe.
+     * @param from The collection to be converted.
+     * @param parallelism The configuration of the parallel conversion. (NonNull)
+     * @return The extracted map.
+     * @throws ConverterException If error occurs during the conversion.
+     */
+    public static <F, T> Map<T, F> extractHashMap(final Converter<F, T> keyExtractor, final Collection<? extends F> from, final Parallelism parallelism) throws ConverterException {
         if (from == null) {
             return null;
         }
-        final HashMap<T, F> results = new HashMap<T, F>();
+        if (!parallelism.isParallel(from.size())) {
+            final HashMap<T, F> results = Maps.newHashMapWithExpectedSize(from.size());
+            for (F item : from) {
+                results.put(keyExtractor.convert(item), item);
+            }
+            return results;
+        }
+        final List<T> keys = parallelism.convert(keyExtractor, from);
+        final HashMap<T, F> results = Maps.newHashMapWithExpectedSize(keys.size());
+        final Iterator<T> keyIterator = keys.iterator();
         for (F item : from) {
-            results.put(keyExtractor.convert(item), item);
+            results.put(keyIterator.next(), item);
         }
         return results;
     }
@@ -622,6 +972,24 @@ public final class Converters {
             }
         };
     }
+
+    /**
+     * Same as {@link #mapExtractor(Converter)}, but the keys are extracted in parallel if the collection is large enough.
+     *
+     * @param keyExtractor {@link Converter} to extract the key from the Collection element. It has to be thread safe.
+     * @param parallelism The configuration of the parallel conversion. (NonNull)
+     * @return The map created from the collection elements.
+     */
+    public static <F, T> Converter<Collection<? extends F>, Map<T, F>> mapExtractor(final Converter<F, T> keyExtractor, final Parallelism parallelism) {
+
+        return new Converter<Collection<? extends F>, Map<T, F>>() {
+
+            @Override
+            public Map<T, F> convert(final Collection<? extends F> from) throws ConverterException {
+                return extractHashMap(keyExtractor, from, parallelism);
+            }
+        };
+    }
     
     /**
      * TODO javadoc.
@@ -632,12 +1000,39 @@ public final class Converters {
      * @throws ConverterException
      */
     public static <K, F, T> Map<K, T> convertMapValues(final Converter<F, T> valueConverter, final Map<K, ? extends F> from) throws ConverterException {
+        return convertMapValues(valueConverter, from, Parallelism.SEQUENTIAL);
+    }
+
+    /**
+     * Converts the values of the map, in parallel if the map is large enough, and returns them in a {@link HashMap} with the same keys.
+     *
+     * @param valueConverter The converter of the values. It has to be thread safe.
+     * @param from The map. (Nullable)
+     * @param parallelism The configuration of the parallel conversion. (NonNull)
+     * @return The map of the converted values or <tt>null</tt> if the map is <tt>null</tt>. (Nullable)
+     * @throws ConverterException The exception of the first failing value.
+     */
+    public static <K, F, T> Map<K, T> convertMapValues(final Converter<F, T> valueConverter, final Map<K, ? extends F> from, final Parallelism parallelism) throws ConverterException {
         if (from == null) {
             return null;
         }
-        final HashMap<K, T> results = new HashMap<K, T>();
-        for (Map.Entry<K, ? extends F> entry : from.entrySet()) {
-            results.put(entry.getKey(), valueConverter.convert(entry.getValue()));
+        if (!parallelism.isParallel(from.size())) {
+            final HashMap<K, T> results = Maps.newHashMapWithExpectedSize(from.size());
+            for (Map.Entry<K, ? extends F> entry : from.entrySet()) {
+                results.put(entry.getKey(), valueConverter.convert(entry.getValue()));
+            }
+            return results;
+        }
+        final List<Map.Entry<K, ? extends F>> entries = new ArrayList<Map.Entry<K, ? extends F>>(from.entrySet());
+        final List<T> values = parallelism.convert(new Converter<Map.Entry<K, ? extends F>, T>() {
+            @Override
+            public T convert(final Map.Entry<K, ? extends F> entry) throws ConverterException {
+                return valueConverter.convert(entry.getValue());
+            }
+        }, entries);
+        final HashMap<K, T> results = Maps.newHashMapWithExpectedSize(entries.size());
+        for (int i = 0; i < entries.size(); i++) {
+            results.put(entries.get(i).getKey(), values.get(i));
         }
         return results;
     }
@@ -660,6 +1055,274 @@ public final class Converters {
         };
         
     }
+
+    /**
+     * Same as {@link #mapValueConverter(Converter)}, but the values are converted in parallel if the map is large enough.
+     *
+     * @param valueConverter The converter of the values. It has to be thread safe.
+     * @param parallelism The configuration of the parallel conversion. (NonNull)
+     * @return The converter of the maps.
+     */
+    public static <K, F, T> Converter<Map<K, ? extends F>, Map<K, T>> mapValueConverter(final Converter<F, T> valueConverter, final Parallelism parallelism) {
+
+        return new Converter<Map<K, ? extends F>, Map<K, T>>() {
+
+            @Override
+            public Map<K, T> convert(final Map<K, ? extends F> from) throws ConverterException {
+                return convertMapValues(valueConverter, from, parallelism);
+            }
+
+        };
+
+    }
+
+    /**
+     * <p>Returns a view of the list which converts the elements when they are accessed, so only the elements actually read are
+     * converted (e.g. a page of the list or its {@link #first(Collection) first} element).</p>
+     *
+     * <p>Without memoization every access converts the element again and the view reflects the changes of the source list.
+     * With memoization every element is converted at most once (the view is thread safe, but concurrent first reads of the same
+     * element may convert it more than once and the first result wins); the source list shouldn't be modified in this case.</p>
+     *
+     * <p>The view is read-only. A failing conversion is thrown by the accessing method.</p>
+     *
+     * @param converter The converter of the elements.
+     * @param from The source list. (Nullable)
+     * @param memoize <tt>true</tt> if the converted elements should be kept.
+     * @return The view or <tt>null</tt> if the list is <tt>null</tt>. (Nullable)
+     */
+    public static <F, T> List<T> lazyList(final Converter<F, T> converter, final List<? extends F> from, final boolean memoize) {
+        if (from == null) {
+            return null;
+        }
+        if (memoize) {
+            return new MemoizingListView<F, T>(converter, from);
+        }
+        return Collections.unmodifiableList(Lists.transform(from, new ConverterFunction<F, T>(converter)));
+    }
+
+    /**
+     * Returns a {@link Converter} which converts lists into lazy views, see {@link #lazyList(Converter, List, boolean)}.
+     *
+     * @param converter The converter of the elements.
+     * @param memoize <tt>true</tt> if the converted elements should be kept by the views.
+     * @return The converter of the lists.
+     */
+    public static <F, T> Converter<List<? extends F>, List<T>> lazyListConverter(final Converter<F, T> converter, final boolean memoize) {
+
+        return new Converter<List<? extends F>, List<T>>() {
+
+            @Override
+            public List<T> convert(final List<? extends F> from) throws ConverterException {
+                return lazyList(converter, from, memoize);
+            }
+
+        };
+
+    }
+
+    /**
+     * <p>Returns a view of the map which converts the values when they are accessed. The keys are the keys of the source map.</p>
+     *
+     * <p>Without memoization every access converts the value again and the view reflects the changes of the source map.
+     * With memoization every value is converted at most once (the view is thread safe, but concurrent first reads of the same
+     * value may convert it more than once and the first result wins); the source map shouldn't be modified in this case.</p>
+     *
+     * <p>The view is read-only. A failing conversion is thrown by the accessing method.</p>
+     *
+     * @param valueConverter The converter of the values.
+     * @param from The source map. (Nullable)
+     * @param memoize <tt>true</tt> if the converted values should be kept.
+     * @return The view or <tt>null</tt> if the map is <tt>null</tt>. (Nullable)
+     */
+    public static <K, F, T> Map<K, T> lazyMapValues(final Converter<F, T> valueConverter, final Map<K, ? extends F> from, final boolean memoize) {
+        if (from == null) {
+            return null;
+        }
+        if (memoize) {
+            return new MemoizingMapView<K, F, T>(valueConverter, from);
+        }
+        return Collections.unmodifiableMap(Maps.transformValues(from, new ConverterFunction<F, T>(valueConverter)));
+    }
+
+    /**
+     * Returns a {@link Converter} which converts maps into lazy views, see {@link #lazyMapValues(Converter, Map, boolean)}.
+     *
+     * @param valueConverter The converter of the values.
+     * @param memoize <tt>true</tt> if the converted values should be kept by the views.
+     * @return The converter of the maps.
+     */
+    public static <K, F, T> Converter<Map<K, ? extends F>, Map<K, T>> lazyMapValueConverter(final Converter<F, T> valueConverter, final boolean memoize) {
+
+        return new Converter<Map<K, ? extends F>, Map<K, T>>() {
+
+            @Override
+            public Map<K, T> convert(final Map<K, ? extends F> from) throws ConverterException {
+                return lazyMapValues(valueConverter, from, memoize);
+            }
+
+        };
+
+    }
+
+    /**
+     * Computes the length of the byte array of <tt>count</tt> values of <tt>width</tt> bytes each.
+     *
+     * @throws ConverterException If the byte array would be longer than the maximum length of an array.
+     */
+    private static int byteArrayLength(final int count, final int width) {
+        if (count > Integer.MAX_VALUE / width) {
+            throw new ConverterException("An array of " + count + " values of " + width + " bytes is too long to be converted to a byte array.");
+        }
+        return count * width;
+    }
+
+    /**
+     * Adapts a {@link Converter} to Guava's {@link Function}.
+     */
+    private static final class ConverterFunction<F, T> implements Function<F, T> {
+
+        private final Converter<F, T> converter;
+
+        private ConverterFunction(final Converter<F, T> converter) {
+            this.converter = converter;
+        }
+
+        @Override
+        public T apply(final F input) {
+            return converter.convert(input);
+        }
+
+    }
+
+    /** Marks the converted <tt>null</tt> values in the caches of the memoizing views. */
+    private static final Object NULL_VALUE = new Object();
+
+    @SuppressWarnings("unchecked")
+    private static <T> T unmask(final Object value) {
+        return value == NULL_VALUE ? null : (T) value;
+    }
+
+    /**
+     * List view converting every element at most once.
+     */
+    private static final class MemoizingListView<F, T> extends AbstractList<T> implements RandomAccess {
+
+        private final Converter<F, T> converter;
+        private final List<? extends F> from;
+        /** The converted elements, <tt>null</tt> if the element isn't converted yet. */
+        private final AtomicReferenceArray<Object> converted;
+
+        private MemoizingListView(final Converter<F, T> converter, final List<? extends F> from) {
+            this.converter = converter;
+            this.from      = from;
+            this.converted = new AtomicReferenceArray<Object>(from.size());
+        }
+
+        @Override
+        public T get(final int index) {
+            final Object value = converted.get(index);
+            if (value != null) {
+                return unmask(value);
+            }
+            final T result = converter.convert(from.get(index));
+            converted.compareAndSet(index, null, result == null ? NULL_VALUE : result);
+            return unmask(converted.get(index));
+        }
+
+        @Override
+        public int size() {
+            return converted.length();
+        }
+
+    }
+
+    /**
+     * Map view converting every value at most once.
+     */
+    private static final class MemoizingMapView<K, F, T> extends AbstractMap<K, T> {
+
+        private final Converter<F, T> converter;
+        private final Map<K, ? extends F> from;
+        /** The converted values by the keys. The <tt>null</tt> keys and values are masked by {@link Converters#NULL_VALUE}. */
+        private final ConcurrentHashMap<Object, Object> converted;
+        private final Set<Map.Entry<K, T>> entrySet = new AbstractSet<Map.Entry<K, T>>() {
+
+            @Override
+            public Iterator<Map.Entry<K, T>> iterator() {
+                final Iterator<? extends Map.Entry<K, ? extends F>> entries = from.entrySet().iterator();
+                return new Iterator<Map.Entry<K, T>>() {
+
+                    @Override
+                    public boolean hasNext() {
+                        return entries.hasNext();
+                    }
+
+                    @Override
+                    public Map.Entry<K, T> next() {
+                        final K key = entries.next().getKey();
+                        return new AbstractMap.SimpleImmutableEntry<K, T>(key, get(key));
+                    }
+
+                    @Override
+                    public void remove() {
+                        throw new UnsupportedOperationException();
+                    }
+
+                };
+            }
+
+            @Override
+            public int size() {
+                return from.size();
+            }
+
+        };
+
+        private MemoizingMapView(final Converter<F, T> converter, final Map<K, ? extends F> from) {
+            this.converter = converter;
+            this.from      = from;
+            this.converted = new ConcurrentHashMap<Object, Object>();
+        }
+
+        @Override
+        public T get(final Object key) {
+            final Object maskedKey = key == null ? NULL_VALUE : key;
+            final Object value = converted.get(maskedKey);
+            if (value != null) {
+                return unmask(value);
+            }
+            if (!from.containsKey(key)) {
+                return null;
+            }
+            final T result = converter.convert(from.get(key));
+            final Object previous = converted.putIfAbsent(maskedKey, result == null ? NULL_VALUE : result);
+            return previous == null ? result : Converters.<T>unmask(previous);
+        }
+
+        @Override
+        public boolean containsKey(final Object key) {
+            return from.containsKey(key);
+        }
+
+        @Override
+        public int size() {
+            return from.size();
+        }
+
+        /** The keys are iterated without converting the values. */
+        @Override
+        public Set<K> keySet() {
+            return Collections.unmodifiableSet(from.keySet());
+        }
+
+        /** The values are converted when the entries are iterated. */
+        @Override
+        public Set<Map.Entry<K, T>> entrySet() {
+            return entrySet;
+        }
+
+    }
     
     /**
      * Returns the first element of a collection.
@@ -696,6 +1359,9 @@ public final class Converters {
      * Special converter which can combine two converters and convert the from the input of the first converter
      * to the output of the second converter.
      *
+     * <p>The {@link Converters#chain(Converter, Converter)} methods build {@link FlatChain}s instead, which flatten the nested chains
+     * (including the instances of this class).</p>
+     *
      * @param <F> The type of the input.
      * @param <T1> The intermediate type.
      * @param <T> The type of the output.
@@ -719,42 +1385,103 @@ public final class Converters {
             return c2.convert(c1.convert(from));
         }
 
+        /** @return The first converter of the chain. */
+        Converter<F, ? extends T1> getFirst() {
+            return c1;
+        }
+
+        /** @return The second converter of the chain. */
+        Converter<T1, ? extends T> getSecond() {
+            return c2;
+        }
+
     }
 
     /**
-     * TODO javadoc.
-     * 
-     * @param c1
-     * @param c2
-     * @return
+     * Converts a value without throwing a {@link ConverterException}: the {@link TryConverter#tryConvert(Object)} method of a
+     * {@link TryConverter} is called, the exception of any other converter is caught and returned as the failure.
+     *
+     * @param converter The converter. (NonNull)
+     * @param from The value to be converted.
+     * @return The converted value or the description of the failure. (NonNull)
      */
+    @SuppressWarnings("unchecked")
+    public static <F, T> ConversionResult<T> tryConvert(final Converter<F, T> converter, final F from) {
+        if (converter instanceof TryConverter) {
+            return ((TryConverter<F, T>) converter).tryConvert(from);
+        }
+        try {
+            return ConversionResult.success(converter.convert(from));
+        } catch (final ConverterException e) {
+            return ConversionResult.failure(e);
+        }
+    }
+
+    /**
+     * Chains two converters: the output of the first one is the input of the second one.
+     *
+     * <p>The result is a {@link FlatChain}: nested chains are flattened into a single array of stages and the adjacent stages
+     * implementing the matching primitive interfaces of {@link PrimitiveConverters} (e.g. a {@link PrimitiveConverters.ToLong}
+     * followed by a {@link PrimitiveConverters.FromLong}) are fused, so the intermediate value is not boxed.
+     * See {@link FlatChain#of(Converter...)}.</p>
+     *
+     * @param c1 The first converter. (NonNull)
+     * @param c2 The second converter. (NonNull)
+     * @return The chain, or the fused converter if the chain was fused into a single converter. (NonNull)
+     */
+    @SuppressWarnings("unchecked")
     public static <F, T1, T> Converter<F, T> chain(final Converter<F, ? extends T1> c1, final Converter<T1, ? extends T> c2) {
-        return new Chain<F, T1, T>(c1, c2);
+        return (Converter<F, T>) FlatChain.of(c1, c2);
     }
 
     /**
-     * TODO javadoc.
-     * 
-     * @param c1
-     * @param c2
-     * @param c3
-     * @return
+     * Chains three converters, see {@link #chain(Converter, Converter)}.
+     *
+     * @param c1 The first converter. (NonNull)
+     * @param c2 The second converter. (NonNull)
+     * @param c3 The third converter. (NonNull)
+     * @return The chain, or the fused converter if the chain was fused into a single converter. (NonNull)
      */
+    @SuppressWarnings("unchecked")
     public static <F, T1, T2, T> Converter<F, T> chain(final Converter<F, ? extends T1> c1, final Converter<T1, ? extends T2> c2, final Converter<T2, ? extends T> c3) {
-        return new Chain<F, T1, T>(c1, new Chain<T1, T2, T>(c2, c3));
+        return (Converter<F, T>) FlatChain.of(c1, c2, c3);
     }
 
     /**
-     * TODO javadoc.
-     * 
-     * @param c1
-     * @param c2
-     * @param c3
-     * @param c4
-     * @return
+     * Chains four converters, see {@link #chain(Converter, Converter)}.
+     *
+     * @param c1 The first converter. (NonNull)
+     * @param c2 The second converter. (NonNull)
+     * @param c3 The third converter. (NonNull)
+     * @param c4 The fourth converter. (NonNull)
+     * @return The chain, or the fused converter if the chain was fused into a single converter. (NonNull)
      */
+    @SuppressWarnings("unchecked")
     public static <F, T1, T2, T3, T> Converter<F, T> chain(final Converter<F, ? extends T1> c1, final Converter<T1, ? extends T2> c2, final Converter<T2, ? extends T3> c3, final Converter<T3, ? extends T> c4) {
-        return new Chain<F, T1, T>(c1, new Chain<T1, T2, T>(c2, new Chain<T2, T3, T>(c3, c4)));
+        return (Converter<F, T>) FlatChain.of(c1, c2, c3, c4);
+    }
+
+    /**
+     * Decorates the converter with a cache of at most <tt>maximumSize</tt> results, see {@link MemoizingConverter}.
+     *
+     * @param converter The converter. It has to be a pure function of its input. (NonNull)
+     * @param maximumSize The maximum number of the cached results.
+     * @return The memoizing converter. (NonNull)
+     */
+    public static <F, T> MemoizingConverter<F, T> memoize(final Converter<F, T> converter, final long maximumSize) {
+        return MemoizingConverter.of(converter, maximumSize);
+    }
+
+    /**
+     * Decorates the converter with a cache of results limited by their total weight, see {@link MemoizingConverter}.
+     *
+     * @param converter The converter. It has to be a pure function of its input. (NonNull)
+     * @param maximumWeight The maximum total weight of the cached results.
+     * @param weigher Computes the weight of a cached result. (NonNull)
+     * @return The memoizing converter. (NonNull)
+     */
+    public static <F, T> MemoizingConverter<F, T> memoize(final Converter<F, T> converter, final long maximumWeight, final Weigher<? super F, ? super T> weigher) {
+        return MemoizingConverter.of(converter, maximumWeight, weigher);
     }
 
     /** Hidden constructor of the utility class to avoid the instantiation. */
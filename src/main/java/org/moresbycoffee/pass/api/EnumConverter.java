@@ -28,19 +28,55 @@
  */
 package org.moresbycoffee.pass.api;
 
+import java.util.Arrays;
+
 /**
  * Converts a string to a Enum value if the Enum contains constant with the given name.
  *
+ * <p>The names are compared case insensitively (see {@link String#equalsIgnoreCase(String)}). The constants are indexed in a hash table
+ * when the converter is created, so a lookup is a single probe of the table and it doesn't allocate any object.</p>
+ *
  * @param <T> The type of the enum.
  * @author bsudy
  * @since 2012
  */
-public class EnumConverter<T extends Enum<T>> implements Converter<String, T> {
+public class EnumConverter<T extends Enum<T>> implements TryConverter<String, T> {
 
     private final Class<T> enumType;
 
+    /** The constants in an open-addressing hash table. The size of the table is a power of two. */
+    private final T[] table;
+    /** The case-insensitive hashes of the names of the constants in the {@link #table}. */
+    private final int[] hashes;
+    private final int mask;
+
     public EnumConverter(final Class<T> enumType) {
         this.enumType = enumType;
+        final T[] constants = enumType.getEnumConstants();
+        int capacity = 2;
+        while (capacity < constants.length * 2) {
+            capacity <<= 1;
+        }
+        this.table = Arrays.copyOf(constants, capacity);
+        Arrays.fill(table, null);
+        this.hashes = new int[capacity];
+        this.mask = capacity - 1;
+        /* The constants are inserted in declaration order, so if two names only differ in case the first one is found first (as before). */
+        for (final T constant : constants) {
+            final String name = constant.name();
+            final int hash = hash(name);
+            int index = hash & mask;
+            while (table[index] != null) {
+                index = (index + 1) & mask;
+            }
+            table[index] = constant;
+            hashes[index] = hash;
+        }
+    }
+
+    /** @return The type of the enum. (NonNull) */
+    public Class<T> getEnumType() {
+        return enumType;
     }
 
     /** {@inheritDoc} */
@@ -49,13 +85,82 @@ public class EnumConverter<T extends Enum<T>> implements Converter<String, T> {
         if (from == null) {
             return null;
         }
-        final T[] constants = enumType.getEnumConstants();
-        for (T constant : constants) {
-            if (constant.name().equalsIgnoreCase(from)) {
+        final T constant = find(from);
+        if (constant == null) {
+            throw StacklessConverterException.failure(notFound(from));
+        }
+        return constant;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public ConversionResult<T> tryConvert(final String from) {
+        if (from == null) {
+            return ConversionResult.success(null);
+        }
+        final T constant = find(from);
+        if (constant == null) {
+            return ConversionResult.failure(notFound(from));
+        }
+        return ConversionResult.success(constant);
+    }
+
+    private String notFound(final String name) {
+        return "No constant found in the " + enumType.getName() + " enum for " + name + " string.";
+    }
+
+    /**
+     * Looks up the constant with the given name without throwing an exception if there isn't any.
+     *
+     * @param name The name of the constant, compared case insensitively. (Nullable)
+     * @return The constant or <tt>null</tt> if the name is <tt>null</tt> or the enum doesn't have such a constant. (Nullable)
+     */
+    public T find(final CharSequence name) {
+        if (name == null) {
+            return null;
+        }
+        final int hash = hash(name);
+        int index = hash & mask;
+        T constant;
+        while ((constant = table[index]) != null) {
+            if (hashes[index] == hash && equalsIgnoreCase(constant.name(), name)) {
                 return constant;
             }
+            index = (index + 1) & mask;
+        }
+        return null;
+    }
+
+    /** The hash is computed from the case folded characters, so the names equal by {@link #equalsIgnoreCase} have the same hash. */
+    private static int hash(final CharSequence name) {
+        int hash = 0;
+        for (int i = 0; i < name.length(); i++) {
+            hash = 31 * hash + fold(name.charAt(i));
+        }
+        return hash ^ (hash >>> 16);
+    }
+
+    private static char fold(final char c) {
+        if (c < 0x80) {
+            return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+        }
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+
+    /** Same comparison as {@link String#equalsIgnoreCase(String)}, but works with any {@link CharSequence}. */
+    private static boolean equalsIgnoreCase(final String name, final CharSequence other) {
+        final int length = name.length();
+        if (length != other.length()) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            final char c1 = name.charAt(i);
+            final char c2 = other.charAt(i);
+            if (c1 != c2 && fold(c1) != fold(c2)) {
+                return false;
+            }
         }
-        throw new ConverterException("No constant found in the " + enumType.getName() + " enum for " + from + " string.");
+        return true;
     }
 
 }
@@ -0,0 +1,186 @@
+/*
+ * Moresby Coffee Bean
+ *
+ * Copyright (c) 2012, Barnabas Sudy (barnabas.sudy@gmail.com)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.moresbycoffee.pass.api;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * <p>Chain of any number of converters executed by a simple loop over a flat array of stages.</p>
+ *
+ * <p>The chain is built by {@link #of(Converter...)}, which</p>
+ * <ul>
+ *   <li>flattens the nested chains ({@link FlatChain}s and {@link Converters.Chain}s) into the array, so a conversion doesn't go
+ *       through layers of wrapper objects,</li>
+ *   <li>fuses the adjacent stages implementing the matching primitive interfaces (see {@link PrimitiveConverters#fuse(Converter, Converter)}),
+ *       so the intermediate values are not boxed (e.g. {@link Converters#STRING_TO_LONG} followed by {@link Converters#LONG_TO_INT}),</li>
+ *   <li>and checks whether every stage is known to convert <tt>null</tt> to <tt>null</tt>. If so, a <tt>null</tt> input is returned
+ *       at once instead of passing it through every stage.</li>
+ * </ul>
+ *
+ * <p>The chain is immutable and it is thread safe if its stages are.</p>
+ *
+ * @param <F> The type of the input.
+ * @param <T> The type of the output.
+ */
+public final class FlatChain<F, T> implements TryConverter<F, T> {
+
+    /** The converters in the order of the execution. */
+    private final Converter<?, ?>[] stages;
+
+    /** <tt>true</tt> if every stage converts <tt>null</tt> to <tt>null</tt>. */
+    private final boolean preservesNull;
+
+    private FlatChain(final Converter<?, ?>[] stages, final boolean preservesNull) {
+        this.stages        = stages;
+        this.preservesNull = preservesNull;
+    }
+
+    /**
+     * Builds a flattened, fused chain of the converters. The output type of every converter has to be assignable to the input
+     * type of the next one; this is not checked, see the type safe {@link Converters#chain(Converter, Converter)} methods.
+     *
+     * @param converters The converters in the order of the execution. (NonNull, not empty)
+     * @return The chain, or the single converter if the converters were fused into one. (NonNull)
+     */
+    @SuppressWarnings("unchecked")
+    public static Converter<?, ?> of(final Converter<?, ?>... converters) {
+        if (converters.length == 0) {
+            throw new IllegalArgumentException("The chain needs at least one converter.");
+        }
+        final List<Converter<?, ?>> flattened = new ArrayList<Converter<?, ?>>(converters.length);
+        for (final Converter<?, ?> converter : converters) {
+            flatten(converter, flattened);
+        }
+
+        final List<Converter<?, ?>> fused = new ArrayList<Converter<?, ?>>(flattened.size());
+        for (final Converter<?, ?> stage : flattened) {
+            if (!fused.isEmpty()) {
+                final Converter<?, ?> fusion = PrimitiveConverters.fuse((Converter<Object, ?>) fused.get(fused.size() - 1), stage);
+                if (fusion != null) {
+                    fused.set(fused.size() - 1, fusion);
+                    continue;
+                }
+            }
+            fused.add(stage);
+        }
+        if (fused.size() == 1) {
+            return fused.get(0);
+        }
+
+        boolean preservesNull = true;
+        for (final Converter<?, ?> stage : fused) {
+            preservesNull &= PrimitiveConverters.preservesNull(stage);
+        }
+        return new FlatChain<Object, Object>(fused.toArray(new Converter<?, ?>[fused.size()]), preservesNull);
+    }
+
+    private static void flatten(final Converter<?, ?> converter, final List<Converter<?, ?>> stages) {
+        if (converter instanceof FlatChain) {
+            stages.addAll(Arrays.asList(((FlatChain<?, ?>) converter).stages));
+        } else if (converter instanceof Converters.Chain) {
+            final Converters.Chain<?, ?, ?> chain = (Converters.Chain<?, ?, ?>) converter;
+            flatten(chain.getFirst(), stages);
+            flatten(chain.getSecond(), stages);
+        } else {
+            stages.add(converter);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public T convert(final F from) throws ConverterException {
+        if (from == null && preservesNull) {
+            return null;
+        }
+        Object value = from;
+        for (final Converter<?, ?> stage : stages) {
+            @SuppressWarnings("unchecked")
+            final Converter<Object, Object> objectStage = (Converter<Object, Object>) stage;
+            value = objectStage.convert(value);
+        }
+        @SuppressWarnings("unchecked")
+        final T result = (T) value;
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>The stages are called by {@link Converters#tryConvert(Converter, Object)} and the chain stops at the first failure, so an invalid
+     * input of a {@link TryConverter} stage (e.g. {@link Converters#STRING_TO_LONG}) is reported without creating an exception.</p>
+     */
+    @Override
+    public ConversionResult<T> tryConvert(final F from) {
+        if (from == null && preservesNull) {
+            return ConversionResult.success(null);
+        }
+        Object value = from;
+        for (final Converter<?, ?> stage : stages) {
+            @SuppressWarnings("unchecked")
+            final ConversionResult<Object> result = Converters.tryConvert((Converter<Object, Object>) stage, value);
+            if (!result.isSuccess()) {
+                return result.asFailure();
+            }
+            value = result.get();
+        }
+        @SuppressWarnings("unchecked")
+        final T result = (T) value;
+        return ConversionResult.success(result);
+    }
+
+    /**
+     * Returns the stages the chain executes, in order. The fused stages appear as one converter, so the list shows how the chain was
+     * flattened and fused, e.g. for a compiler of the chains or for a test.
+     *
+     * @return The stages of the chain after the flattening and the fusion in an unmodifiable list. (NonNull)
+     */
+    public List<Converter<?, ?>> getStages() {
+        return Collections.<Converter<?, ?>>unmodifiableList(Arrays.asList(stages));
+    }
+
+    /**
+     * Tells whether the chain returns a <tt>null</tt> input at once, without calling its stages. This is the case if every stage is
+     * known to convert <tt>null</tt> to <tt>null</tt> (see the class description); a compiler of the chains has to keep this behaviour.
+     *
+     * @return <tt>true</tt> if every stage is known to convert <tt>null</tt> to <tt>null</tt>.
+     */
+    public boolean preservesNull() {
+        return preservesNull;
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String toString() {
+        return "FlatChain" + Arrays.toString(stages);
+    }
+
+}
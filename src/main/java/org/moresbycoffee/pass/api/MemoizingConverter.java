@@ -0,0 +1,140 @@
+/*
+ * Moresby Coffee Bean
+ *
+ * Copyright (c) 2012, Barnabas Sudy (barnabas.sudy@gmail.com)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.moresbycoffee.pass.api;
+
+import com.google.common.base.Optional;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.Weigher;
+
+/**
+ * <p>Decorator of a {@link Converter} which keeps the results of the conversions in a bounded, concurrent cache, so a repeated
+ * input is converted only once while it is in the cache. Use it for expensive conversions of frequently repeated inputs
+ * (e.g. {@link Converters#STRING_TO_BIGDECIMAL} or an {@link EnumConverter} fed by a small set of strings).</p>
+ *
+ * <p>The cache is a Guava {@link Cache}: the least recently used entries are evicted when the number of the entries (or their total
+ * weight) exceeds the limit. The hit, miss and eviction counts are available through {@link #stats()}.</p>
+ *
+ * <p>The inputs are the keys of the cache, so they have to be immutable and implement {@link Object#equals(Object)} and
+ * {@link Object#hashCode()}, and the decorated converter has to be a pure function of its input. <tt>null</tt> inputs are not cached,
+ * <tt>null</tt> results are. The failing conversions are not cached: the exception is thrown and the next conversion of the same
+ * input is tried again. The conversions never wait for each other: if the same input is converted concurrently, it may be converted
+ * more than once and the first cached result wins.</p>
+ *
+ * @param <F> The type of the input.
+ * @param <T> The type of the output.
+ */
+public final class MemoizingConverter<F, T> implements Converter<F, T> {
+
+    /** The decorated converter. */
+    private final Converter<F, T> converter;
+
+    /** The results by the inputs. The <tt>null</tt> results are stored as {@link Optional#absent()}. */
+    private final Cache<F, Optional<T>> cache;
+
+    private MemoizingConverter(final Converter<F, T> converter, final Cache<F, Optional<T>> cache) {
+        this.converter = converter;
+        this.cache     = cache;
+    }
+
+    /**
+     * @param converter The decorated converter. (NonNull)
+     * @param maximumSize The maximum number of the cached results.
+     * @return The memoizing converter. (NonNull)
+     */
+    public static <F, T> MemoizingConverter<F, T> of(final Converter<F, T> converter, final long maximumSize) {
+        final Cache<F, Optional<T>> cache = CacheBuilder.newBuilder().maximumSize(maximumSize).recordStats().build();
+        return new MemoizingConverter<F, T>(converter, cache);
+    }
+
+    /**
+     * @param converter The decorated converter. (NonNull)
+     * @param maximumWeight The maximum total weight of the cached results.
+     * @param weigher Computes the weight of a cached result (e.g. the length of the input string). <tt>null</tt> results are passed
+     *                to the weigher as <tt>null</tt>. (NonNull)
+     * @return The memoizing converter. (NonNull)
+     */
+    public static <F, T> MemoizingConverter<F, T> of(final Converter<F, T> converter, final long maximumWeight,
+                                                     final Weigher<? super F, ? super T> weigher) {
+        final Cache<F, Optional<T>> cache = CacheBuilder.newBuilder()
+                                                        .maximumWeight(maximumWeight)
+                                                        .weigher(new Weigher<F, Optional<T>>() {
+                                                            @Override
+                                                            public int weigh(final F key, final Optional<T> value) {
+                                                                return weigher.weigh(key, value.orNull());
+                                                            }
+                                                        })
+                                                        .recordStats()
+                                                        .build();
+        return new MemoizingConverter<F, T>(converter, cache);
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public T convert(final F from) throws ConverterException {
+        if (from == null) {
+            return converter.convert(null);
+        }
+        final Optional<T> cached = cache.getIfPresent(from);
+        if (cached != null) {
+            return cached.orNull();
+        }
+        final T result = converter.convert(from);
+        final Optional<T> concurrent = cache.asMap().putIfAbsent(from, Optional.fromNullable(result));
+        return concurrent == null ? result : concurrent.orNull();
+    }
+
+    /** @return The decorated converter. (NonNull) */
+    public Converter<F, T> getConverter() {
+        return converter;
+    }
+
+    /** @return The hit, miss, eviction, etc. statistics of the cache since the converter was created. (NonNull) */
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    /** @return The approximate number of the cached results. */
+    public long size() {
+        return cache.size();
+    }
+
+    /** Discards the cached results. */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String toString() {
+        return "Memoizing[" + converter + "]";
+    }
+
+}
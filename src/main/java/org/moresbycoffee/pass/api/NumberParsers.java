@@ -0,0 +1,455 @@
+/*
+ * Moresby Coffee Bean
+ *
+ * Copyright (c) 2012, Barnabas Sudy (barnabas.sudy@gmail.com)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.moresbycoffee.pass.api;
+
+import java.math.BigDecimal;
+
+/**
+ * <p>Allocation free parsers of decimal numbers from {@link CharSequence} regions.</p>
+ *
+ * <p>The parsers handle the common formats (plain decimal digits, and for the floating point numbers a fraction and an exponent)
+ * without creating any intermediate object, and fall back to the JDK implementation for everything else (e.g. non-ASCII digits,
+ * <tt>"NaN"</tt>, hexadecimal floating point literals, leading or trailing whitespace), so the accepted formats and the results
+ * are the same as the ones of the referenced JDK methods.</p>
+ *
+ * <p>The parsers throw {@link ConverterException} if the text is not a valid number of the requested type. The int and long parsers
+ * throw {@link StacklessConverterException} if it is {@link StacklessConverterException#ENABLED enabled}.</p>
+ */
+public final class NumberParsers {
+
+    /** The powers of ten which are exactly representable as double. */
+    private static final double[] DOUBLE_POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22,
+    };
+
+    /** The powers of ten which are exactly representable as float. */
+    private static final float[] FLOAT_POWERS_OF_TEN = {
+        1e0f, 1e1f, 1e2f, 1e3f, 1e4f, 1e5f, 1e6f, 1e7f, 1e8f, 1e9f, 1e10f,
+    };
+
+    /** The maximum number of the significant digits of an exactly representable double (<tt>10^15 &lt; 2^53</tt>). */
+    private static final int MAX_DOUBLE_DIGITS = 15;
+
+    /** The maximum number of the significant digits of an exactly representable float (<tt>10^7 &lt; 2^24</tt>). */
+    private static final int MAX_FLOAT_DIGITS = 7;
+
+    /** Larger explicit exponents are left to the JDK; the limit only protects the int accumulator from overflow. */
+    private static final int MAX_EXPLICIT_EXPONENT = 100000;
+
+    /**
+     * Parses an int like <tt>new BigDecimal(text).intValueExact()</tt>: a fraction of zeros (e.g. <tt>"4.0"</tt>) is accepted,
+     * a fraction which is not zero and a value out of the int range are rejected.
+     *
+     * @param text The text. (NonNull)
+     * @return The parsed value.
+     * @throws ConverterException If the text is not a valid int.
+     */
+    public static int parseInt(final CharSequence text) throws ConverterException {
+        return parseInt(text, 0, text.length());
+    }
+
+    /**
+     * Parses an int from the <tt>[start, end)</tt> region of the text. See {@link #parseInt(CharSequence)}.
+     *
+     * @param text The text. (NonNull)
+     * @param start The index of the first character.
+     * @param end The index after the last character.
+     * @return The parsed value.
+     * @throws ConverterException If the region is not a valid int.
+     */
+    public static int parseInt(final CharSequence text, final int start, final int end) throws ConverterException {
+        return parseInt(text, start, end, StacklessConverterException.ENABLED);
+    }
+
+    /**
+     * See {@link #parseInt(CharSequence, int, int)}.
+     *
+     * @param stackless <tt>true</tt> if an invalid region should be reported by a {@link StacklessConverterException}. The formats
+     *        parsed by the JDK are still reported by exceptions with stack traces.
+     */
+    static int parseInt(final CharSequence text, final int start, final int end, final boolean stackless) throws ConverterException {
+        int index = start;
+        boolean negative = false;
+        if (index < end && (text.charAt(index) == '-' || text.charAt(index) == '+')) {
+            negative = text.charAt(index) == '-';
+            index++;
+        }
+        long value = 0;
+        int digits = 0;
+        char c = 0;
+        for (; index < end; index++) {
+            c = text.charAt(index);
+            if (c < '0' || c > '9') {
+                break;
+            }
+            value = value * 10 + (c - '0');
+            digits++;
+            if (value > 1L << 31) {
+                /* May still be valid with a negative exponent. */
+                return parseIntSlow(text, start, end);
+            }
+        }
+        boolean integral = true;
+        if (index < end && c == '.') {
+            for (index++; index < end; index++) {
+                c = text.charAt(index);
+                if (c < '0' || c > '9') {
+                    break;
+                }
+                integral &= c == '0';
+                digits++;
+            }
+        }
+        if (index < end) {
+            if (c == 'e' || c == 'E' || c >= 0x80) {
+                return parseIntSlow(text, start, end);
+            }
+            throw invalid("int", text, start, end, stackless);
+        }
+        if (digits == 0 || !integral) {
+            throw invalid("int", text, start, end, stackless);
+        }
+        if (negative) {
+            value = -value;
+        }
+        if (value > Integer.MAX_VALUE || value < Integer.MIN_VALUE) {
+            throw invalid("int", text, start, end, stackless);
+        }
+        return (int) value;
+    }
+
+    /** Parses the formats not handled by {@link #parseInt(CharSequence, int, int)} (exponent, non-ASCII digits). */
+    private static int parseIntSlow(final CharSequence text, final int start, final int end) throws ConverterException {
+        try {
+            return new BigDecimal(text.subSequence(start, end).toString()).intValueExact();
+        } catch (final NumberFormatException e) {
+            throw new ConverterException(e);
+        } catch (final ArithmeticException e) {
+            throw new ConverterException(e);
+        }
+    }
+
+    /**
+     * Parses a long like {@link Long#parseLong(String)}.
+     *
+     * @param text The text. (NonNull)
+     * @return The parsed value.
+     * @throws ConverterException If the text is not a valid long.
+     */
+    public static long parseLong(final CharSequence text) throws ConverterException {
+        return parseLong(text, 0, text.length());
+    }
+
+    /**
+     * Parses a long from the <tt>[start, end)</tt> region of the text like {@link Long#parseLong(String)}.
+     *
+     * @param text The text. (NonNull)
+     * @param start The index of the first character.
+     * @param end The index after the last character.
+     * @return The parsed value.
+     * @throws ConverterException If the region is not a valid long.
+     */
+    public static long parseLong(final CharSequence text, final int start, final int end) throws ConverterException {
+        return parseLong(text, start, end, StacklessConverterException.ENABLED);
+    }
+
+    /**
+     * See {@link #parseLong(CharSequence, int, int)}.
+     *
+     * @param stackless <tt>true</tt> if an invalid region should be reported by a {@link StacklessConverterException}. The formats
+     *        parsed by the JDK are still reported by exceptions with stack traces.
+     */
+    static long parseLong(final CharSequence text, final int start, final int end, final boolean stackless) throws ConverterException {
+        int index = start;
+        boolean negative = false;
+        if (index < end && (text.charAt(index) == '-' || text.charAt(index) == '+')) {
+            negative = text.charAt(index) == '-';
+            index++;
+        }
+        if (index == end) {
+            throw invalid("long", text, start, end, stackless);
+        }
+        /* Accumulating negatively, as the range of the negative numbers is larger. */
+        final long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+        final long multiplicationLimit = limit / 10;
+        long value = 0;
+        for (; index < end; index++) {
+            final char c = text.charAt(index);
+            if (c < '0' || c > '9') {
+                if (c >= 0x80) {
+                    return parseLongSlow(text, start, end);
+                }
+                throw invalid("long", text, start, end, stackless);
+            }
+            final int digit = c - '0';
+            if (value < multiplicationLimit) {
+                throw invalid("long", text, start, end, stackless);
+            }
+            value *= 10;
+            if (value < limit + digit) {
+                throw invalid("long", text, start, end, stackless);
+            }
+            value -= digit;
+        }
+        return negative ? value : -value;
+    }
+
+    /** Parses the formats not handled by {@link #parseLong(CharSequence, int, int)} (non-ASCII digits). */
+    private static long parseLongSlow(final CharSequence text, final int start, final int end) throws ConverterException {
+        try {
+            return Long.parseLong(text.subSequence(start, end).toString());
+        } catch (final NumberFormatException e) {
+            throw new ConverterException(e);
+        }
+    }
+
+    /**
+     * Parses a double like {@link Double#parseDouble(String)}.
+     *
+     * @param text The text. (NonNull)
+     * @return The parsed value.
+     * @throws ConverterException If the text is not a valid double.
+     */
+    public static double parseDouble(final CharSequence text) throws ConverterException {
+        return parseDouble(text, 0, text.length());
+    }
+
+    /**
+     * <p>Parses a double from the <tt>[start, end)</tt> region of the text like {@link Double#parseDouble(String)}.</p>
+     *
+     * <p>If the decimal number has at most 15 significant digits and its decimal exponent is at most 22, both the mantissa and the power
+     * of ten are exact doubles, so one multiplication or division gives the correctly rounded result. Other numbers are parsed by the JDK.</p>
+     *
+     * @param text The text. (NonNull)
+     * @param start The index of the first character.
+     * @param end The index after the last character.
+     * @return The parsed value.
+     * @throws ConverterException If the region is not a valid double.
+     */
+    public static double parseDouble(final CharSequence text, final int start, final int end) throws ConverterException {
+        final double value = parseSimpleDecimal(text, start, end, false);
+        if (value == value) {
+            return value;
+        }
+        return parseDoubleSlow(text, start, end);
+    }
+
+    /** Parses the formats not handled by {@link #parseDouble(CharSequence, int, int)}. */
+    private static double parseDoubleSlow(final CharSequence text, final int start, final int end) throws ConverterException {
+        try {
+            return Double.parseDouble(text.subSequence(start, end).toString());
+        } catch (final NumberFormatException e) {
+            throw new ConverterException(e);
+        }
+    }
+
+    /**
+     * Parses a float like {@link Float#parseFloat(String)}.
+     *
+     * @param text The text. (NonNull)
+     * @return The parsed value.
+     * @throws ConverterException If the text is not a valid float.
+     */
+    public static float parseFloat(final CharSequence text) throws ConverterException {
+        return parseFloat(text, 0, text.length());
+    }
+
+    /**
+     * <p>Parses a float from the <tt>[start, end)</tt> region of the text like {@link Float#parseFloat(String)}.</p>
+     *
+     * <p>If the decimal number has at most 7 significant digits and its decimal exponent is at most 10, the result is computed by one
+     * float multiplication or division (see {@link #parseDouble(CharSequence, int, int)}). Other numbers are parsed by the JDK.</p>
+     *
+     * @param text The text. (NonNull)
+     * @param start The index of the first character.
+     * @param end The index after the last character.
+     * @return The parsed value.
+     * @throws ConverterException If the region is not a valid float.
+     */
+    public static float parseFloat(final CharSequence text, final int start, final int end) throws ConverterException {
+        final double value = parseSimpleDecimal(text, start, end, true);
+        if (value == value) {
+            return (float) value;
+        }
+        return parseFloatSlow(text, start, end);
+    }
+
+    /** Parses the formats not handled by {@link #parseFloat(CharSequence, int, int)}. */
+    private static float parseFloatSlow(final CharSequence text, final int start, final int end) throws ConverterException {
+        try {
+            return Float.parseFloat(text.subSequence(start, end).toString());
+        } catch (final NumberFormatException e) {
+            throw new ConverterException(e);
+        }
+    }
+
+    /**
+     * <p>Parses a decimal number with at most 15 (float: 7) significant digits and a decimal exponent between -22 and 22 (float: -10 and 10)
+     * in the format <tt>[+-]digits[.digits][(e|E)[+-]digits]</tt>. Both the mantissa and the power of ten are exact in these ranges,
+     * so the result of the multiplication or the division is the correctly rounded value.</p>
+     *
+     * @param text The text. (NonNull)
+     * @param start The index of the first character.
+     * @param end The index after the last character.
+     * @param asFloat <tt>true</tt> if the number is computed as a float.
+     * @return The parsed value or {@link Double#NaN} if the region is not such a number (it may still be a valid number of other format).
+     */
+    private static double parseSimpleDecimal(final CharSequence text, final int start, final int end, final boolean asFloat) {
+        final int maxDigits = asFloat ? MAX_FLOAT_DIGITS : MAX_DOUBLE_DIGITS;
+        final int maxExponent = asFloat ? FLOAT_POWERS_OF_TEN.length - 1 : DOUBLE_POWERS_OF_TEN.length - 1;
+
+        int index = start;
+        boolean negative = false;
+        if (index < end && (text.charAt(index) == '-' || text.charAt(index) == '+')) {
+            negative = text.charAt(index) == '-';
+            index++;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int exponent = 0;
+        boolean anyDigit = false;
+        boolean fraction = false;
+        for (; index < end; index++) {
+            final char c = text.charAt(index);
+            if (c == '.' && !fraction) {
+                fraction = true;
+                continue;
+            }
+            if (c < '0' || c > '9') {
+                break;
+            }
+            anyDigit = true;
+            if (fraction) {
+                exponent--;
+            }
+            if (mantissa == 0 && c == '0') {
+                continue;
+            }
+            if (++digits > maxDigits) {
+                return Double.NaN;
+            }
+            mantissa = mantissa * 10 + (c - '0');
+        }
+        if (!anyDigit) {
+            return Double.NaN;
+        }
+        if (index < end && (text.charAt(index) == 'e' || text.charAt(index) == 'E')) {
+            index++;
+            boolean negativeExponent = false;
+            if (index < end && (text.charAt(index) == '-' || text.charAt(index) == '+')) {
+                negativeExponent = text.charAt(index) == '-';
+                index++;
+            }
+            int explicitExponent = 0;
+            final int exponentStart = index;
+            for (; index < end; index++) {
+                final char c = text.charAt(index);
+                if (c < '0' || c > '9') {
+                    break;
+                }
+                explicitExponent = explicitExponent * 10 + (c - '0');
+                if (explicitExponent > MAX_EXPLICIT_EXPONENT) {
+                    return Double.NaN;
+                }
+            }
+            if (index == exponentStart) {
+                return Double.NaN;
+            }
+            exponent += negativeExponent ? -explicitExponent : explicitExponent;
+        }
+        if (index != end) {
+            return Double.NaN;
+        }
+        if (mantissa == 0) {
+            return negative ? -0.0 : 0.0;
+        }
+        if (exponent > maxExponent || exponent < -maxExponent) {
+            return Double.NaN;
+        }
+        final double value;
+        if (asFloat) {
+            value = exponent >= 0 ? (float) mantissa * FLOAT_POWERS_OF_TEN[exponent] : (float) mantissa / FLOAT_POWERS_OF_TEN[-exponent];
+        } else {
+            value = exponent >= 0 ? mantissa * DOUBLE_POWERS_OF_TEN[exponent] : mantissa / DOUBLE_POWERS_OF_TEN[-exponent];
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * @return The exception of an invalid number.
+     */
+    private static ConverterException invalid(final String type, final CharSequence text, final int start, final int end, final boolean stackless) {
+        if (stackless && text instanceof String) {
+            return new InvalidNumberException(type, (String) text, start, end);
+        }
+        return StacklessConverterException.failure(InvalidNumberException.message(type, text, start, end), stackless);
+    }
+
+    /**
+     * Stackless exception of an invalid number which builds its message only when it's requested: the failures of the non-throwing
+     * parsing are often handled without reading the message. Only immutable input is referenced, so the message is the same whenever
+     * it's built.
+     */
+    private static final class InvalidNumberException extends StacklessConverterException {
+
+        /** @see java.io.Serializable */
+        private static final long serialVersionUID = 1L;
+
+        private final String type;
+        private final String text;
+        private final int start;
+        private final int end;
+
+        private InvalidNumberException(final String type, final String text, final int start, final int end) {
+            super(null);
+            this.type  = type;
+            this.text  = text;
+            this.start = start;
+            this.end   = end;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public String getMessage() {
+            return message(type, text, start, end);
+        }
+
+        static String message(final String type, final CharSequence text, final int start, final int end) {
+            return "Not a valid " + type + ": \"" + text.subSequence(start, end) + "\"";
+        }
+
+    }
+
+    /** Hidden constructor of the utility class to avoid the instantiation. */
+    private NumberParsers() {
+        throw new UnsupportedOperationException("This is a utility class.");
+    }
+
+}
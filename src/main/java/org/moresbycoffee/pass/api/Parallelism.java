@@ -0,0 +1,267 @@
+/*
+ * Moresby Coffee Bean
+ *
+ * Copyright (c) 2012, Barnabas Sudy (barnabas.sudy@gmail.com)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.moresbycoffee.pass.api;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <p>Configuration of the parallel conversion of the elements of collections and maps (see e.g.
+ * {@link Converters#convertList(Converter, Collection, Parallelism)}).</p>
+ *
+ * <p>If the collection has at least {@link #getThreshold() threshold} elements, they are split into {@link #getTasks() tasks}
+ * contiguous ranges. The first range is converted by the calling thread, the others by the executor, and the caller waits until
+ * all of them are finished. Smaller collections are converted sequentially on the calling thread.</p>
+ *
+ * <p>The result is the same as the result of the sequential conversion: the order of the elements is kept. If the conversion of
+ * several elements fails, the exception of the first failing element (in iteration order) is rethrown; the conversion of the elements
+ * after a known failure is skipped.</p>
+ *
+ * <p>The converters used in parallel have to be thread safe. The instances of this class are immutable and thread safe.</p>
+ *
+ * <p><strong>Warning:</strong> the calling thread blocks until the tasks are finished. If a converter running on a bounded executor
+ * starts a nested parallel conversion on the same executor, the pool threads may all wait for tasks queued behind them and the
+ * conversion deadlocks. Use a different executor (or an unbounded one) for the nested conversions.</p>
+ */
+public final class Parallelism {
+
+    /** The default minimum number of elements converted in parallel. */
+    public static final int DEFAULT_THRESHOLD = 10000;
+
+    /** Converts everything on the calling thread. */
+    public static final Parallelism SEQUENTIAL = new Parallelism(null, Integer.MAX_VALUE, 1);
+
+    /** The value of the failed index which stops every task. */
+    private static final int ABORTED = -1;
+
+    /** The executor running the tasks, <tt>null</tt> for {@link #SEQUENTIAL}. */
+    private final ExecutorService executor;
+
+    private final int threshold;
+
+    private final int tasks;
+
+    private Parallelism(final ExecutorService executor, final int threshold, final int tasks) {
+        this.executor  = executor;
+        this.threshold = threshold;
+        this.tasks     = tasks;
+    }
+
+    /**
+     * @param executor The executor running the tasks. (NonNull)
+     * @return Parallel configuration using the {@link #DEFAULT_THRESHOLD} and as many tasks as many processors are available. (NonNull)
+     */
+    public static Parallelism using(final ExecutorService executor) {
+        if (executor == null) {
+            throw new IllegalArgumentException("The executor can't be null.");
+        }
+        return new Parallelism(executor, DEFAULT_THRESHOLD, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param newThreshold The minimum number of elements converted in parallel.
+     * @return A copy of this configuration with the new threshold. (NonNull)
+     */
+    public Parallelism withThreshold(final int newThreshold) {
+        if (newThreshold < 1) {
+            throw new IllegalArgumentException("The threshold has to be positive: " + newThreshold);
+        }
+        return new Parallelism(executor, newThreshold, tasks);
+    }
+
+    /**
+     * @param newTasks The number of tasks (ranges of elements) a parallel conversion is split into.
+     * @return A copy of this configuration with the new number of tasks. (NonNull)
+     */
+    public Parallelism withTasks(final int newTasks) {
+        if (newTasks < 1) {
+            throw new IllegalArgumentException("The number of tasks has to be positive: " + newTasks);
+        }
+        return new Parallelism(executor, threshold, newTasks);
+    }
+
+    /** @return The minimum number of elements converted in parallel. */
+    public int getThreshold() {
+        return threshold;
+    }
+
+    /** @return The number of tasks a parallel conversion is split into. */
+    public int getTasks() {
+        return tasks;
+    }
+
+    /**
+     * Converts the elements of the collection, in parallel if the collection is large enough.
+     *
+     * @param converter The converter of the elements. It has to be thread safe. (NonNull)
+     * @param from The elements. (NonNull)
+     * @return The converted elements in the iteration order of the collection, in a list of the exact size. (NonNull)
+     * @throws ConverterException The exception of the first failing element.
+     */
+    public <F, T> ArrayList<T> convert(final Converter<F, T> converter, final Collection<? extends F> from) throws ConverterException {
+        final int size = from.size();
+        final ArrayList<T> result = new ArrayList<T>(size);
+        if (!isParallel(size)) {
+            for (final F item : from) {
+                result.add(converter.convert(item));
+            }
+            return result;
+        }
+        final Object[] items = from.toArray();
+        final Object[] converted = new Object[items.length];
+        convertInParallel(converter, items, converted);
+        for (final Object item : converted) {
+            @SuppressWarnings("unchecked")
+            final T value = (T) item;
+            result.add(value);
+        }
+        return result;
+    }
+
+    /**
+     * @param size The number of the elements.
+     * @return <tt>true</tt> if that many elements are converted in parallel, <tt>false</tt> if they are converted on the calling thread.
+     */
+    boolean isParallel(final int size) {
+        return executor != null && size >= threshold && tasks > 1;
+    }
+
+    private <F, T> void convertInParallel(final Converter<F, T> converter, final Object[] items, final Object[] results) {
+        final int taskCount = Math.min(tasks, items.length);
+        final AtomicInteger failedIndex = new AtomicInteger(Integer.MAX_VALUE);
+        final List<Future<Void>> futures = new ArrayList<Future<Void>>(taskCount - 1);
+        Throwable firstFailure = null;
+        try {
+            for (int task = 1; task < taskCount; task++) {
+                futures.add(executor.submit(new RangeTask<F, T>(converter, items, results, start(task, taskCount, items.length),
+                                                                start(task + 1, taskCount, items.length), failedIndex)));
+            }
+            new RangeTask<F, T>(converter, items, results, 0, start(1, taskCount, items.length), failedIndex).call();
+        } catch (final Throwable e) {
+            /* The failure of the first range or of a submission: the submitted tasks are stopped before the next element. */
+            firstFailure = e;
+            failedIndex.set(ABORTED);
+        }
+        try {
+            for (final Future<Void> future : futures) {
+                try {
+                    future.get();
+                } catch (final ExecutionException e) {
+                    if (firstFailure == null) {
+                        firstFailure = e.getCause();
+                    }
+                }
+            }
+        } catch (final InterruptedException e) {
+            failedIndex.set(ABORTED);
+            for (final Future<Void> future : futures) {
+                future.cancel(true);
+            }
+            Thread.currentThread().interrupt();
+            throw new ConverterException("The parallel conversion was interrupted.", e);
+        }
+        if (firstFailure != null) {
+            throw unwrap(firstFailure);
+        }
+    }
+
+    /** @return The index of the first element of the task. */
+    private static int start(final int task, final int taskCount, final int size) {
+        return (int) ((long) size * task / taskCount);
+    }
+
+    /** @return The exception to be thrown for the failure of a task. The errors are rethrown, checked exceptions are wrapped. */
+    private static RuntimeException unwrap(final Throwable cause) {
+        if (cause instanceof RuntimeException) {
+            return (RuntimeException) cause;
+        }
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        return new ConverterException(cause);
+    }
+
+    /**
+     * Converts a range of the elements. Stops at the first failure or if an element before the current one failed.
+     */
+    private static final class RangeTask<F, T> implements Callable<Void> {
+
+        private final Converter<F, T> converter;
+        private final Object[] items;
+        private final Object[] results;
+        private final int start;
+        private final int end;
+        private final AtomicInteger failedIndex;
+
+        private RangeTask(final Converter<F, T> converter, final Object[] items, final Object[] results, final int start, final int end,
+                          final AtomicInteger failedIndex) {
+            this.converter   = converter;
+            this.items       = items;
+            this.results     = results;
+            this.start       = start;
+            this.end         = end;
+            this.failedIndex = failedIndex;
+        }
+
+        @Override
+        public Void call() {
+            for (int i = start; i < end; i++) {
+                if (i > failedIndex.get()) {
+                    return null;
+                }
+                try {
+                    @SuppressWarnings("unchecked")
+                    final F item = (F) items[i];
+                    results[i] = converter.convert(item);
+                } catch (final RuntimeException | Error e) {
+                    int failed;
+                    do {
+                        failed = failedIndex.get();
+                    } while (i < failed && !failedIndex.compareAndSet(failed, i));
+                    throw e;
+                }
+            }
+            return null;
+        }
+
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String toString() {
+        return executor == null ? "Parallelism[sequential]" : "Parallelism[threshold=" + threshold + ", tasks=" + tasks + "]";
+    }
+
+}
@@ -0,0 +1,844 @@
+/*
+ * Moresby Coffee Bean
+ *
+ * Copyright (c) 2012, Barnabas Sudy (barnabas.sudy@gmail.com)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.moresbycoffee.pass.api;
+
+/**
+ * <p>Primitive specialized siblings of the {@link Converter} interface and their adapters.</p>
+ *
+ * <p>A <tt>ToXxx</tt> interface converts an object to a primitive value, a <tt>FromXxx</tt> interface converts a primitive value to an object,
+ * so a chain of them can pass the intermediate values without boxing. The <tt>XxxConverter</tt> adapters implement both the primitive
+ * interface and the {@link Converter} interface (the latter by boxing), so they can be used anywhere a {@link Converter} is needed.
+ * The boxed {@link Converter#convert(Object)} method of the adapters returns <tt>null</tt> for <tt>null</tt> input.</p>
+ *
+ * <p>{@link Converters#chain(Converter, Converter)} recognizes the primitive interfaces and {@link #fuse(Converter, Converter) fuses} the
+ * matching converters, e.g. <tt>chain(STRING_TO_LONG, TIMESTAMP_TO_DATE)</tt> passes a <tt>long</tt> between the two converters.
+ * A class implementing a primitive interface and the {@link Converter} interface has to return the same value from both.</p>
+ */
+public final class PrimitiveConverters {
+
+    /**
+     * Converts an object to a <tt>int</tt> value.
+     *
+     * @param <F> The type of the input.
+     */
+    public interface ToInt<F> {
+
+        /**
+         * Converts the <tt>from</tt> value.
+         *
+         * @param from The value to be converted. (NonNull)
+         * @return The converted value.
+         * @throws ConverterException If any error occurs during the conversion.
+         */
+        int toInt(F from) throws ConverterException;
+    }
+
+    /**
+     * Converts a <tt>int</tt> value to an object.
+     *
+     * @param <T> The type of the output.
+     */
+    public interface FromInt<T> {
+
+        /**
+         * Converts the <tt>value</tt>.
+         *
+         * @param value The value to be converted.
+         * @return The converted object.
+         * @throws ConverterException If any error occurs during the conversion.
+         */
+        T fromInt(int value) throws ConverterException;
+    }
+
+    /**
+     * Converts an object to a <tt>long</tt> value.
+     *
+     * @param <F> The type of the input.
+     */
+    public interface ToLong<F> {
+
+        /**
+         * Converts the <tt>from</tt> value.
+         *
+         * @param from The value to be converted. (NonNull)
+         * @return The converted value.
+         * @throws ConverterException If any error occurs during the conversion.
+         */
+        long toLong(F from) throws ConverterException;
+    }
+
+    /**
+     * Converts a <tt>long</tt> value to an object.
+     *
+     * @param <T> The type of the output.
+     */
+    public interface FromLong<T> {
+
+        /**
+         * Converts the <tt>value</tt>.
+         *
+         * @param value The value to be converted.
+         * @return The converted object.
+         * @throws ConverterException If any error occurs during the conversion.
+         */
+        T fromLong(long value) throws ConverterException;
+    }
+
+    /**
+     * Converts an object to a <tt>double</tt> value.
+     *
+     * @param <F> The type of the input.
+     */
+    public interface ToDouble<F> {
+
+        /**
+         * Converts the <tt>from</tt> value.
+         *
+         * @param from The value to be converted. (NonNull)
+         * @return The converted value.
+         * @throws ConverterException If any error occurs during the conversion.
+         */
+        double toDouble(F from) throws ConverterException;
+    }
+
+    /**
+     * Converts a <tt>double</tt> value to an object.
+     *
+     * @param <T> The type of the output.
+     */
+    public interface FromDouble<T> {
+
+        /**
+         * Converts the <tt>value</tt>.
+         *
+         * @param value The value to be converted.
+         * @return The converted object.
+         * @throws ConverterException If any error occurs during the conversion.
+         */
+        T fromDouble(double value) throws ConverterException;
+    }
+
+    /**
+     * Converts an object to a <tt>float</tt> value.
+     *
+     * @param <F> The type of the input.
+     */
+    public interface ToFloat<F> {
+
+        /**
+         * Converts the <tt>from</tt> value.
+         *
+         * @param from The value to be converted. (NonNull)
+         * @return The converted value.
+         * @throws ConverterException If any error occurs during the conversion.
+         */
+        float toFloat(F from) throws ConverterException;
+    }
+
+    /**
+     * Converts a <tt>float</tt> value to an object.
+     *
+     * @param <T> The type of the output.
+     */
+    public interface FromFloat<T> {
+
+        /**
+         * Converts the <tt>value</tt>.
+         *
+         * @param value The value to be converted.
+         * @return The converted object.
+         * @throws ConverterException If any error occurs during the conversion.
+         */
+        T fromFloat(float value) throws ConverterException;
+    }
+
+    /**
+     * Converts an object to a <tt>boolean</tt> value.
+     *
+     * @param <F> The type of the input.
+     */
+    public interface ToBoolean<F> {
+
+        /**
+         * Converts the <tt>from</tt> value.
+         *
+         * @param from The value to be converted. (NonNull)
+         * @return The converted value.
+         * @throws ConverterException If any error occurs during the conversion.
+         */
+        boolean toBoolean(F from) throws ConverterException;
+    }
+
+    /**
+     * Converts a <tt>boolean</tt> value to an object.
+     *
+     * @param <T> The type of the output.
+     */
+    public interface FromBoolean<T> {
+
+        /**
+         * Converts the <tt>value</tt>.
+         *
+         * @param value The value to be converted.
+         * @return The converted object.
+         * @throws ConverterException If any error occurs during the conversion.
+         */
+        T fromBoolean(boolean value) throws ConverterException;
+    }
+
+    /** Converts a <tt>long</tt> value to an <tt>int</tt> value. */
+    public interface LongToInt {
+
+        /**
+         * Converts the <tt>value</tt>.
+         *
+         * @param value The value to be converted.
+         * @return The converted value.
+         * @throws ConverterException If any error occurs during the conversion.
+         */
+        int longToInt(long value) throws ConverterException;
+    }
+
+    /**
+     * Adapter of the {@link ToInt} interface to the {@link Converter} interface.
+     *
+     * @param <F> The type of the input.
+     */
+    public abstract static class ToIntConverter<F> implements TryConverter<F, Integer>, ToInt<F> {
+
+        /** {@inheritDoc} */
+        @Override
+        public final Integer convert(final F from) throws ConverterException {
+            if (from == null) {
+                return null;
+            }
+            return Integer.valueOf(toInt(from));
+        }
+
+        /**
+         * {@inheritDoc}
+         *
+         * <p>Catches the {@link ConverterException} of {@link #toInt(Object)}. The converters which can detect an invalid input without a
+         * stack trace override it.</p>
+         */
+        @Override
+        public ConversionResult<Integer> tryConvert(final F from) {
+            try {
+                return ConversionResult.success(convert(from));
+            } catch (final ConverterException e) {
+                return ConversionResult.failure(e);
+            }
+        }
+
+    }
+
+    /**
+     * Adapter of the {@link FromInt} interface to the {@link Converter} interface.
+     *
+     * @param <T> The type of the output.
+     */
+    public abstract static class FromIntConverter<T> implements Converter<Integer, T>, FromInt<T> {
+
+        /** {@inheritDoc} */
+        @Override
+        public final T convert(final Integer from) throws ConverterException {
+            if (from == null) {
+                return null;
+            }
+            return fromInt(from.intValue());
+        }
+
+    }
+
+    /**
+     * Adapter of the {@link ToLong} interface to the {@link Converter} interface.
+     *
+     * @param <F> The type of the input.
+     */
+    public abstract static class ToLongConverter<F> implements TryConverter<F, Long>, ToLong<F> {
+
+        /** {@inheritDoc} */
+        @Override
+        public final Long convert(final F from) throws ConverterException {
+            if (from == null) {
+                return null;
+            }
+            return Long.valueOf(toLong(from));
+        }
+
+        /**
+         * {@inheritDoc}
+         *
+         * <p>Catches the {@link ConverterException} of {@link #toLong(Object)}. The converters which can detect an invalid input without a
+         * stack trace override it.</p>
+         */
+        @Override
+        public ConversionResult<Long> tryConvert(final F from) {
+            try {
+                return ConversionResult.success(convert(from));
+            } catch (final ConverterException e) {
+                return ConversionResult.failure(e);
+            }
+        }
+
+    }
+
+    /**
+     * Adapter of the {@link FromLong} interface to the {@link Converter} interface.
+     *
+     * @param <T> The type of the output.
+     */
+    public abstract static class FromLongConverter<T> implements Converter<Long, T>, FromLong<T> {
+
+        /** {@inheritDoc} */
+        @Override
+        public final T convert(final Long from) throws ConverterException {
+            if (from == null) {
+                return null;
+            }
+            return fromLong(from.longValue());
+        }
+
+    }
+
+    /**
+     * Adapter of the {@link ToDouble} interface to the {@link Converter} interface.
+     *
+     * @param <F> The type of the input.
+     */
+    public abstract static class ToDoubleConverter<F> implements TryConverter<F, Double>, ToDouble<F> {
+
+        /** {@inheritDoc} */
+        @Override
+        public final Double convert(final F from) throws ConverterException {
+            if (from == null) {
+                return null;
+            }
+            return Double.valueOf(toDouble(from));
+        }
+
+        /**
+         * {@inheritDoc}
+         *
+         * <p>Catches the {@link ConverterException} of {@link #toDouble(Object)}.</p>
+         */
+        @Override
+        public ConversionResult<Double> tryConvert(final F from) {
+            try {
+                return ConversionResult.success(convert(from));
+            } catch (final ConverterException e) {
+                return ConversionResult.failure(e);
+            }
+        }
+
+    }
+
+    /**
+     * Adapter of the {@link FromDouble} interface to the {@link Converter} interface.
+     *
+     * @param <T> The type of the output.
+     */
+    public abstract static class FromDoubleConverter<T> implements Converter<Double, T>, FromDouble<T> {
+
+        /** {@inheritDoc} */
+        @Override
+        public final T convert(final Double from) throws ConverterException {
+            if (from == null) {
+                return null;
+            }
+            return fromDouble(from.doubleValue());
+        }
+
+    }
+
+    /**
+     * Adapter of the {@link ToFloat} interface to the {@link Converter} interface.
+     *
+     * @param <F> The type of the input.
+     */
+    public abstract static class ToFloatConverter<F> implements TryConverter<F, Float>, ToFloat<F> {
+
+        /** {@inheritDoc} */
+        @Override
+        public final Float convert(final F from) throws ConverterException {
+            if (from == null) {
+                return null;
+            }
+            return Float.valueOf(toFloat(from));
+        }
+
+        /**
+         * {@inheritDoc}
+         *
+         * <p>Catches the {@link ConverterException} of {@link #toFloat(Object)}.</p>
+         */
+        @Override
+        public ConversionResult<Float> tryConvert(final F from) {
+            try {
+                return ConversionResult.success(convert(from));
+            } catch (final ConverterException e) {
+                return ConversionResult.failure(e);
+            }
+        }
+
+    }
+
+    /**
+     * Adapter of the {@link FromFloat} interface to the {@link Converter} interface.
+     *
+     * @param <T> The type of the output.
+     */
+    public abstract static class FromFloatConverter<T> implements Converter<Float, T>, FromFloat<T> {
+
+        /** {@inheritDoc} */
+        @Override
+        public final T convert(final Float from) throws ConverterException {
+            if (from == null) {
+                return null;
+            }
+            return fromFloat(from.floatValue());
+        }
+
+    }
+
+    /**
+     * Adapter of the {@link ToBoolean} interface to the {@link Converter} interface.
+     *
+     * @param <F> The type of the input.
+     */
+    public abstract static class ToBooleanConverter<F> implements Converter<F, Boolean>, ToBoolean<F> {
+
+        /** {@inheritDoc} */
+        @Override
+        public final Boolean convert(final F from) throws ConverterException {
+            if (from == null) {
+                return null;
+            }
+            return Boolean.valueOf(toBoolean(from));
+        }
+
+    }
+
+    /**
+     * Adapter of the {@link FromBoolean} interface to the {@link Converter} interface.
+     *
+     * @param <T> The type of the output.
+     */
+    public abstract static class FromBooleanConverter<T> implements Converter<Boolean, T>, FromBoolean<T> {
+
+        /** {@inheritDoc} */
+        @Override
+        public final T convert(final Boolean from) throws ConverterException {
+            if (from == null) {
+                return null;
+            }
+            return fromBoolean(from.booleanValue());
+        }
+
+    }
+
+    /** Adapter of the {@link LongToInt} interface to the {@link Converter} interface. */
+    public abstract static class LongToIntConverter implements Converter<Long, Integer>, LongToInt {
+
+        /** {@inheritDoc} */
+        @Override
+        public final Integer convert(final Long from) throws ConverterException {
+            if (from == null) {
+                return null;
+            }
+            return Integer.valueOf(longToInt(from.longValue()));
+        }
+
+    }
+
+    /**
+     * <p>Fuses two converters into one which passes the intermediate value as a primitive if the converters implement the matching
+     * primitive interfaces:</p>
+     * <ul>
+     *   <li><tt>ToXxx</tt> + <tt>FromXxx</tt> gives a {@link Converter},</li>
+     *   <li>{@link ToLong} + {@link LongToInt} gives a {@link ToIntConverter},</li>
+     *   <li>{@link LongToInt} + {@link FromInt} gives a {@link FromLongConverter}.</li>
+     * </ul>
+     * <p>The fused converter returns <tt>null</tt> for <tt>null</tt> input.</p>
+     *
+     * @param c1 The first converter.
+     * @param c2 The second converter.
+     * @return The fused converter or <tt>null</tt> if the converters can't be fused. (Nullable)
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public static <F, T> Converter<F, T> fuse(final Converter<F, ?> c1, final Converter<?, ? extends T> c2) {
+        if (c1 instanceof ToLong && c2 instanceof LongToInt) {
+            return (Converter<F, T>) new LongToIntFusion((ToLong) c1, (LongToInt) c2);
+        }
+        if (c1 instanceof LongToInt && c2 instanceof FromInt) {
+            return (Converter<F, T>) new IntFromLongFusion((LongToInt) c1, (FromInt) c2);
+        }
+        if (c1 instanceof ToInt && c2 instanceof FromInt) {
+            return new IntFusion((ToInt) c1, (FromInt) c2);
+        }
+        if (c1 instanceof ToLong && c2 instanceof FromLong) {
+            return new LongFusion((ToLong) c1, (FromLong) c2);
+        }
+        if (c1 instanceof ToDouble && c2 instanceof FromDouble) {
+            return new DoubleFusion((ToDouble) c1, (FromDouble) c2);
+        }
+        if (c1 instanceof ToFloat && c2 instanceof FromFloat) {
+            return new FloatFusion((ToFloat) c1, (FromFloat) c2);
+        }
+        if (c1 instanceof ToBoolean && c2 instanceof FromBoolean) {
+            return new BooleanFusion((ToBoolean) c1, (FromBoolean) c2);
+        }
+        return null;
+    }
+
+    /**
+     * Tells whether the converter is known to convert <tt>null</tt> to <tt>null</tt>: the adapters of this class, the fused
+     * converters and the {@link FlatChain}s built from such converters.
+     *
+     * @param converter The converter. (NonNull)
+     * @return <tt>true</tt> if the converter returns <tt>null</tt> for <tt>null</tt> input.
+     */
+    static boolean preservesNull(final Converter<?, ?> converter) {
+        return converter instanceof ToIntConverter || converter instanceof FromIntConverter
+            || converter instanceof ToLongConverter || converter instanceof FromLongConverter
+            || converter instanceof ToDoubleConverter || converter instanceof FromDoubleConverter
+            || converter instanceof ToFloatConverter || converter instanceof FromFloatConverter
+            || converter instanceof ToBooleanConverter || converter instanceof FromBooleanConverter
+            || converter instanceof LongToIntConverter
+            || converter instanceof IntFusion || converter instanceof LongFusion || converter instanceof DoubleFusion
+            || converter instanceof FloatFusion || converter instanceof BooleanFusion
+            || converter instanceof FlatChain && ((FlatChain<?, ?>) converter).preservesNull();
+    }
+
+    /** Chain of a {@link ToInt} and a {@link FromInt} converter passing a <tt>int</tt> between them. */
+    private static final class IntFusion<F, T> implements TryConverter<F, T> {
+
+        private final ToInt<F> first;
+        private final FromInt<? extends T> second;
+
+        IntFusion(final ToInt<F> first, final FromInt<? extends T> second) {
+            this.first  = first;
+            this.second = second;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public T convert(final F from) throws ConverterException {
+            if (from == null) {
+                return null;
+            }
+            return second.fromInt(first.toInt(from));
+        }
+
+        /**
+         * {@inheritDoc}
+         *
+         * <p>Calls the {@link TryConverter#tryConvert(Object)} method of the first converter if it has one and stops at its failure.</p>
+         */
+        @Override
+        public ConversionResult<T> tryConvert(final F from) {
+            if (from == null) {
+                return ConversionResult.success(null);
+            }
+            try {
+                final int value;
+                if (first instanceof ToIntConverter) {
+                    final ConversionResult<Integer> result = ((ToIntConverter<F>) first).tryConvert(from);
+                    if (!result.isSuccess()) {
+                        return result.asFailure();
+                    }
+                    value = result.get();
+                } else {
+                    value = first.toInt(from);
+                }
+                return ConversionResult.<T>success(second.fromInt(value));
+            } catch (final ConverterException e) {
+                return ConversionResult.failure(e);
+            }
+        }
+
+    }
+
+    /** Chain of a {@link ToLong} and a {@link FromLong} converter passing a <tt>long</tt> between them. */
+    private static final class LongFusion<F, T> implements TryConverter<F, T> {
+
+        private final ToLong<F> first;
+        private final FromLong<? extends T> second;
+
+        LongFusion(final ToLong<F> first, final FromLong<? extends T> second) {
+            this.first  = first;
+            this.second = second;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public T convert(final F from) throws ConverterException {
+            if (from == null) {
+                return null;
+            }
+            return second.fromLong(first.toLong(from));
+        }
+
+        /**
+         * {@inheritDoc}
+         *
+         * <p>Calls the {@link TryConverter#tryConvert(Object)} method of the first converter if it has one and stops at its failure.</p>
+         */
+        @Override
+        public ConversionResult<T> tryConvert(final F from) {
+            if (from == null) {
+                return ConversionResult.success(null);
+            }
+            try {
+                final long value;
+                if (first instanceof ToLongConverter) {
+                    final ConversionResult<Long> result = ((ToLongConverter<F>) first).tryConvert(from);
+                    if (!result.isSuccess()) {
+                        return result.asFailure();
+                    }
+                    value = result.get();
+                } else {
+                    value = first.toLong(from);
+                }
+                return ConversionResult.<T>success(second.fromLong(value));
+            } catch (final ConverterException e) {
+                return ConversionResult.failure(e);
+            }
+        }
+
+    }
+
+    /** Chain of a {@link ToDouble} and a {@link FromDouble} converter passing a <tt>double</tt> between them. */
+    private static final class DoubleFusion<F, T> implements TryConverter<F, T> {
+
+        private final ToDouble<F> first;
+        private final FromDouble<? extends T> second;
+
+        DoubleFusion(final ToDouble<F> first, final FromDouble<? extends T> second) {
+            this.first  = first;
+            this.second = second;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public T convert(final F from) throws ConverterException {
+            if (from == null) {
+                return null;
+            }
+            return second.fromDouble(first.toDouble(from));
+        }
+
+        /**
+         * {@inheritDoc}
+         *
+         * <p>Calls the {@link TryConverter#tryConvert(Object)} method of the first converter if it has one and stops at its failure.</p>
+         */
+        @Override
+        public ConversionResult<T> tryConvert(final F from) {
+            if (from == null) {
+                return ConversionResult.success(null);
+            }
+            try {
+                final double value;
+                if (first instanceof ToDoubleConverter) {
+                    final ConversionResult<Double> result = ((ToDoubleConverter<F>) first).tryConvert(from);
+                    if (!result.isSuccess()) {
+                        return result.asFailure();
+                    }
+                    value = result.get();
+                } else {
+                    value = first.toDouble(from);
+                }
+                return ConversionResult.<T>success(second.fromDouble(value));
+            } catch (final ConverterException e) {
+                return ConversionResult.failure(e);
+            }
+        }
+
+    }
+
+    /** Chain of a {@link ToFloat} and a {@link FromFloat} converter passing a <tt>float</tt> between them. */
+    private static final class FloatFusion<F, T> implements TryConverter<F, T> {
+
+        private final ToFloat<F> first;
+        private final FromFloat<? extends T> second;
+
+        FloatFusion(final ToFloat<F> first, final FromFloat<? extends T> second) {
+            this.first  = first;
+            this.second = second;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public T convert(final F from) throws ConverterException {
+            if (from == null) {
+                return null;
+            }
+            return second.fromFloat(first.toFloat(from));
+        }
+
+        /**
+         * {@inheritDoc}
+         *
+         * <p>Calls the {@link TryConverter#tryConvert(Object)} method of the first converter if it has one and stops at its failure.</p>
+         */
+        @Override
+        public ConversionResult<T> tryConvert(final F from) {
+            if (from == null) {
+                return ConversionResult.success(null);
+            }
+            try {
+                final float value;
+                if (first instanceof ToFloatConverter) {
+                    final ConversionResult<Float> result = ((ToFloatConverter<F>) first).tryConvert(from);
+                    if (!result.isSuccess()) {
+                        return result.asFailure();
+                    }
+                    value = result.get();
+                } else {
+                    value = first.toFloat(from);
+                }
+                return ConversionResult.<T>success(second.fromFloat(value));
+            } catch (final ConverterException e) {
+                return ConversionResult.failure(e);
+            }
+        }
+
+    }
+
+    /** Chain of a {@link ToBoolean} and a {@link FromBoolean} converter passing a <tt>boolean</tt> between them. */
+    private static final class BooleanFusion<F, T> implements TryConverter<F, T> {
+
+        private final ToBoolean<F> first;
+        private final FromBoolean<? extends T> second;
+
+        BooleanFusion(final ToBoolean<F> first, final FromBoolean<? extends T> second) {
+            this.first  = first;
+            this.second = second;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public T convert(final F from) throws ConverterException {
+            if (from == null) {
+                return null;
+            }
+            return second.fromBoolean(first.toBoolean(from));
+        }
+
+        /**
+         * {@inheritDoc}
+         *
+         * <p>Catches the {@link ConverterException} of the converters: the {@link ToBoolean} converters have no non-throwing method.</p>
+         */
+        @Override
+        public ConversionResult<T> tryConvert(final F from) {
+            if (from == null) {
+                return ConversionResult.success(null);
+            }
+            try {
+                return ConversionResult.<T>success(second.fromBoolean(first.toBoolean(from)));
+            } catch (final ConverterException e) {
+                return ConversionResult.failure(e);
+            }
+        }
+
+    }
+
+    /** Chain of a {@link ToLong} and a {@link LongToInt} converter. */
+    private static final class LongToIntFusion<F> extends ToIntConverter<F> {
+
+        private final ToLong<F> first;
+        private final LongToInt second;
+
+        LongToIntFusion(final ToLong<F> first, final LongToInt second) {
+            this.first  = first;
+            this.second = second;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public int toInt(final F from) throws ConverterException {
+            return second.longToInt(first.toLong(from));
+        }
+
+        /**
+         * {@inheritDoc}
+         *
+         * <p>Calls the {@link TryConverter#tryConvert(Object)} method of the first converter if it has one and stops at its failure.</p>
+         */
+        @Override
+        public ConversionResult<Integer> tryConvert(final F from) {
+            if (from == null) {
+                return ConversionResult.success(null);
+            }
+            try {
+                final long value;
+                if (first instanceof ToLongConverter) {
+                    final ConversionResult<Long> result = ((ToLongConverter<F>) first).tryConvert(from);
+                    if (!result.isSuccess()) {
+                        return result.asFailure();
+                    }
+                    value = result.get();
+                } else {
+                    value = first.toLong(from);
+                }
+                return ConversionResult.success(Integer.valueOf(second.longToInt(value)));
+            } catch (final ConverterException e) {
+                return ConversionResult.failure(e);
+            }
+        }
+
+    }
+
+    /** Chain of a {@link LongToInt} and a {@link FromInt} converter. */
+    private static final class IntFromLongFusion<T> extends FromLongConverter<T> {
+
+        private final LongToInt first;
+        private final FromInt<? extends T> second;
+
+        IntFromLongFusion(final LongToInt first, final FromInt<? extends T> second) {
+            this.first  = first;
+            this.second = second;
+        }
+
+        /** {@inheritDoc} */
+        @Override
+        public T fromLong(final long value) throws ConverterException {
+            return second.fromInt(first.longToInt(value));
+        }
+
+    }
+
+    /** Hidden constructor of the utility class to avoid the instantiation. */
+    private PrimitiveConverters() {
+        throw new UnsupportedOperationException("This is a utility class.");
+    }
+
+}
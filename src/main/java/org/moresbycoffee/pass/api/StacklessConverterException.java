@@ -0,0 +1,79 @@
+/*
+ * Moresby Coffee Bean
+ *
+ * Copyright (c) 2012, Barnabas Sudy (barnabas.sudy@gmail.com)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.moresbycoffee.pass.api;
+
+/**
+ * <p>{@link ConverterException} without a stack trace. Creating it costs about the same as creating any small object, while filling in
+ * the stack trace of a normal exception walks the whole stack, which is usually much more expensive than the failed conversion.</p>
+ *
+ * <p>The built-in converters and the {@link org.moresbycoffee.pass.ConverterContext} throw this exception for the invalid inputs and the
+ * unsupported conversions if the <tt>{@value #PROPERTY}</tt> system property is <tt>true</tt> (see {@link #failure(String)}). The
+ * non-throwing {@link TryConverter#tryConvert(Object)} paths use it internally regardless of the property.</p>
+ */
+public class StacklessConverterException extends ConverterException {
+
+    /** The name of the system property which turns on the stackless exceptions of the built-in converters. */
+    public static final String PROPERTY = "org.moresbycoffee.pass.stacklessExceptions";
+
+    /** <tt>true</tt> if the built-in converters throw stackless exceptions. Read from the {@value #PROPERTY} system property once. */
+    public static final boolean ENABLED = Boolean.getBoolean(PROPERTY);
+
+    /** @see java.io.Serializable */
+    private static final long serialVersionUID = 1L;
+
+    public StacklessConverterException(final String message) {
+        super(message, null, false, false);
+    }
+
+    public StacklessConverterException(final String message, final Throwable cause) {
+        super(message, cause, false, false);
+    }
+
+    /**
+     * Creates the exception of a routine failure (e.g. an invalid input).
+     *
+     * @param message The message. (NonNull)
+     * @return A {@link StacklessConverterException} if the stackless exceptions are {@link #ENABLED}, a {@link ConverterException} otherwise. (NonNull)
+     */
+    public static ConverterException failure(final String message) {
+        return failure(message, ENABLED);
+    }
+
+    /**
+     * Creates the exception of a routine failure (e.g. an invalid input).
+     *
+     * @param message The message. (NonNull)
+     * @param stackless <tt>true</tt> if the exception shouldn't have a stack trace.
+     * @return A {@link StacklessConverterException} if <tt>stackless</tt> is <tt>true</tt>, a {@link ConverterException} otherwise. (NonNull)
+     */
+    public static ConverterException failure(final String message, final boolean stackless) {
+        return stackless ? new StacklessConverterException(message) : new ConverterException(message);
+    }
+
+}
@@ -0,0 +1,365 @@
+/*
+ * Moresby Coffee Bean
+ *
+ * Copyright (c) 2012, Barnabas Sudy (barnabas.sudy@gmail.com)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.moresbycoffee.pass.api;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.util.Iterator;
+
+import com.google.common.collect.AbstractIterator;
+
+/**
+ * <p>Splits a stream of characters around a literal delimiter and returns the tokens through an {@link Iterator}. The input is
+ * read incrementally when the iterator advances, so the memory used doesn't depend on the size of the input, only on the size of
+ * the buffer and the longest token.</p>
+ *
+ * <p>The input can be a {@link Reader} (this is the source type of the converter), a {@link CharBuffer} or a region of a
+ * {@link FileChannel}. The file is mapped into memory window by window and it is decoded directly from the mapped buffers.</p>
+ *
+ * <p>The tokens are the same as the tokens of {@link String#split(String)} with the quoted delimiter: trailing empty tokens aren't
+ * returned. The elements can be converted on the fly by {@link #elements(Converter)} or {@link Converters#convertIterator(Converter, Iterator)},
+ * e.g. <tt>StreamingSplitter.of("\n").elements(Converters.STRING_TO_LONG)</tt>.</p>
+ *
+ * <p>Only literal delimiters are supported, because a regular expression could need unbounded look ahead.</p>
+ *
+ * <p>The splitter is immutable and thread safe, the iterators aren't. An {@link IOException} of the input is thrown as a
+ * {@link ConverterException} by the iterator. The input isn't closed by the splitter.</p>
+ */
+public final class StreamingSplitter implements Converter<Reader, Iterator<String>> {
+
+    /** The default size of the character buffer of the iterators. */
+    public static final int DEFAULT_BUFFER_SIZE = 8192;
+
+    /** The maximal number of bytes mapped into memory at once from a file. */
+    private static final long MAPPING_WINDOW = 64L * 1024 * 1024;
+
+    private final char[] delimiter;
+
+    private final int bufferSize;
+
+    private StreamingSplitter(final String delimiter, final int bufferSize) {
+        if (delimiter.length() == 0) {
+            throw new IllegalArgumentException("The delimiter can't be empty.");
+        }
+        if (bufferSize <= delimiter.length()) {
+            throw new IllegalArgumentException("The buffer size has to be larger than the length of the delimiter: " + bufferSize);
+        }
+        this.delimiter  = delimiter.toCharArray();
+        this.bufferSize = bufferSize;
+    }
+
+    /**
+     * @param delimiter The literal delimiter. It isn't a regular expression. (NonNull)
+     * @return The splitter using the {@link #DEFAULT_BUFFER_SIZE}. (NonNull)
+     */
+    public static StreamingSplitter of(final String delimiter) {
+        return new StreamingSplitter(delimiter, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * @param delimiter The literal delimiter. It isn't a regular expression. (NonNull)
+     * @param bufferSize The number of characters read from the input at once.
+     * @return The splitter. (NonNull)
+     */
+    public static StreamingSplitter of(final String delimiter, final int bufferSize) {
+        return new StreamingSplitter(delimiter, bufferSize);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Same as {@link #split(Reader)}.</p>
+     */
+    @Override
+    public Iterator<String> convert(final Reader from) throws ConverterException {
+        if (from == null) {
+            return null;
+        }
+        return split(from);
+    }
+
+    /**
+     * Returns a converter which splits the input and converts the tokens by the element converter when the iterator advances.
+     *
+     * @param elementConverter The converter of the tokens. (NonNull)
+     * @return The converter. (NonNull)
+     */
+    public <T> Converter<Reader, Iterator<T>> elements(final Converter<? super String, ? extends T> elementConverter) {
+        return new Converter<Reader, Iterator<T>>() {
+
+            @Override
+            public Iterator<T> convert(final Reader from) throws ConverterException {
+                if (from == null) {
+                    return null;
+                }
+                return Converters.convertIterator(elementConverter, split(from));
+            }
+
+        };
+    }
+
+    /**
+     * @param reader The input. (NonNull)
+     * @return The iterator of the tokens, which reads the input lazily. (NonNull)
+     */
+    public Iterator<String> split(final Reader reader) {
+        return new Tokens(new CharSource() {
+            @Override
+            public int read(final char[] buffer, final int offset, final int length) throws IOException {
+                return reader.read(buffer, offset, length);
+            }
+        });
+    }
+
+    /**
+     * @param input The input from its position to its limit. The buffer itself isn't modified. (NonNull)
+     * @return The iterator of the tokens. (NonNull)
+     */
+    public Iterator<String> split(final CharBuffer input) {
+        final CharBuffer source = input.duplicate();
+        return new Tokens(new CharSource() {
+            @Override
+            public int read(final char[] buffer, final int offset, final int length) {
+                if (!source.hasRemaining()) {
+                    return -1;
+                }
+                final int count = Math.min(length, source.remaining());
+                source.get(buffer, offset, count);
+                return count;
+            }
+        });
+    }
+
+    /**
+     * Splits a region of the file. The file is mapped into memory lazily, in windows of at most 64MiB, so arbitrarily large files
+     * can be processed. The channel must stay open while the iterator is used.
+     *
+     * @param channel The channel of the file. It has to be readable. (NonNull)
+     * @param position The position of the first byte of the region in the file.
+     * @param size The number of bytes in the region.
+     * @param charset The encoding of the file. Malformed input is replaced like by the {@link String} constructors. (NonNull)
+     * @return The iterator of the tokens. (NonNull)
+     */
+    public Iterator<String> split(final FileChannel channel, final long position, final long size, final Charset charset) {
+        if (position < 0 || size < 0) {
+            throw new IllegalArgumentException("Invalid region: position " + position + ", size " + size);
+        }
+        return new Tokens(new MappedSource(channel, position, position + size, charset));
+    }
+
+    /**
+     * The source of the characters.
+     */
+    private interface CharSource {
+
+        /** Same contract as {@link Reader#read(char[], int, int)}. */
+        int read(char[] buffer, int offset, int length) throws IOException;
+
+    }
+
+    /**
+     * Decodes the region of the file from mapped windows. If a window ends within a multi-byte character, the next window starts
+     * at the first byte of the character.
+     */
+    private static final class MappedSource implements CharSource {
+
+        private final FileChannel channel;
+        private final long end;
+        private final CharsetDecoder decoder;
+
+        /** The position of the first byte of the current window in the file. */
+        private long windowStart;
+        private MappedByteBuffer window;
+        private boolean finished;
+
+        private MappedSource(final FileChannel channel, final long start, final long end, final Charset charset) {
+            this.channel     = channel;
+            this.end         = end;
+            this.windowStart = start;
+            this.decoder     = charset.newDecoder()
+                                      .onMalformedInput(CodingErrorAction.REPLACE)
+                                      .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        }
+
+        @Override
+        public int read(final char[] buffer, final int offset, final int length) throws IOException {
+            final CharBuffer out = CharBuffer.wrap(buffer, offset, length);
+            while (!finished && out.position() == offset) {
+                if (window == null) {
+                    window = channel.map(FileChannel.MapMode.READ_ONLY, windowStart, Math.min(end - windowStart, MAPPING_WINDOW));
+                }
+                final boolean last = windowStart + window.limit() == end;
+                final CoderResult result = decoder.decode(window, out, last);
+                if (result.isUnderflow()) {
+                    if (last) {
+                        finished = decoder.flush(out).isUnderflow();
+                    } else {
+                        windowStart += window.position();
+                        window = null;
+                    }
+                }
+            }
+            final int count = out.position() - offset;
+            return count == 0 && finished ? -1 : count;
+        }
+
+    }
+
+    /**
+     * The iterator of the tokens.
+     */
+    private final class Tokens extends AbstractIterator<String> {
+
+        private final CharSource source;
+        private final char[] buffer = new char[bufferSize];
+        /** The beginning of the unprocessed characters in the buffer. */
+        private int position;
+        /** The end of the valid characters in the buffer. */
+        private int limit;
+        private boolean endOfInput;
+        /** The beginning of the current token if it doesn't fit into the buffer. */
+        private final StringBuilder partial = new StringBuilder();
+
+        /** <tt>true</tt> if any delimiter was found, otherwise the only token is returned even if it's empty. */
+        private boolean delimiterFound;
+        /** <tt>true</tt> if the last token was read. */
+        private boolean exhausted;
+        /** The number of empty tokens which are returned only if a non-empty token follows them. */
+        private int pendingEmptyTokens;
+        /** The non-empty token following the pending empty tokens. */
+        private String heldToken;
+
+        private Tokens(final CharSource source) {
+            this.source = source;
+        }
+
+        @Override
+        protected String computeNext() {
+            if (heldToken != null) {
+                if (pendingEmptyTokens > 0) {
+                    pendingEmptyTokens--;
+                    return "";
+                }
+                final String token = heldToken;
+                heldToken = null;
+                return token;
+            }
+            while (!exhausted) {
+                final String token = readToken();
+                if (token.length() > 0) {
+                    if (pendingEmptyTokens > 0) {
+                        pendingEmptyTokens--;
+                        heldToken = token;
+                        return "";
+                    }
+                    return token;
+                }
+                if (!exhausted) {
+                    pendingEmptyTokens++;
+                } else if (!delimiterFound) {
+                    return token;
+                }
+            }
+            return endOfData();
+        }
+
+        /** @return The next token. Sets {@link #exhausted} if it is the last one. (NonNull) */
+        private String readToken() {
+            partial.setLength(0);
+            while (true) {
+                final int index = indexOfDelimiter();
+                if (index >= 0) {
+                    final String token = token(index);
+                    position = index + delimiter.length;
+                    delimiterFound = true;
+                    return token;
+                }
+                if (endOfInput) {
+                    final String token = token(limit);
+                    position = limit;
+                    exhausted = true;
+                    return token;
+                }
+                /* The end of the buffer can be the beginning of a delimiter, which is kept in the buffer. */
+                final int keep = Math.min(delimiter.length - 1, limit - position);
+                partial.append(buffer, position, limit - keep - position);
+                System.arraycopy(buffer, limit - keep, buffer, 0, keep);
+                position = 0;
+                limit = keep;
+                fill();
+            }
+        }
+
+        private String token(final int end) {
+            if (partial.length() == 0) {
+                return new String(buffer, position, end - position);
+            }
+            return partial.append(buffer, position, end - position).toString();
+        }
+
+        private void fill() {
+            try {
+                final int count = source.read(buffer, limit, buffer.length - limit);
+                if (count < 0) {
+                    endOfInput = true;
+                } else {
+                    limit += count;
+                }
+            } catch (final IOException e) {
+                throw new ConverterException("Failed to read the input.", e);
+            }
+        }
+
+        private int indexOfDelimiter() {
+            final char first = delimiter[0];
+            final int last = limit - delimiter.length;
+            outer:
+            for (int i = position; i <= last; i++) {
+                if (buffer[i] == first) {
+                    for (int j = 1; j < delimiter.length; j++) {
+                        if (buffer[i + j] != delimiter[j]) {
+                            continue outer;
+                        }
+                    }
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+    }
+
+}
@@ -0,0 +1,244 @@
+/*
+ * Moresby Coffee Bean
+ *
+ * Copyright (c) 2012, Barnabas Sudy (barnabas.sudy@gmail.com)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.moresbycoffee.pass.api;
+
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * <p>Splits strings around the matches of a regular expression, like {@link String#split(String)}, but the expression is compiled
+ * only once when the splitter is created.</p>
+ *
+ * <p>If the expression is a literal (e.g. <tt>","</tt>, <tt>"\\|"</tt> or <tt>"::"</tt>) the input is scanned for the delimiter
+ * directly, without the regular expression engine.</p>
+ *
+ * <p>Besides the {@link #convert(String)} method, which returns the same array as {@link String#split(String)}, the tokens can be
+ * retrieved as {@link CharSequence} views over the input by {@link #split(CharSequence)} or passed to a {@link TokenHandler} by
+ * {@link #split(CharSequence, TokenHandler)}. These don't copy the characters of the input, so only the tokens kept by the caller
+ * cost anything.</p>
+ *
+ * <p>The instances are immutable and thread safe.</p>
+ */
+public final class StringSplitter implements Converter<String, String[]> {
+
+    /**
+     * Callback receiving the tokens of the input one by one.
+     */
+    public interface TokenHandler {
+
+        /**
+         * Called for every token in order.
+         *
+         * @param input The split input. (NonNull)
+         * @param start The index of the first character of the token.
+         * @param end The index after the last character of the token. Same as <tt>start</tt> for an empty token.
+         * @throws ConverterException The exception stops the splitting and it is thrown by the split method.
+         */
+        void token(CharSequence input, int start, int end) throws ConverterException;
+
+    }
+
+    /** The characters which have special meaning in a regular expression. */
+    private static final String METACHARACTERS = ".$|()[]{}^?*+\\";
+
+    /** The delimiter if the expression is a literal, otherwise <tt>null</tt>. */
+    private final String literal;
+
+    /** The compiled expression if it isn't a literal, otherwise <tt>null</tt>. */
+    private final Pattern pattern;
+
+    private StringSplitter(final String literal, final Pattern pattern) {
+        this.literal = literal;
+        this.pattern = pattern;
+    }
+
+    /**
+     * @param regex The delimiting regular expression. (NonNull)
+     * @return The splitter. (NonNull)
+     * @throws java.util.regex.PatternSyntaxException If the expression's syntax is invalid.
+     */
+    public static StringSplitter of(final String regex) {
+        final String literal = toLiteral(regex);
+        return literal != null ? new StringSplitter(literal, null) : new StringSplitter(null, Pattern.compile(regex));
+    }
+
+    /**
+     * @return The delimiter if the expression is a literal or <tt>null</tt> if it has to be matched as a regular expression. (Nullable)
+     */
+    private static String toLiteral(final String regex) {
+        if (regex.length() == 2 && regex.charAt(0) == '\\' && !Character.isLetterOrDigit(regex.charAt(1)) && regex.charAt(1) < 0x80) {
+            return regex.substring(1);
+        }
+        if (regex.length() == 0) {
+            return null;
+        }
+        for (int i = 0; i < regex.length(); i++) {
+            if (METACHARACTERS.indexOf(regex.charAt(i)) >= 0) {
+                return null;
+            }
+        }
+        return regex;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>Returns the same array as <tt>from.split(regex)</tt>.</p>
+     */
+    @Override
+    public String[] convert(final String from) throws ConverterException {
+        if (from == null) {
+            return null;
+        }
+        if (pattern != null) {
+            return pattern.split(from);
+        }
+        final List<String> tokens = new ArrayList<String>();
+        scanLiteral(from, new TokenHandler() {
+            @Override
+            public void token(final CharSequence input, final int start, final int end) {
+                tokens.add(from.substring(start, end));
+            }
+        });
+        removeTrailingEmptyTokens(tokens);
+        return tokens.toArray(new String[tokens.size()]);
+    }
+
+    /**
+     * Splits the input into views. The views are {@link CharBuffer#wrap(CharSequence, int, int) read-only CharBuffers} over the input,
+     * so the characters aren't copied. The tokens are the same as the tokens of {@link String#split(String)}, trailing empty tokens
+     * aren't included.
+     *
+     * @param input The input. The views read it, so it shouldn't be modified while they are used. (NonNull)
+     * @return The views of the tokens. (NonNull)
+     */
+    public List<CharSequence> split(final CharSequence input) {
+        final List<CharSequence> tokens = new ArrayList<CharSequence>();
+        split(input, new TokenHandler() {
+            @Override
+            public void token(final CharSequence source, final int start, final int end) {
+                tokens.add(CharBuffer.wrap(source, start, end));
+            }
+        });
+        removeTrailingEmptyTokens(tokens);
+        return tokens;
+    }
+
+    /**
+     * Passes the tokens of the input to the handler without creating any object.
+     *
+     * <p>Unlike the other methods the handler receives the trailing empty tokens too (like <tt>String.split(regex, -1)</tt>),
+     * otherwise they would have to be buffered. The handler can simply skip the empty tokens if they aren't needed.</p>
+     *
+     * @param input The input. (NonNull)
+     * @param handler The handler of the tokens. (NonNull)
+     * @return The number of tokens passed to the handler.
+     * @throws ConverterException If the handler throws exception.
+     */
+    public int split(final CharSequence input, final TokenHandler handler) throws ConverterException {
+        return pattern != null ? scanPattern(input, handler) : scanLiteral(input, handler);
+    }
+
+    private int scanLiteral(final CharSequence input, final TokenHandler handler) throws ConverterException {
+        final int length = input.length();
+        final int delimiterLength = literal.length();
+        int count = 0;
+        int start = 0;
+        int match;
+        while ((match = indexOf(input, start)) >= 0) {
+            handler.token(input, start, match);
+            count++;
+            start = match + delimiterLength;
+        }
+        handler.token(input, start, length);
+        return count + 1;
+    }
+
+    /** @return The index of the next occurrence of the {@link #literal} from the <tt>from</tt> index or <tt>-1</tt>. */
+    private int indexOf(final CharSequence input, final int from) {
+        if (input instanceof String) {
+            return literal.length() == 1 ? ((String) input).indexOf(literal.charAt(0), from) : ((String) input).indexOf(literal, from);
+        }
+        final char first = literal.charAt(0);
+        final int last = input.length() - literal.length();
+        for (int i = from; i <= last; i++) {
+            if (input.charAt(i) == first && regionMatches(input, i)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private boolean regionMatches(final CharSequence input, final int offset) {
+        for (int i = 1; i < literal.length(); i++) {
+            if (input.charAt(offset + i) != literal.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int scanPattern(final CharSequence input, final TokenHandler handler) throws ConverterException {
+        final Matcher matcher = pattern.matcher(input);
+        int count = 0;
+        int start = 0;
+        while (matcher.find()) {
+            /* A zero-width match at the beginning doesn't produce a leading empty token (see Pattern#split). */
+            if (matcher.end() == 0) {
+                continue;
+            }
+            handler.token(input, start, matcher.start());
+            count++;
+            start = matcher.end();
+        }
+        handler.token(input, start, input.length());
+        return count + 1;
+    }
+
+    /** Removes the trailing empty tokens if the input was split, like {@link String#split(String)}. */
+    private static void removeTrailingEmptyTokens(final List<? extends CharSequence> tokens) {
+        if (tokens.size() == 1) {
+            return;
+        }
+        int size = tokens.size();
+        while (size > 0 && tokens.get(size - 1).length() == 0) {
+            tokens.remove(--size);
+        }
+    }
+
+    /** {@inheritDoc} */
+    @Override
+    public String toString() {
+        return "StringSplitter[" + (pattern != null ? pattern.pattern() : literal) + "]";
+    }
+
+}
@@ -0,0 +1,51 @@
+/*
+ * Moresby Coffee Bean
+ *
+ * Copyright (c) 2012, Barnabas Sudy (barnabas.sudy@gmail.com)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.moresbycoffee.pass.api;
+
+/**
+ * <p>{@link Converter} which can report an invalid input without throwing an exception.</p>
+ *
+ * <p>Use {@link Converters#tryConvert(Converter, Object)} to call any converter this way: it calls the {@link #tryConvert(Object)}
+ * method of the converters implementing this interface and catches the {@link ConverterException} of the others.</p>
+ *
+ * @param <F> The type of the object which the converter is able to convert <strong>from</strong>.
+ * @param <T> The type of the object which the converter is able to convert <strong>to</strong>.
+ */
+public interface TryConverter<F, T> extends Converter<F, T> {
+
+    /**
+     * Converts the <tt>from</tt> value like {@link #convert(Object)}, but returns the failure instead of throwing a
+     * {@link ConverterException}.
+     *
+     * @param from The value to be converted.
+     * @return The converted object or the description of the failure. (NonNull)
+     */
+    ConversionResult<T> tryConvert(F from);
+
+}
@@ -0,0 +1,383 @@
+/*
+ * Moresby Coffee Bean
+ *
+ * Copyright (c) 2012, Barnabas Sudy (barnabas.sudy@gmail.com)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.moresbycoffee.pass.api;
+
+import java.nio.Buffer;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+
+import com.google.common.base.Charsets;
+
+/**
+ * <p>UTF-8 encoder and decoder which writes into and reads from caller supplied <tt>byte[]</tt> regions and {@link ByteBuffer}s
+ * without intermediate arrays.</p>
+ *
+ * <p>The runs of ASCII characters are copied by a tight loop, the other characters are encoded by hand. The results are the same as the
+ * results of the JDK: unpaired surrogates are encoded as <tt>'?'</tt> (like {@link String#getBytes(java.nio.charset.Charset)}) and the
+ * malformed input is decoded by the JDK decoder, so it is replaced the same way as by {@link String#String(byte[], java.nio.charset.Charset)}.</p>
+ *
+ * <p>Large strings can be encoded in chunks by the {@link #encode(CharSequence, int, int, ByteBuffer)} method:</p>
+ * <pre>
+ * int index = 0;
+ * while (index &lt; text.length()) {
+ *     index = Utf8.encode(text, index, text.length(), buffer);
+ *     buffer.flip();
+ *     channel.write(buffer);
+ *     buffer.compact();
+ * }
+ * </pre>
+ */
+public final class Utf8 {
+
+    /** The byte written in place of an unpaired surrogate. */
+    private static final byte REPLACEMENT = (byte) '?';
+
+    private Utf8() {
+        throw new UnsupportedOperationException("This is a utility class.");
+    }
+
+    /**
+     * @param text The text. (NonNull)
+     * @return The number of bytes of the UTF-8 representation of the text.
+     */
+    public static int encodedLength(final CharSequence text) {
+        final int length = text.length();
+        int bytes = length;
+        int i = 0;
+        while (i < length && text.charAt(i) < 0x80) {
+            i++;
+        }
+        for (; i < length; i++) {
+            final char c = text.charAt(i);
+            if (c < 0x80) {
+                continue;
+            } else if (c < 0x800) {
+                bytes += 1;
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(text.charAt(i + 1))) {
+                bytes += 2; // 4 bytes for 2 chars
+                i++;
+            } else if (!isSurrogate(c)) {
+                bytes += 2;
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * @param text The text. (NonNull)
+     * @return The UTF-8 representation of the text in a new array of the exact size. (NonNull)
+     */
+    public static byte[] encode(final CharSequence text) {
+        final int length = text.length();
+        final byte[] result = new byte[encodedLength(text)];
+        encode(text, 0, length, result, 0, result.length);
+        return result;
+    }
+
+    /**
+     * Writes the UTF-8 representation of the text into the array.
+     *
+     * @param text The text. (NonNull)
+     * @param dst The destination array. (NonNull)
+     * @param offset The index of the first byte.
+     * @return The index after the written bytes.
+     * @throws IndexOutOfBoundsException If the encoded text doesn't fit into the array. Nothing is written in this case.
+     */
+    public static int encode(final CharSequence text, final byte[] dst, final int offset) {
+        final int length = text.length();
+        if (offset < 0 || offset > dst.length) {
+            throw new IndexOutOfBoundsException("Invalid offset " + offset + " in an array of " + dst.length + " bytes.");
+        }
+        /* A char is encoded in at most 3 bytes, the exact length is computed only if the text may not fit. */
+        if (dst.length - offset < length * 3L) {
+            final int encodedLength = encodedLength(text);
+            if (dst.length - offset < encodedLength) {
+                throw new IndexOutOfBoundsException("Can't write " + encodedLength + " bytes at " + offset + " in an array of " + dst.length + " bytes.");
+            }
+        }
+        return position(encode(text, 0, length, dst, offset, dst.length));
+    }
+
+    /**
+     * Writes the UTF-8 representation of the text into the buffer at its position and advances the position.
+     *
+     * @param text The text. (NonNull)
+     * @param dst The destination buffer. (NonNull)
+     * @throws BufferOverflowException If there is insufficient space in the buffer. Nothing is written in this case.
+     */
+    public static void encode(final CharSequence text, final ByteBuffer dst) {
+        final int length = text.length();
+        if (dst.remaining() < length * 3L && dst.remaining() < encodedLength(text)) {
+            throw new BufferOverflowException();
+        }
+        encode(text, 0, length, dst);
+    }
+
+    /**
+     * Writes the UTF-8 representation of as many characters of the region as fit into the buffer, starting at its position,
+     * and advances the position. A surrogate pair is either written completely or not at all.
+     *
+     * @param text The text. (NonNull)
+     * @param start The index of the first character to encode.
+     * @param end The index after the last character to encode.
+     * @param dst The destination buffer. (NonNull)
+     * @return The index of the first character which wasn't written (<tt>end</tt> if the whole region was written). The next chunk
+     *         of the text should be encoded from this index.
+     */
+    public static int encode(final CharSequence text, final int start, final int end, final ByteBuffer dst) {
+        if (start < 0 || start > end || end > text.length()) {
+            throw new IndexOutOfBoundsException("Invalid region: start " + start + ", end " + end + " in a text of " + text.length() + " characters.");
+        }
+        if (dst.hasArray()) {
+            final int arrayOffset = dst.arrayOffset();
+            final long state = encode(text, start, end, dst.array(), arrayOffset + dst.position(), arrayOffset + dst.limit());
+            /* Called on Buffer: the covariant ByteBuffer.position(int) of Java 9+ doesn't exist on Java 7 and 8. */
+            ((Buffer) dst).position(position(state) - arrayOffset);
+            return index(state);
+        }
+        int position = dst.position();
+        final int limit = dst.limit();
+        int i = start;
+        while (i < end) {
+            final char c = text.charAt(i);
+            if (c < 0x80) {
+                if (position == limit) {
+                    break;
+                }
+                dst.put(position++, (byte) c);
+                i++;
+            } else if (c < 0x800) {
+                if (limit - position < 2) {
+                    break;
+                }
+                dst.put(position++, (byte) (0xC0 | c >> 6));
+                dst.put(position++, (byte) (0x80 | c & 0x3F));
+                i++;
+            } else if (!isSurrogate(c)) {
+                if (limit - position < 3) {
+                    break;
+                }
+                dst.put(position++, (byte) (0xE0 | c >> 12));
+                dst.put(position++, (byte) (0x80 | c >> 6 & 0x3F));
+                dst.put(position++, (byte) (0x80 | c & 0x3F));
+                i++;
+            } else if (Character.isHighSurrogate(c) && i + 1 < end && Character.isLowSurrogate(text.charAt(i + 1))) {
+                if (limit - position < 4) {
+                    break;
+                }
+                final int codePoint = Character.toCodePoint(c, text.charAt(i + 1));
+                dst.put(position++, (byte) (0xF0 | codePoint >> 18));
+                dst.put(position++, (byte) (0x80 | codePoint >> 12 & 0x3F));
+                dst.put(position++, (byte) (0x80 | codePoint >> 6 & 0x3F));
+                dst.put(position++, (byte) (0x80 | codePoint & 0x3F));
+                i += 2;
+            } else {
+                if (position == limit) {
+                    break;
+                }
+                dst.put(position++, REPLACEMENT);
+                i++;
+            }
+        }
+        ((Buffer) dst).position(position);
+        return i;
+    }
+
+    /**
+     * Encodes as many characters of the region as fit between <tt>position</tt> and <tt>limit</tt>.
+     *
+     * @return The index of the first character not written and the position after the written bytes,
+     *         packed into a long to avoid allocating a result object. See {@link #index(long)} and {@link #position(long)}.
+     */
+    private static long encode(final CharSequence text, final int start, final int end, final byte[] dst, final int position, final int limit) {
+        int i = start;
+        int p = position;
+        /* ASCII fast path. */
+        final int asciiEnd = Math.min(end, start + limit - position);
+        char c;
+        while (i < asciiEnd && (c = text.charAt(i)) < 0x80) {
+            dst[p++] = (byte) c;
+            i++;
+        }
+        while (i < end) {
+            c = text.charAt(i);
+            if (c < 0x80) {
+                if (p == limit) {
+                    break;
+                }
+                dst[p++] = (byte) c;
+                i++;
+            } else if (c < 0x800) {
+                if (limit - p < 2) {
+                    break;
+                }
+                dst[p++] = (byte) (0xC0 | c >> 6);
+                dst[p++] = (byte) (0x80 | c & 0x3F);
+                i++;
+            } else if (!isSurrogate(c)) {
+                if (limit - p < 3) {
+                    break;
+                }
+                dst[p++] = (byte) (0xE0 | c >> 12);
+                dst[p++] = (byte) (0x80 | c >> 6 & 0x3F);
+                dst[p++] = (byte) (0x80 | c & 0x3F);
+                i++;
+            } else if (Character.isHighSurrogate(c) && i + 1 < end && Character.isLowSurrogate(text.charAt(i + 1))) {
+                if (limit - p < 4) {
+                    break;
+                }
+                final int codePoint = Character.toCodePoint(c, text.charAt(i + 1));
+                dst[p++] = (byte) (0xF0 | codePoint >> 18);
+                dst[p++] = (byte) (0x80 | codePoint >> 12 & 0x3F);
+                dst[p++] = (byte) (0x80 | codePoint >> 6 & 0x3F);
+                dst[p++] = (byte) (0x80 | codePoint & 0x3F);
+                i += 2;
+            } else {
+                if (p == limit) {
+                    break;
+                }
+                dst[p++] = REPLACEMENT;
+                i++;
+            }
+        }
+        return (long) i << 32 | p & 0xFFFFFFFFL;
+    }
+
+    private static int index(final long state) {
+        return (int) (state >>> 32);
+    }
+
+    private static int position(final long state) {
+        return (int) state;
+    }
+
+    /**
+     * @param src The UTF-8 encoded bytes. (NonNull)
+     * @param offset The index of the first byte.
+     * @param length The number of bytes.
+     * @return The decoded text. (NonNull)
+     */
+    public static String decode(final byte[] src, final int offset, final int length) {
+        if (offset < 0 || length < 0 || offset > src.length - length) {
+            throw new IndexOutOfBoundsException("Invalid region: offset " + offset + ", length " + length + " in an array of " + src.length + " bytes.");
+        }
+        /* A UTF-8 sequence never decodes to more chars than its bytes. */
+        final char[] chars = new char[length];
+        final int end = offset + length;
+        int i = offset;
+        int n = 0;
+        /* ASCII fast path. */
+        while (i < end && src[i] >= 0) {
+            chars[n++] = (char) src[i++];
+        }
+        while (i < end) {
+            final int b = src[i];
+            if (b >= 0) {
+                chars[n++] = (char) b;
+                i++;
+                continue;
+            }
+            final int codePoint;
+            final int size;
+            if ((b & 0xE0) == 0xC0) {
+                size = 2;
+                codePoint = b & 0x1F;
+            } else if ((b & 0xF0) == 0xE0) {
+                size = 3;
+                codePoint = b & 0x0F;
+            } else if ((b & 0xF8) == 0xF0) {
+                size = 4;
+                codePoint = b & 0x07;
+            } else {
+                return decodeMalformed(src, offset, length);
+            }
+            if (end - i < size) {
+                return decodeMalformed(src, offset, length);
+            }
+            int value = codePoint;
+            for (int k = 1; k < size; k++) {
+                final int next = src[i + k];
+                if ((next & 0xC0) != 0x80) {
+                    return decodeMalformed(src, offset, length);
+                }
+                value = value << 6 | next & 0x3F;
+            }
+            if (!isValid(value, size)) {
+                return decodeMalformed(src, offset, length);
+            }
+            if (size == 4) {
+                chars[n++] = (char) ((value >>> 10) + (Character.MIN_HIGH_SURROGATE - (Character.MIN_SUPPLEMENTARY_CODE_POINT >>> 10)));
+                chars[n++] = (char) ((value & 0x3FF) + Character.MIN_LOW_SURROGATE);
+            } else {
+                chars[n++] = (char) value;
+            }
+            i += size;
+        }
+        return new String(chars, 0, n);
+    }
+
+    /**
+     * Decodes the remaining bytes of the buffer and advances its position to the limit.
+     *
+     * @param src The UTF-8 encoded bytes. (NonNull)
+     * @return The decoded text. (NonNull)
+     */
+    public static String decode(final ByteBuffer src) {
+        final String result;
+        if (src.hasArray()) {
+            result = decode(src.array(), src.arrayOffset() + src.position(), src.remaining());
+        } else {
+            result = Charsets.UTF_8.decode(src.duplicate()).toString();
+        }
+        ((Buffer) src).position(src.limit());
+        return result;
+    }
+
+    /** @return <tt>true</tt> if the value is the shortest form of a valid code point which is not a surrogate. */
+    private static boolean isValid(final int value, final int size) {
+        switch (size) {
+            case 2:
+                return value >= 0x80;
+            case 3:
+                return value >= 0x800 && !isSurrogate((char) value);
+            default:
+                return value >= 0x10000 && value <= Character.MAX_CODE_POINT;
+        }
+    }
+
+    private static boolean isSurrogate(final char c) {
+        return c >= Character.MIN_SURROGATE && c <= Character.MAX_SURROGATE;
+    }
+
+    /** Leaves the malformed input to the JDK, so it is replaced exactly the same way as by the {@link String} constructor. */
+    private static String decodeMalformed(final byte[] src, final int offset, final int length) {
+        return new String(src, offset, length, Charsets.UTF_8);
+    }
+
+}
@@ -30,12 +30,41 @@ package org.moresbycoffee.pass;
 
 import static org.junit.Assert.*;
 
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.TabularData;
+
 import org.junit.Before;
 import org.junit.Test;
 import org.moresbycoffee.pass.ConverterContext.ConverterTypes;
+import org.moresbycoffee.pass.api.ConversionResult;
 import org.moresbycoffee.pass.api.Converter;
 import org.moresbycoffee.pass.api.ConverterException;
 import org.moresbycoffee.pass.api.Converters;
+import org.moresbycoffee.pass.api.StacklessConverterException;
+import org.moresbycoffee.pass.api.TryConverter;
+
+import com.google.common.reflect.TypeToken;
+import com.google.common.util.concurrent.ListenableFuture;
 
 /**
  * TODO javadoc.
@@ -73,13 +102,43 @@ public class ConverterContextTest {
 
         final Converter<String, Integer> converter = Converters.STRING_TO_INTEGER;
 
-        final ConverterTypes result = converterContext.getConverterTypes(converter);
+        final ConverterTypes result = ConverterContext.getConverterTypes(converter);
 
         assertEquals(String.class,  result.fromType);
         assertEquals(Integer.class, result.toType);
 
     }
 
+    @Test
+    public void getConverterTypesShouldResolveTypesInheritedFromSuperclass() {
+
+        final Converter<Collection<String>, ArrayList<String>> converter = new Converters.Sorter<String>() { };
+
+        final ConverterTypes result = ConverterContext.getConverterTypes(converter);
+
+        assertEquals(new TypeToken<Collection<String>>() { }.getType(), result.fromType);
+        assertEquals(new TypeToken<ArrayList<String>>() { }.getType(),  result.toType);
+
+    }
+
+    @Test
+    public void getConverterTypesShouldResolveTypesOfGenericConverterClass() {
+
+        final ConverterTypes result = ConverterContext.getConverterTypes(Converters.listConverter(Converters.STRING_TO_INTEGER));
+
+        assertEquals(Collection.class, TypeToken.of(result.fromType).getRawType());
+        assertEquals(ArrayList.class,  TypeToken.of(result.toType).getRawType());
+
+    }
+
+    @Test
+    public void addConverterImplementingConverterThroughSuperclass() {
+        converterContext.add(Converters.SORT);
+        converterContext.add(Converters.STRING_TO_INTEGER);
+
+        assertEquals(Integer.valueOf(4), converterContext.<String, Integer>convert("4", Integer.class));
+    }
+
     @Test
     public void simpleConvertTest() {
 
@@ -116,4 +175,593 @@ public class ConverterContextTest {
         converterContext.<String, Boolean>convert(from, Boolean.class);
         
     }
+
+    @Test
+    public void addedConverterShouldBeUsedAfterNotSupportedConversion() {
+        converterContext.add(Converters.STRING_TO_INTEGER);
+        try {
+            converterContext.<String, Long>convert("4", Long.class);
+            fail("The conversion should not be supported.");
+        } catch (final ConverterException e) {
+            /* Expected */
+        }
+
+        converterContext.add(Converters.STRING_TO_LONG);
+
+        assertEquals(Long.valueOf(4L), converterContext.<String, Long>convert("4", Long.class));
+    }
+
+    @Test(expected = ConverterException.class)
+    public void removedConverterShouldNotBeUsedAfterConversion() {
+        converterContext.add(Converters.STRING_TO_INTEGER);
+        assertEquals(Integer.valueOf(4), converterContext.<String, Integer>convert("4", Integer.class));
+
+        converterContext.remove(Converters.STRING_TO_INTEGER);
+
+        converterContext.<String, Integer>convert("4", Integer.class);
+    }
+
+    @Test
+    public void converterOfSupertypeShouldConvertSubtype() {
+        converterContext.add(Converters.NUMBER_TO_STRING);
+
+        assertEquals("4", converterContext.<Long, String>convert(Long.valueOf(4L), String.class));
+    }
+
+    @Test
+    public void converterOfClosestSupertypeShouldBeChosen() {
+        /* The anonymous subclasses bind the input types of the converters. */
+        converterContext.add(new ConstantConverter<Object>("object") { });
+        converterContext.add(new ConstantConverter<Number>("number") { });
+        converterContext.add(new ConstantConverter<Comparable<?>>("comparable") { });
+
+        assertEquals("number", converterContext.<Long, String>convert(Long.valueOf(4L), String.class));
+    }
+
+    @Test
+    public void converterWithMostSpecificOutputShouldBeChosenIndependentlyOfOrder() {
+        final Converter<String, Number> toNumber = new Converter<String, Number>() {
+            @Override
+            public Number convert(final String from) throws ConverterException {
+                return Double.valueOf(from);
+            }
+        };
+
+        converterContext.add(toNumber);
+        converterContext.add(Converters.STRING_TO_INTEGER);
+        assertEquals(Integer.valueOf(4), converterContext.<String, Number>convert("4", Number.class));
+
+        converterContext.remove(Converters.STRING_TO_INTEGER);
+        converterContext.remove(toNumber);
+        converterContext.add(Converters.STRING_TO_INTEGER);
+        converterContext.add(toNumber);
+        assertEquals(Integer.valueOf(4), converterContext.<String, Number>convert("4", Number.class));
+    }
+
+    @Test
+    public void hierarchyOfArrayShouldContainArraysOfComponentSupertypes() {
+        final Set<Class<?>> hierarchy = ConverterRegistry.hierarchyOf(String[].class);
+
+        assertEquals(String[].class, hierarchy.iterator().next());
+        assertTrue(hierarchy.contains(Object[].class));
+        assertTrue(hierarchy.contains(CharSequence[].class));
+        assertTrue(hierarchy.contains(Object.class));
+    }
+
+    @Test
+    public void indirectConversionShouldChainConverters() {
+        converterContext.add(Converters.STRING_TO_LONG);
+        converterContext.add(Converters.TIMESTAMP_TO_DATE);
+
+        assertEquals(new Date(1000L), converterContext.<String, Date>convert("1000", Date.class));
+    }
+
+    @Test(expected = ConverterException.class)
+    public void indirectConversionLongerThanMaxPathLengthShouldNotBeSupported() {
+        converterContext.add(Converters.STRING_TO_LONG);
+        converterContext.add(Converters.TIMESTAMP_TO_DATE);
+        converterContext.setMaxPathLength(1);
+
+        converterContext.<String, Date>convert("1000", Date.class);
+    }
+
+    @Test
+    public void convertAlongAllPathsShouldConvertAlongEveryShortestPath() {
+        converterContext.add(Converters.STRING_TO_INTEGER);
+        converterContext.add(Converters.DATE_TO_TIMESTAMP);
+
+        assertEquals(Arrays.<Object>asList(Integer.valueOf(4)), converterContext.<String, Object>convertAlongAllPaths("4", Number.class));
+
+        converterContext.add(Converters.STRING_TO_DOUBLE);
+
+        assertEquals(Arrays.<Object>asList(Integer.valueOf(4), Double.valueOf(4.0)), converterContext.<String, Object>convertAlongAllPaths("4", Number.class));
+        final Number first = converterContext.convert("4", Number.class);
+        assertEquals(Integer.valueOf(4), first);
+    }
+
+    @Test(expected = ConverterException.class)
+    public void failPathPolicyShouldRejectAmbiguousConversion() {
+        converterContext.add(Converters.STRING_TO_LONG);
+        converterContext.add(Converters.STRING_TO_INTEGER);
+        converterContext.add(Converters.NUMBER_TO_STRING);
+        converterContext.setPathPolicy(PathPolicy.FAIL);
+
+        assertEquals(Integer.valueOf(4), converterContext.<String, Integer>convert("4", Integer.class));
+
+        converterContext.<String, Number>convert("4", Number.class);
+    }
+
+    @Test
+    public void failPathPolicyShouldAcceptConverterOfClosestSupertype() {
+        converterContext.add(new ConstantConverter<Object>("object") { });
+        converterContext.add(new ConstantConverter<Number>("number") { });
+        converterContext.setPathPolicy(PathPolicy.FAIL);
+
+        assertEquals("number", converterContext.<Long, String>convert(Long.valueOf(4L), String.class));
+    }
+
+    @Test(expected = ConverterException.class)
+    public void indirectConversionShouldNotChainIncompatibleGenericTypes() {
+        converterContext.add(new Converter<String, List<String>>() {
+            @Override
+            public List<String> convert(final String from) throws ConverterException {
+                return Arrays.asList(from);
+            }
+        });
+        converterContext.add(new Converter<List<Integer>, Date>() {
+            @Override
+            public Date convert(final List<Integer> from) throws ConverterException {
+                return new Date(from.get(0).longValue());
+            }
+        });
+
+        converterContext.<String, Date>convert("1000", Date.class);
+    }
+
+    @Test
+    public void conversionsShouldNotFailWhileConvertersAreAddedAndRemoved() throws Exception {
+        converterContext.add(Converters.STRING_TO_INTEGER);
+
+        final AtomicBoolean running = new AtomicBoolean(true);
+        final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+        final Thread[] readers = new Thread[4];
+        for (int i = 0; i < readers.length; i++) {
+            readers[i] = new Thread() {
+                @Override
+                public void run() {
+                    try {
+                        while (running.get()) {
+                            assertEquals(Integer.valueOf(4), converterContext.<String, Integer>convert("4", Integer.class));
+                        }
+                    } catch (final Throwable e) {
+                        failure.set(e);
+                    }
+                }
+            };
+            readers[i].start();
+        }
+
+        for (int i = 0; i < 1000; i++) {
+            converterContext.add(Converters.STRING_TO_LONG);
+            converterContext.add(Converters.TIMESTAMP_TO_DATE);
+            assertTrue(converterContext.remove(Converters.STRING_TO_LONG));
+            assertTrue(converterContext.remove(Converters.TIMESTAMP_TO_DATE));
+        }
+        running.set(false);
+        for (final Thread reader : readers) {
+            reader.join();
+        }
+
+        assertNull(failure.get());
+    }
+
+    @Test
+    public void convertEachShouldConvertLazilyWithTheResolvedConverter() {
+        converterContext.add(Converters.STRING_TO_LONG);
+        converterContext.add(Converters.NUMBER_TO_STRING);
+        final Iterator<Object> iterator = converterContext.<Object, Object>convertEach(Arrays.<Object>asList("1", null, 2, "3").iterator(), Long.class);
+
+        assertEquals(Long.valueOf(1L), iterator.next());
+        converterContext.remove(Converters.STRING_TO_LONG);
+        assertNull(iterator.next());
+        try {
+            iterator.next();
+            fail();
+        } catch (final ConverterException e) {
+            // Integer -> Long is not supported.
+        }
+        assertTrue(iterator.hasNext());
+        try {
+            iterator.next();
+            fail();
+        } catch (final ConverterException e) {
+            // The class of the element changed, so the conversion is resolved again without the removed converter.
+        }
+    }
+
+    @Test
+    public void convertAllShouldResolveOncePerClassAndKeepTheOrder() {
+        final AtomicInteger resolutions = new AtomicInteger();
+        final ConverterContext counting = new ConverterContext() {
+            @Override
+            @SuppressWarnings("rawtypes")
+            Converter converterOf(final Class<?> sourceClass, final java.lang.reflect.Type toType) {
+                resolutions.incrementAndGet();
+                return super.converterOf(sourceClass, toType);
+            }
+        };
+        counting.add(Converters.NUMBER_TO_STRING);
+
+        final List<Object> input = Arrays.<Object>asList(1, 2L, 3, null, 4L, 5, 6.5d);
+        assertEquals(Arrays.asList("1", "2", "3", null, "4", "5", "6.5"), counting.convertAll(input, String.class));
+        assertEquals(3, resolutions.get());
+
+        resolutions.set(0);
+        final String[] array = counting.convertAll(new Number[] { 1, 2L, 3, 4L }, String.class);
+        assertArrayEquals(new String[] { "1", "2", "3", "4" }, array);
+        assertEquals(2, resolutions.get());
+    }
+
+    @Test(expected = ConverterException.class)
+    public void convertAllShouldFailOnUnsupportedElement() {
+        converterContext.add(Converters.STRING_TO_LONG);
+
+        converterContext.convertAll(Arrays.<Object>asList("1", new Date()), Long.class);
+    }
+
+    @Test
+    public void convertEachOfFrozenContextShouldUseThePrecomputedConversions() {
+        final ConverterContext frozen = ConverterContext.builder().add(Converters.STRING_TO_LONG).add(Converters.TIMESTAMP_TO_DATE).build();
+
+        final List<Date> dates = new ArrayList<Date>();
+        for (final Date date : frozen.<String, Date>convertEach(Arrays.asList("1", "2"), Date.class)) {
+            dates.add(date);
+        }
+        assertEquals(Arrays.asList(new Date(1L), new Date(2L)), dates);
+    }
+
+    @Test
+    public void methodHandleBackendShouldConvertLikeTheInterpretedOne() {
+        converterContext.add(Converters.TRIM);
+        converterContext.add(Converters.STRING_TO_LONG);
+        converterContext.add(Converters.TIMESTAMP_TO_DATE);
+        converterContext.setMaxPathLength(1);
+        converterContext.setPlanBackend(PlanBackend.METHOD_HANDLES);
+
+        assertEquals(PlanBackend.METHOD_HANDLES, converterContext.getPlanBackend());
+        assertEquals(Long.valueOf(42L), converterContext.<String, Long>convert("42", Long.class));
+        converterContext.setMaxPathLength(2);
+        assertEquals(new Date(1000L), converterContext.<String, Date>convert("1000", Date.class));
+        try {
+            converterContext.<String, Date>convert("x", Date.class);
+            fail();
+        } catch (final ConverterException e) {
+            // The exception of the stage is not wrapped.
+        }
+    }
+
+    @Test
+    public void methodHandlePlanShouldGetItsOwnClassWhenHot() {
+        final Converter<Object, Object> plan = PlanBackend.METHOD_HANDLES.compile(ConversionPlan.compile(Arrays.asList(
+                new ConverterRegistration(Converters.TRIM, ConverterContext.getConverterTypes(Converters.TRIM)),
+                new ConverterRegistration(Converters.TO_UPPERCASE, ConverterContext.getConverterTypes(Converters.TO_UPPERCASE))), null));
+        final Converter<Object, Object> nullSafePlan = PlanBackend.METHOD_HANDLES.compile(ConversionPlan.compile(Arrays.asList(
+                new ConverterRegistration(Converters.STRING_TO_LONG, ConverterContext.getConverterTypes(Converters.STRING_TO_LONG)),
+                new ConverterRegistration(Converters.LONG_TO_STRING, ConverterContext.getConverterTypes(Converters.LONG_TO_STRING)),
+                new ConverterRegistration(Converters.STRING_TO_DOUBLE, ConverterContext.getConverterTypes(Converters.STRING_TO_DOUBLE))), null));
+
+        assertNull(((MethodHandlePlans.HotPlan) plan).getCompiled());
+        for (int i = 0; i < MethodHandlePlans.COMPILE_THRESHOLD; i++) {
+            assertEquals("ABC", plan.convert(" abc "));
+            assertEquals(Double.valueOf(42d), nullSafePlan.convert("42"));
+        }
+        final Converter<Object, Object> compiled = ((MethodHandlePlans.HotPlan) plan).getCompiled();
+        final Converter<Object, Object> nullSafeCompiled = ((MethodHandlePlans.HotPlan) nullSafePlan).getCompiled();
+        assertEquals("org.moresbycoffee.pass.generated.CompiledPlan", compiled.getClass().getName());
+        assertNotSame(compiled.getClass(), nullSafeCompiled.getClass());
+        assertEquals("ABC", plan.convert(" abc "));
+        assertEquals("ABC", compiled.convert(" abc "));
+        assertEquals(Double.valueOf(42d), nullSafeCompiled.convert("42"));
+        assertNull(nullSafeCompiled.convert(null));
+        assertFalse(((TryConverter<Object, Object>) nullSafePlan).tryConvert("x").isSuccess());
+    }
+
+    @Test
+    public void memoizedConverterShouldBeCalledThroughItsCache() {
+        final AtomicInteger calls = new AtomicInteger();
+        final Converter<String, Long> counting = new Converter<String, Long>() {
+            @Override
+            public Long convert(final String from) {
+                calls.incrementAndGet();
+                return Long.valueOf(from);
+            }
+        };
+        converterContext.add(counting);
+        converterContext.add(Converters.TIMESTAMP_TO_DATE);
+
+        assertNull(converterContext.getCacheStats(counting));
+        assertTrue(converterContext.memoize(counting, 10));
+        assertFalse(converterContext.memoize(Converters.TRIM, 10));
+        converterContext.<String, Long>convert("1", Long.class);
+        converterContext.<String, Date>convert("1", Date.class);
+        assertEquals(1, calls.get());
+        assertEquals(1, converterContext.getCacheStats(counting).hitCount());
+
+        assertTrue(converterContext.unmemoize(counting));
+        converterContext.<String, Long>convert("1", Long.class);
+        assertEquals(2, calls.get());
+        assertNull(converterContext.getCacheStats(counting));
+        assertTrue(converterContext.remove(counting));
+    }
+
+    @Test
+    public void builderShouldRegisterMemoizedConverter() {
+        final ConverterContext frozen = ConverterContext.builder().addMemoized(Converters.STRING_TO_BIGDECIMAL, 10).build();
+
+        frozen.convert("1.5", BigDecimal.class);
+        frozen.convert("1.5", BigDecimal.class);
+        assertEquals(1, frozen.getCacheStats(Converters.STRING_TO_BIGDECIMAL).hitCount());
+    }
+
+    @Test
+    public void tryConvertShouldReturnFailuresInsteadOfThrowing() {
+        converterContext.add(Converters.STRING_TO_LONG);
+        converterContext.add(Converters.TIMESTAMP_TO_DATE);
+
+        assertEquals(Long.valueOf(5L), converterContext.<String, Long>tryConvert("5", Long.class).get());
+        assertEquals(new Date(5L), converterContext.<String, Date>tryConvert("5", Date.class).get());
+
+        final ConversionResult<Long> invalid = converterContext.tryConvert("five", Long.class);
+        assertFalse(invalid.isSuccess());
+        assertTrue(invalid.getFailureCause() instanceof StacklessConverterException);
+
+        final ConversionResult<Date> invalidTwoHops = converterContext.tryConvert("five", Date.class);
+        assertFalse(invalidTwoHops.isSuccess());
+        assertTrue(invalidTwoHops.getFailureCause() instanceof StacklessConverterException);
+
+        final ConversionResult<BigDecimal> unsupported = converterContext.tryConvert("5", BigDecimal.class);
+        assertFalse(unsupported.isSuccess());
+        assertNull(unsupported.getFailureCause());
+
+        final ConverterContext frozen = ConverterContext.builder().add(Converters.STRING_TO_LONG).build();
+        assertFalse(frozen.tryConvert("5", Date.class).isSuccess());
+        assertEquals(Long.valueOf(5L), frozen.<String, Long>tryConvert("5", Long.class).get());
+    }
+
+    @Test
+    public void convertAsyncShouldRunOnlyTheBlockingConversionsOnTheBlockingExecutor() throws Exception {
+        final AtomicReference<Thread> thread = new AtomicReference<Thread>();
+        final Converter<String, Date> lookup = new Converter<String, Date>() {
+            @Override
+            public Date convert(final String from) throws ConverterException {
+                thread.set(Thread.currentThread());
+                return new Date(Long.parseLong(from));
+            }
+        };
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            converterContext.add(lookup);
+            converterContext.add(Converters.STRING_TO_LONG);
+            converterContext.setBlockingExecutor(executor);
+            assertTrue(converterContext.setBlocking(lookup, true));
+            assertTrue(converterContext.isBlocking(lookup));
+            assertFalse(converterContext.setBlocking(Converters.TRIM, true));
+
+            assertEquals(new Date(5L), converterContext.<String, Date>convertAsync("5", Date.class).get(10, TimeUnit.SECONDS));
+            assertNotSame(Thread.currentThread(), thread.get());
+
+            final ListenableFuture<Long> direct = converterContext.convertAsync("5", Long.class);
+            assertTrue(direct.isDone());
+            assertEquals(Long.valueOf(5L), direct.get());
+
+            assertTrue(converterContext.setBlocking(lookup, false));
+            converterContext.<String, Date>convertAsync("6", Date.class).get();
+            assertSame(Thread.currentThread(), thread.get());
+
+            assertEquals(Arrays.asList(1L, null, 3L), converterContext.convertAllAsync(Arrays.asList("1", null, "3"), Long.class, 2).get(10, TimeUnit.SECONDS));
+            try {
+                converterContext.convertAsync("5", BigDecimal.class).get();
+                fail();
+            } catch (final ExecutionException e) {
+                assertTrue(e.getCause() instanceof ConverterException);
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void convertAllAsyncShouldSubmitOnlyTheBlockingElements() throws Exception {
+        final Set<Thread> threads = Collections.newSetFromMap(new ConcurrentHashMap<Thread, Boolean>());
+        final Converter<Date, Long> lookup = new Converter<Date, Long>() {
+            @Override
+            public Long convert(final Date from) throws ConverterException {
+                threads.add(Thread.currentThread());
+                return Long.valueOf(from.getTime());
+            }
+        };
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            converterContext.add(lookup);
+            converterContext.add(Converters.STRING_TO_LONG);
+            converterContext.setBlocking(lookup, true);
+            converterContext.setBlockingExecutor(executor);
+
+            final ListenableFuture<List<Long>> direct = converterContext.convertAllAsync(Arrays.asList("1", null, "3"), Long.class, 2);
+            assertTrue(direct.isDone());
+            assertEquals(Arrays.asList(1L, null, 3L), direct.get());
+
+            final List<Object> mixed = Arrays.<Object>asList("1", new Date(2L), null, "4", new Date(5L));
+            assertEquals(Arrays.asList(1L, 2L, null, 4L, 5L), converterContext.convertAllAsync(mixed, Long.class, 2).get(10, TimeUnit.SECONDS));
+            assertEquals(1, threads.size());
+            assertFalse(threads.contains(Thread.currentThread()));
+
+            // The blocking elements are not submitted if an element converted on the calling thread fails.
+            final ListenableFuture<List<Long>> failed = converterContext.convertAllAsync(Arrays.<Object>asList(new Date(1L), "x"), Long.class, 2);
+            assertTrue(failed.isDone());
+            try {
+                failed.get();
+                fail();
+            } catch (final ExecutionException e) {
+                assertTrue(e.getCause() instanceof ConverterException);
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void builderShouldRegisterBlockingConverter() throws Exception {
+        final ConverterContext frozen = ConverterContext.builder().addBlocking(Converters.STRING_TO_LONG).build();
+
+        assertTrue(frozen.isBlocking(Converters.STRING_TO_LONG));
+        assertEquals(Long.valueOf(7L), frozen.<String, Long>convertAsync("7", Long.class).get(10, TimeUnit.SECONDS));
+        assertEquals(Long.valueOf(7L), frozen.<String, Long>convert("7", Long.class));
+    }
+
+    @Test
+    public void metricsShouldCountCallsAndFailuresPerConverterAndConversion() throws Exception {
+        final ConversionMetrics metrics = new ConversionMetrics(1);
+        converterContext.add(Converters.STRING_TO_LONG);
+        converterContext.add(Converters.TIMESTAMP_TO_DATE);
+        converterContext.setMetrics(metrics);
+
+        converterContext.<String, Date>convert("1000", Date.class);
+        converterContext.<String, Long>convert("2000", Long.class);
+        try {
+            converterContext.<String, Long>convert("x", Long.class);
+            fail();
+        } catch (final ConverterException e) {
+            // expected
+        }
+
+        final ConversionStats parser = metrics.statsOf(Converters.STRING_TO_LONG);
+        assertEquals(3, parser.getCalls());
+        assertEquals(1, parser.getConverterFailures());
+        assertEquals(0, parser.getOtherFailures());
+        assertEquals(3, parser.getSampledCalls());
+        assertTrue(parser.latencyPercentileNanos(100) > 0);
+        assertEquals(1, metrics.statsOf(Converters.TIMESTAMP_TO_DATE).getCalls());
+        assertEquals(2, metrics.statsOf(String.class, Long.class).getCalls());
+        assertEquals(1, metrics.statsOf(String.class, Long.class).getConverterFailures());
+        assertEquals(1, metrics.statsOf(String.class, Date.class).getCalls());
+
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        final ObjectName name = new ObjectName("org.moresbycoffee.pass:type=ConversionMetrics,name=test");
+        server.registerMBean(metrics, name);
+        try {
+            assertEquals(Integer.valueOf(1), server.getAttribute(name, "SamplingInterval"));
+            assertEquals(2, ((TabularData) server.getAttribute(name, "ConversionStats")).size());
+        } finally {
+            server.unregisterMBean(name);
+        }
+
+        metrics.reset();
+        assertEquals(0, metrics.statsOf(Converters.STRING_TO_LONG).getCalls());
+        converterContext.setMetrics(null);
+        converterContext.<String, Long>convert("2000", Long.class);
+        assertEquals(0, metrics.statsOf(Converters.STRING_TO_LONG).getCalls());
+    }
+
+    @Test
+    public void metricsShouldForwardTryConvertWithoutThrowing() {
+        final TryConverter<String, Long> tryOnly = new TryConverter<String, Long>() {
+            @Override
+            public Long convert(final String from) throws ConverterException {
+                throw new AssertionError("convert must not be called");
+            }
+
+            @Override
+            public ConversionResult<Long> tryConvert(final String from) {
+                return ConversionResult.failure("Not a number: " + from);
+            }
+        };
+        final ConversionMetrics metrics = new ConversionMetrics(1);
+        converterContext.add(tryOnly);
+        converterContext.setMetrics(metrics);
+
+        final ConversionResult<Long> result = converterContext.tryConvert("x", Long.class);
+
+        assertEquals("Not a number: x", result.getFailureMessage());
+        assertEquals(1, metrics.statsOf(tryOnly).getCalls());
+        assertEquals(1, metrics.statsOf(tryOnly).getConverterFailures());
+        assertEquals(1, metrics.statsOf(String.class, Long.class).getConverterFailures());
+    }
+
+    @Test
+    public void sampledMetricsShouldCountEveryCallButTimeOnlySome() {
+        final ConversionMetrics metrics = new ConversionMetrics(1000);
+        final ConverterContext frozen = ConverterContext.builder().add(Converters.STRING_TO_LONG).metrics(metrics).build();
+
+        for (int i = 0; i < 100; i++) {
+            frozen.<String, Long>convert("1", Long.class);
+        }
+        final ConversionStats stats = metrics.statsOf(String.class, Long.class);
+        assertEquals(100, stats.getCalls());
+        assertTrue(stats.getSampledCalls() < 100);
+    }
+
+    @Test
+    public void frozenContextShouldConvertPrecomputedAndOtherConversions() {
+        final ConverterContext frozen = ConverterContext.builder()
+                .add(Converters.STRING_TO_LONG)
+                .add(Converters.TIMESTAMP_TO_DATE)
+                .add(Converters.NUMBER_TO_STRING)
+                .source(Integer.class)
+                .build();
+
+        assertEquals(new Date(1000L), frozen.<String, Date>convert("1000", Date.class));
+        assertEquals(Long.valueOf(1000L), frozen.<String, Long>convert("1000", Long.class));
+        assertEquals("4", frozen.<Integer, String>convert(Integer.valueOf(4), String.class));
+        assertEquals("4", frozen.<Short, String>convert(Short.valueOf((short) 4), String.class));
+    }
+
+    @Test(expected = ConverterException.class)
+    public void frozenContextShouldFailOnUnsupportedConversion() {
+        final ConverterContext frozen = ConverterContext.builder().add(Converters.STRING_TO_LONG).build();
+
+        frozen.<String, Date>convert("1000", Date.class);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void frozenContextShouldNotBeModifiable() {
+        ConverterContext.builder().build().add(Converters.STRING_TO_LONG);
+    }
+
+    @Test(expected = ConverterException.class)
+    public void frozenContextWithFailPolicyShouldReportAmbiguityAtBuildTime() {
+        ConverterContext.builder()
+                .add(Converters.STRING_TO_INTEGER)
+                .add(Converters.STRING_TO_DOUBLE)
+                .target(Number.class)
+                .pathPolicy(PathPolicy.FAIL)
+                .build();
+    }
+
+    @Test
+    public void frozenContextWithFirstPolicyShouldResolveAmbiguityByTheFirstPath() {
+        final ConverterContext frozen = ConverterContext.builder()
+                .add(Converters.STRING_TO_INTEGER)
+                .add(Converters.STRING_TO_DOUBLE)
+                .target(Number.class)
+                .build();
+
+        assertEquals(Integer.valueOf(4), frozen.<String, Number>convert("4", Number.class));
+    }
+
+    /** Converter which converts any input to a constant value. */
+    private static class ConstantConverter<F> implements Converter<F, String> {
+
+        private final String value;
+
+        ConstantConverter(final String value) {
+            this.value = value;
+        }
+
+        @Override
+        public String convert(final F from) throws ConverterException {
+            return value;
+        }
+
+    }
 }
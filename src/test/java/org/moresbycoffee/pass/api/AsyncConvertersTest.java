@@ -0,0 +1,156 @@
+/*
+ * Moresby Coffee Bean
+ *
+ * Copyright (c) 2012, Barnabas Sudy (barnabas.sudy@gmail.com)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.moresbycoffee.pass.api;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Test;
+
+import com.google.common.util.concurrent.ListenableFuture;
+
+public class AsyncConvertersTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(8);
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void convertAsyncShouldRunOnTheExecutor() throws Exception {
+        final Thread caller = Thread.currentThread();
+        final ListenableFuture<Thread> thread = AsyncConverters.convertAsync(new Converter<String, Thread>() {
+            @Override
+            public Thread convert(final String from) throws ConverterException {
+                return Thread.currentThread();
+            }
+        }, "x", executor);
+
+        assertNotSame(caller, thread.get(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void convertAsyncShouldFailWithTheExceptionOfTheConverter() throws Exception {
+        try {
+            AsyncConverters.convertAsync(Converters.STRING_TO_LONG, "x", executor).get(10, TimeUnit.SECONDS);
+            fail();
+        } catch (final ExecutionException e) {
+            assertTrue(e.getCause() instanceof ConverterException);
+        }
+    }
+
+    @Test
+    public void convertAsyncShouldFailIfTheExecutorRejectsTheConversion() throws Exception {
+        executor.shutdown();
+        try {
+            AsyncConverters.convertAsync(Converters.STRING_TO_LONG, "1", executor).get();
+            fail();
+        } catch (final ExecutionException e) {
+            assertTrue(e.getCause() instanceof RejectedExecutionException);
+        }
+    }
+
+    @Test
+    public void convertAllAsyncShouldKeepTheOrderAndLimitTheConcurrency() throws Exception {
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+        final Converter<Integer, String> slow = new Converter<Integer, String>() {
+            @Override
+            public String convert(final Integer from) throws ConverterException {
+                final int now = running.incrementAndGet();
+                while (true) {
+                    final int max = maxRunning.get();
+                    if (now <= max || maxRunning.compareAndSet(max, now)) {
+                        break;
+                    }
+                }
+                try {
+                    Thread.sleep(2);
+                } catch (final InterruptedException e) {
+                    throw new ConverterException(e);
+                } finally {
+                    running.decrementAndGet();
+                }
+                return from.toString();
+            }
+        };
+        final List<Integer> input = new ArrayList<Integer>();
+        final List<String> expected = new ArrayList<String>();
+        for (int i = 0; i < 100; i++) {
+            input.add(i);
+            expected.add(Integer.toString(i));
+        }
+
+        assertEquals(expected, AsyncConverters.convertAllAsync(slow, input, executor, 3).get(10, TimeUnit.SECONDS));
+        assertTrue(maxRunning.get() <= 3);
+    }
+
+    @Test
+    public void convertAllAsyncShouldFailWithTheFirstFailure() throws Exception {
+        try {
+            AsyncConverters.convertAllAsync(Converters.STRING_TO_LONG, Arrays.asList("1", "x", "3"), executor, 2).get(10, TimeUnit.SECONDS);
+            fail();
+        } catch (final ExecutionException e) {
+            assertTrue(e.getCause() instanceof ConverterException);
+        }
+        assertEquals(Collections.emptyList(), AsyncConverters.convertAllAsync(Converters.STRING_TO_LONG, Collections.<String>emptyList(), executor, 2).get());
+    }
+
+    @Test
+    public void blockingExecutorShouldRunTasks() throws Exception {
+        final ExecutorService blocking = AsyncConverters.newBlockingExecutor();
+        try {
+            final CountDownLatch done = new CountDownLatch(1);
+            blocking.execute(new Runnable() {
+                @Override
+                public void run() {
+                    done.countDown();
+                }
+            });
+            assertTrue(done.await(10, TimeUnit.SECONDS));
+        } finally {
+            blocking.shutdown();
+        }
+    }
+
+}
@@ -0,0 +1,147 @@
+/*
+ * Moresby Coffee Bean
+ *
+ * Copyright (c) 2012, Barnabas Sudy (barnabas.sudy@gmail.com)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.moresbycoffee.pass.api;
+
+import static org.junit.Assert.*;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+/**
+ * Tests of the {@link ByteCodec}.
+ */
+public class ByteCodecTest {
+
+    @Test
+    public void bigEndianCodecShouldProduceTheLayoutOfTheConverters() {
+        final byte[] buffer = new byte[26];
+
+        int offset = 1;
+        offset = ByteCodec.BIG_ENDIAN.putInt(buffer, offset, 0x01020304);
+        offset = ByteCodec.BIG_ENDIAN.putLong(buffer, offset, -2L);
+        offset = ByteCodec.BIG_ENDIAN.putFloat(buffer, offset, 1.5f);
+        offset = ByteCodec.BIG_ENDIAN.putDouble(buffer, offset, -0.25);
+
+        assertEquals(25, offset);
+        assertArrayEquals(Converters.PRIMITIVE_INT_TO_BYTE.fromInt(0x01020304), Arrays.copyOfRange(buffer, 1, 5));
+        assertArrayEquals(Converters.PRIMITIVE_LONG_TO_BYTE.fromLong(-2L), Arrays.copyOfRange(buffer, 5, 13));
+        assertArrayEquals(Converters.PRIMITIVE_FLOAT_TO_BYTE.fromFloat(1.5f), Arrays.copyOfRange(buffer, 13, 17));
+        assertArrayEquals(Converters.PRIMITIVE_DOUBLE_TO_BYTE.fromDouble(-0.25), Arrays.copyOfRange(buffer, 17, 25));
+
+        assertEquals(0x01020304, ByteCodec.BIG_ENDIAN.getInt(buffer, 1));
+        assertEquals(-2L, ByteCodec.BIG_ENDIAN.getLong(buffer, 5));
+        assertEquals(1.5f, ByteCodec.BIG_ENDIAN.getFloat(buffer, 13), 0f);
+        assertEquals(-0.25, ByteCodec.BIG_ENDIAN.getDouble(buffer, 17), 0d);
+    }
+
+    @Test
+    public void littleEndianCodecShouldReverseTheBytes() {
+        final byte[] buffer = new byte[12];
+
+        ByteCodec.LITTLE_ENDIAN.putInt(buffer, 0, 0x01020304);
+        ByteCodec.LITTLE_ENDIAN.putLong(buffer, 4, 0x0102030405060708L);
+
+        assertArrayEquals(new byte[] {4, 3, 2, 1, 8, 7, 6, 5, 4, 3, 2, 1}, buffer);
+        assertEquals(0x01020304, ByteCodec.LITTLE_ENDIAN.getInt(buffer, 0));
+        assertEquals(0x0102030405060708L, ByteCodec.LITTLE_ENDIAN.getLong(buffer, 4));
+    }
+
+    @Test
+    public void bufferMethodsShouldUseTheOrderOfTheCodecAndKeepTheOrderOfTheBuffer() {
+        final ByteBuffer buffer = ByteBuffer.allocateDirect(16).order(ByteOrder.BIG_ENDIAN);
+
+        ByteCodec.LITTLE_ENDIAN.putInt(buffer, 0x01020304);
+        ByteCodec.LITTLE_ENDIAN.putDouble(buffer, 8, 2.0);
+
+        assertEquals(4, buffer.position());
+        assertEquals(ByteOrder.BIG_ENDIAN, buffer.order());
+        assertEquals(4, buffer.get(0));
+        assertEquals(0x01020304, ByteCodec.LITTLE_ENDIAN.getInt(buffer, 0));
+        assertEquals(2.0, ByteCodec.LITTLE_ENDIAN.getDouble(buffer, 8), 0d);
+        assertEquals(Double.doubleToRawLongBits(2.0), Long.reverseBytes(buffer.getLong(8)));
+    }
+
+    @Test
+    public void writeOutOfTheArrayShouldNotModifyTheArray() {
+        final byte[] buffer = new byte[6];
+        try {
+            ByteCodec.BIG_ENDIAN.putInt(buffer, 3, -1);
+            fail("The int doesn't fit into the array.");
+        } catch (final IndexOutOfBoundsException e) {
+            assertArrayEquals(new byte[6], buffer);
+        }
+    }
+
+    @Test
+    public void arrayConvertersShouldProduceTheLayoutOfTheSingleValueConverters() {
+        final int[] ints = {0, 1, -1, Integer.MIN_VALUE, 0x01020304};
+        final byte[] intBytes = Converters.INT_ARRAY_TO_BYTE.convert(ints);
+        for (int i = 0; i < ints.length; i++) {
+            assertArrayEquals(Converters.PRIMITIVE_INT_TO_BYTE.fromInt(ints[i]), Arrays.copyOfRange(intBytes, i * 4, i * 4 + 4));
+        }
+        assertArrayEquals(ints, Converters.BYTE_TO_INT_ARRAY.convert(intBytes));
+
+        final double[] doubles = {0.0, -1.5, Double.NaN, Double.MAX_VALUE};
+        final byte[] doubleBytes = Converters.DOUBLE_ARRAY_TO_BYTE.convert(doubles);
+        for (int i = 0; i < doubles.length; i++) {
+            assertArrayEquals(Converters.PRIMITIVE_DOUBLE_TO_BYTE.fromDouble(doubles[i]), Arrays.copyOfRange(doubleBytes, i * 8, i * 8 + 8));
+        }
+        assertArrayEquals(doubles, Converters.BYTE_TO_DOUBLE_ARRAY.convert(doubleBytes), 0d);
+    }
+
+    @Test(expected = ConverterException.class)
+    public void byteArrayWithPartialValueShouldNotBeConverted() {
+        Converters.BYTE_TO_LONG_ARRAY.convert(new byte[12]);
+    }
+
+    @Test
+    public void bulkBufferMethodsShouldAdvanceThePosition() {
+        final ByteBuffer buffer = ByteBuffer.allocate(40);
+        final long[] longs = {1L, -2L, Long.MAX_VALUE};
+
+        buffer.put((byte) 7);
+        ByteCodec.LITTLE_ENDIAN.putLongs(buffer, longs, 1, 2);
+
+        assertEquals(17, buffer.position());
+        assertEquals(-2L, ByteCodec.LITTLE_ENDIAN.getLong(buffer, 1));
+
+        ((Buffer) buffer).flip();
+        buffer.get();
+        final long[] result = new long[2];
+        ByteCodec.LITTLE_ENDIAN.getLongs(buffer, result, 0, 2);
+
+        assertEquals(17, buffer.position());
+        assertArrayEquals(new long[] {-2L, Long.MAX_VALUE}, result);
+    }
+
+}
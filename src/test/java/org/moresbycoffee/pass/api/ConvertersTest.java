@@ -0,0 +1,288 @@
+/*
+ * Moresby Coffee Bean
+ *
+ * Copyright (c) 2012, Barnabas Sudy (barnabas.sudy@gmail.com)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.moresbycoffee.pass.api;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+
+/**
+ * Tests of the {@link Converters} utility class.
+ */
+public class ConvertersTest {
+
+    @Test
+    public void primitiveConvertersShouldConvertWithoutBoxing() {
+        assertEquals(42L, Converters.STRING_TO_PRIMITIVE_LONG.toLong("42"));
+        assertEquals(42, Converters.PRIMITIVE_LONG_TO_INT.longToInt(42L));
+        assertArrayEquals(new byte[] {0, 0, 0, 42}, Converters.PRIMITIVE_INT_TO_BYTE.fromInt(42));
+    }
+
+    @Test
+    public void primitiveConvertersShouldKeepTheirConverterFields() throws Exception {
+        assertEquals(Converter.class, Converters.class.getField("INT_TO_BYTE").getType());
+        assertEquals(Converter.class, Converters.class.getField("STRING_TO_LONG").getType());
+        assertSame(Converters.PRIMITIVE_INT_TO_BYTE, Converters.INT_TO_BYTE);
+        assertSame(Converters.STRING_TO_PRIMITIVE_LONG, Converters.STRING_TO_LONG);
+    }
+
+    @Test
+    public void boxedConvertShouldReturnNullForNull() {
+        assertNull(Converters.STRING_TO_LONG.convert(null));
+        assertNull(Converters.INT_TO_BYTE.convert(null));
+        assertNull(Converters.LONG_TO_INT.convert(null));
+    }
+
+    @Test
+    public void chainOfPrimitiveConvertersShouldBeFused() {
+        final Converter<String, Date> converter = Converters.chain(Converters.STRING_TO_LONG, Converters.TIMESTAMP_TO_DATE);
+
+        assertFalse(converter instanceof Converters.Chain);
+        assertEquals(new Date(1000L), converter.convert("1000"));
+        assertNull(converter.convert(null));
+    }
+
+    @Test
+    public void chainThroughLongToIntShouldBeFused() {
+        final Converter<String, byte[]> converter = Converters.chain(Converters.STRING_TO_LONG, Converters.LONG_TO_INT, Converters.INT_TO_BYTE);
+
+        assertFalse(converter instanceof Converters.Chain);
+        assertArrayEquals(new byte[] {0, 0, 1, 0}, converter.convert("256"));
+    }
+
+    @Test(expected = ConverterException.class)
+    public void fusedChainShouldPropagateConverterException() {
+        Converters.chain(Converters.STRING_TO_LONG, Converters.LONG_TO_INT, Converters.INT_TO_BYTE).convert("4294967296");
+    }
+
+    @Test
+    public void chainOfNotPrimitiveConvertersShouldNotBeFused() {
+        final Converter<String, String> converter = Converters.chain(Converters.TRIM, Converters.TO_UPPERCASE);
+
+        assertTrue(converter instanceof FlatChain);
+        assertEquals(2, ((FlatChain<?, ?>) converter).getStages().size());
+        assertEquals("ABC", converter.convert(" abc "));
+    }
+
+    @Test
+    public void nestedChainsShouldBeFlattened() {
+        final Converter<String, String> inner = Converters.chain(Converters.TRIM, Converters.TO_UPPERCASE);
+        final Converter<String, String> legacy = new Converters.Chain<String, String, String>(Converters.TO_LOWERCASE, Converters.TRIM);
+        final Converter<String, String> converter = Converters.chain(inner, legacy, Converters.TO_UPPERCASE);
+
+        assertEquals(5, ((FlatChain<?, ?>) converter).getStages().size());
+        assertEquals("ABC", converter.convert(" abc "));
+    }
+
+    @Test
+    public void chainShouldFuseTheAdjacentPrimitiveStages() {
+        final Converter<String, byte[]> converter = Converters.chain(Converters.TRIM, Converters.STRING_TO_LONG, Converters.LONG_TO_INT, Converters.INT_TO_BYTE);
+
+        assertEquals(2, ((FlatChain<?, ?>) converter).getStages().size());
+        assertArrayEquals(new byte[] {0, 0, 1, 0}, converter.convert(" 256 "));
+    }
+
+    @Test
+    public void chainShouldShortCircuitNullOnlyIfEveryStagePreservesNull() {
+        final Converter<String, String> nullToText = new Converter<String, String>() {
+            @Override
+            public String convert(final String from) {
+                return from == null ? "null" : from;
+            }
+        };
+
+        final Converter<String, Double> nullSafe = Converters.chain(Converters.STRING_TO_LONG, Converters.LONG_TO_STRING, Converters.STRING_TO_DOUBLE);
+        final Converter<String, String> nullAware = Converters.chain(Converters.STRING_TO_LONG, Converters.LONG_TO_STRING, nullToText);
+
+        assertNull(Converters.chain(Converters.STRING_TO_LONG, Converters.LONG_TO_STRING, Converters.STRING_TO_DOUBLE, Converters.NUMBER_TO_STRING).convert(null));
+        assertTrue(((FlatChain<?, ?>) nullSafe).preservesNull());
+        assertNull(nullSafe.convert(null));
+        assertFalse(((FlatChain<?, ?>) nullAware).preservesNull());
+        assertEquals("null", nullAware.convert(null));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void stagesOfChainShouldBeUnmodifiable() {
+        final FlatChain<?, ?> chain = (FlatChain<?, ?>) Converters.chain(Converters.TRIM, Converters.STRING_TO_LONG, Converters.LONG_TO_STRING);
+
+        assertSame(Converters.TRIM, chain.getStages().get(0));
+        chain.getStages().clear();
+    }
+
+    @Test
+    public void lazyListShouldConvertOnlyTheAccessedElements() {
+        final CountingConverter counter = new CountingConverter();
+        final List<Long> view = Converters.lazyList(counter, Arrays.asList("1", "2", "x"), false);
+
+        assertEquals(3, view.size());
+        assertEquals(Long.valueOf(1), Converters.first(view));
+        assertEquals(Long.valueOf(2), view.get(1));
+        assertEquals(Long.valueOf(2), view.get(1));
+        assertEquals(3, counter.count.get());
+    }
+
+    @Test
+    public void memoizingLazyListShouldConvertElementsOnce() {
+        final CountingConverter counter = new CountingConverter();
+        final List<Long> view = Converters.lazyList(counter, Arrays.asList("1", "2", "x"), true);
+
+        assertEquals(Long.valueOf(2), view.get(1));
+        assertEquals(Long.valueOf(2), view.get(1));
+        assertEquals(1, counter.count.get());
+        try {
+            view.get(2);
+            fail();
+        } catch (final ConverterException e) {
+            assertEquals(Arrays.asList(1L, 2L), view.subList(0, 2));
+        }
+    }
+
+    @Test
+    public void memoizingLazyMapShouldConvertValuesOnce() {
+        final Map<String, String> source = new HashMap<String, String>();
+        source.put("a", "1");
+        source.put("b", "2");
+        source.put(null, null);
+        final CountingConverter counter = new CountingConverter();
+        final Map<String, Long> view = Converters.lazyMapValues(counter, source, true);
+
+        assertEquals(source.keySet(), view.keySet());
+        assertEquals(0, counter.count.get());
+        assertEquals(Long.valueOf(1), view.get("a"));
+        assertEquals(Long.valueOf(1), view.get("a"));
+        assertNull(view.get("c"));
+        assertEquals(1, counter.count.get());
+        final Map<String, Long> expected = new HashMap<String, Long>();
+        expected.put("a", 1L);
+        expected.put("b", 2L);
+        expected.put(null, null);
+        assertEquals(expected, view);
+        assertEquals(expected, Converters.lazyMapValues(Converters.STRING_TO_LONG, source, false));
+        assertEquals(3, counter.count.get());
+    }
+
+    @Test
+    public void iterableShouldBeConvertedLazily() {
+        final CountingConverter counter = new CountingConverter();
+        final Iterable<Long> view = Converters.convertIterable(counter, Arrays.asList("1", "2", "3"));
+
+        assertEquals(0, counter.count.get());
+        final Iterator<Long> iterator = view.iterator();
+        assertEquals(Long.valueOf(1), iterator.next());
+        assertEquals(1, counter.count.get());
+        assertEquals(Arrays.asList(1L, 2L, 3L), Lists.newArrayList(Converters.iterableConverter(counter).convert(Arrays.asList("1", "2", "3"))));
+    }
+
+    private static final class CountingConverter implements Converter<String, Long> {
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Long convert(final String from) {
+            count.incrementAndGet();
+            return Converters.STRING_TO_LONG.convert(from);
+        }
+
+    }
+
+    @Test
+    public void tryConvertShouldReportInvalidNumbersWithoutStackTrace() {
+        assertEquals(Long.valueOf(42L), Converters.tryConvert(Converters.STRING_TO_LONG, "42").get());
+        assertEquals(Integer.valueOf(-7), Converters.tryConvert(Converters.STRING_TO_INTEGER, "-7").get());
+        assertTrue(Converters.tryConvert(Converters.STRING_TO_LONG, null).isSuccess());
+
+        final ConversionResult<Long> result = Converters.tryConvert(Converters.STRING_TO_LONG, "4x2");
+        assertFalse(result.isSuccess());
+        assertEquals("Not a valid long: \"4x2\"", result.getFailureMessage());
+        assertTrue(result.getFailureCause() instanceof StacklessConverterException);
+        assertEquals(0, result.getFailureCause().getStackTrace().length);
+        assertFalse(Converters.tryConvert(Converters.STRING_TO_INTEGER, "2147483648").isSuccess());
+        assertTrue(Converters.STRING_TO_DOUBLE instanceof TryConverter);
+        assertFalse(Converters.tryConvert(Converters.STRING_TO_DOUBLE, "x").isSuccess());
+        assertTrue(Converters.STRING_TO_FLOAT instanceof TryConverter);
+        assertEquals(Long.valueOf(-1L), result.or(-1L));
+        try {
+            result.get();
+            fail();
+        } catch (final ConverterException e) {
+            assertEquals("Not a valid long: \"4x2\"", e.getMessage());
+            assertTrue(e.getStackTrace().length > 0);
+        }
+    }
+
+    @Test
+    public void tryConvertShouldCatchTheExceptionOfOtherConverters() {
+        final ConversionResult<Date> success = Converters.tryConvert(Converters.chain(Converters.STRING_TO_LONG, Converters.TIMESTAMP_TO_DATE), "1000");
+        assertEquals(new Date(1000L), success.get());
+
+        final ConversionResult<java.math.BigDecimal> failure = Converters.tryConvert(Converters.STRING_TO_BIGDECIMAL, "x");
+        assertFalse(failure.isSuccess());
+        assertTrue(failure.getFailureCause() instanceof ConverterException);
+    }
+
+    @Test
+    public void tryConvertOfChainsShouldStopAtTheFirstFailureWithoutStackTrace() {
+        final Converter<String, Date> fused = Converters.chain(Converters.STRING_TO_LONG, Converters.TIMESTAMP_TO_DATE);
+        final Converter<String, Integer> flat = Converters.chain(Converters.TRIM, Converters.STRING_TO_LONG, Converters.LONG_TO_INT);
+        final Converter<String, Date> threeStages = Converters.chain(Converters.TRIM, Converters.STRING_TO_LONG, Converters.TIMESTAMP_TO_DATE);
+        assertTrue(fused instanceof TryConverter);
+        assertTrue(threeStages instanceof FlatChain);
+
+        assertEquals(new Date(5L), Converters.tryConvert(fused, "5").get());
+        assertEquals(Integer.valueOf(5), Converters.tryConvert(flat, " 5 ").get());
+        assertEquals(new Date(5L), Converters.tryConvert(threeStages, " 5 ").get());
+        assertNull(Converters.tryConvert(fused, null).get());
+
+        for (final ConversionResult<?> failure : Arrays.asList(Converters.tryConvert(fused, "five"), Converters.tryConvert(flat, "five"),
+                                                               Converters.tryConvert(threeStages, " five "))) {
+            assertFalse(failure.isSuccess());
+            assertTrue(failure.getFailureCause() instanceof StacklessConverterException);
+        }
+        final ConversionResult<Integer> outOfRange = Converters.tryConvert(flat, "2147483648");
+        assertFalse(outOfRange.isSuccess());
+    }
+
+    @Test
+    public void stacklessExceptionShouldNotHaveStackTrace() {
+        assertEquals(0, new StacklessConverterException("failure").getStackTrace().length);
+        assertTrue(StacklessConverterException.failure("failure", true) instanceof StacklessConverterException);
+        assertFalse(StacklessConverterException.failure("failure", false) instanceof StacklessConverterException);
+    }
+
+}
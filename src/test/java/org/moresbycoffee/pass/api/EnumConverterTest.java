@@ -0,0 +1,100 @@
+/*
+ * Moresby Coffee Bean
+ *
+ * Copyright (c) 2012, Barnabas Sudy (barnabas.sudy@gmail.com)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.moresbycoffee.pass.api;
+
+import static org.junit.Assert.*;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class EnumConverterTest {
+
+    private enum Mixed { value, VALUE, Other }
+
+    private final EnumConverter<TimeUnit> converter = new EnumConverter<TimeUnit>(TimeUnit.class);
+
+    @Test
+    public void convertShouldIgnoreTheCase() throws ConverterException {
+        for (final TimeUnit unit : TimeUnit.values()) {
+            assertSame(unit, converter.convert(unit.name()));
+            assertSame(unit, converter.convert(unit.name().toLowerCase()));
+        }
+        assertSame(TimeUnit.MILLISECONDS, converter.convert("MilliSeconds"));
+        assertNull(converter.convert(null));
+    }
+
+    @Test(expected = ConverterException.class)
+    public void convertShouldThrowExceptionForUnknownName() throws ConverterException {
+        converter.convert("FORTNIGHTS");
+    }
+
+    @Test
+    public void tryConvertShouldReturnTheFailureOfUnknownName() {
+        assertSame(TimeUnit.SECONDS, converter.tryConvert("seconds").get());
+        assertNull(converter.tryConvert(null).get());
+
+        final ConversionResult<TimeUnit> result = converter.tryConvert("FORTNIGHTS");
+        assertFalse(result.isSuccess());
+        assertNull(result.getFailureCause());
+        assertTrue(result.getFailureMessage().contains("FORTNIGHTS"));
+        assertSame(TimeUnit.DAYS, result.or(TimeUnit.DAYS));
+    }
+
+    @Test
+    public void findShouldReturnNullForUnknownName() {
+        assertNull(converter.find("FORTNIGHTS"));
+        assertNull(converter.find("SECOND"));
+        assertNull(converter.find(""));
+        assertNull(converter.find(null));
+        assertSame(TimeUnit.HOURS, converter.find(new StringBuilder("hours")));
+    }
+
+    @Test
+    public void findShouldReturnTheFirstDeclaredConstantIfNamesOnlyDifferInCase() {
+        final EnumConverter<Mixed> mixed = new EnumConverter<Mixed>(Mixed.class);
+
+        assertSame(Mixed.value, mixed.find("VALUE"));
+        assertSame(Mixed.value, mixed.find("value"));
+        assertSame(Mixed.Other, mixed.find("OTHER"));
+    }
+
+    @Test
+    public void findShouldFoldCaseLikeEqualsIgnoreCase() {
+        final EnumConverter<Kelvin> kelvin = new EnumConverter<Kelvin>(Kelvin.class);
+
+        /* KELVIN SIGN equals to 'k' and DOTLESS I equals to 'i' by String#equalsIgnoreCase. */
+        assertSame(Kelvin.KELVIN, kelvin.find("\u212Aelvin"));
+        assertSame(Kelvin.KELVIN, kelvin.find("kelv\u0131n"));
+        assertNull(kelvin.find("kelv\u00EDn"));
+    }
+
+    private enum Kelvin { KELVIN }
+
+}
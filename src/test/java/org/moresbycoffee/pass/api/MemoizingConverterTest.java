@@ -0,0 +1,114 @@
+/*
+ * Moresby Coffee Bean
+ *
+ * Copyright (c) 2012, Barnabas Sudy (barnabas.sudy@gmail.com)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.moresbycoffee.pass.api;
+
+import static org.junit.Assert.*;
+
+import java.math.BigDecimal;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.google.common.cache.Weigher;
+
+public class MemoizingConverterTest {
+
+    private final AtomicInteger calls = new AtomicInteger();
+
+    private final Converter<String, BigDecimal> counting = new Converter<String, BigDecimal>() {
+        @Override
+        public BigDecimal convert(final String from) {
+            calls.incrementAndGet();
+            return "null".equals(from) ? null : Converters.STRING_TO_BIGDECIMAL.convert(from);
+        }
+    };
+
+    @Test
+    public void repeatedInputShouldBeConvertedOnce() {
+        final MemoizingConverter<String, BigDecimal> converter = Converters.memoize(counting, 100);
+
+        assertEquals(new BigDecimal("1.5"), converter.convert("1.5"));
+        assertEquals(new BigDecimal("1.5"), converter.convert("1.5"));
+        assertNull(converter.convert("null"));
+        assertNull(converter.convert("null"));
+        assertEquals(2, calls.get());
+        assertEquals(2, converter.stats().hitCount());
+        assertEquals(2, converter.stats().missCount());
+    }
+
+    @Test
+    public void failuresShouldNotBeCached() {
+        final MemoizingConverter<String, BigDecimal> converter = Converters.memoize(counting, 100);
+
+        for (int i = 0; i < 2; i++) {
+            try {
+                converter.convert("x");
+                fail();
+            } catch (final ConverterException e) {
+                assertEquals(i + 1, calls.get());
+            }
+        }
+        assertEquals(0, converter.size());
+    }
+
+    @Test
+    public void cacheShouldBeBoundedBySize() {
+        final MemoizingConverter<String, BigDecimal> converter = Converters.memoize(counting, 10);
+
+        for (int i = 0; i < 100; i++) {
+            converter.convert(Integer.toString(i));
+        }
+        assertTrue(converter.size() <= 10);
+        assertTrue(converter.stats().evictionCount() >= 90);
+    }
+
+    @Test
+    public void cacheShouldBeBoundedByWeight() {
+        final MemoizingConverter<String, BigDecimal> converter = Converters.memoize(counting, 20, new Weigher<String, BigDecimal>() {
+            @Override
+            public int weigh(final String key, final BigDecimal value) {
+                return key.length();
+            }
+        });
+
+        for (int i = 0; i < 100; i++) {
+            converter.convert("1000000" + i);
+        }
+        assertTrue(converter.size() <= 2);
+    }
+
+    @Test
+    public void nullInputShouldNotBeCached() {
+        final MemoizingConverter<String, String> converter = Converters.memoize(Converters.TO_UPPERCASE, 10);
+
+        assertNull(converter.convert(null));
+        assertEquals(0, converter.size());
+    }
+
+}
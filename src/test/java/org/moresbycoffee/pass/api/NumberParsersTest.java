@@ -0,0 +1,167 @@
+/*
+ * Moresby Coffee Bean
+ *
+ * Copyright (c) 2012, Barnabas Sudy (barnabas.sudy@gmail.com)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.moresbycoffee.pass.api;
+
+import static org.junit.Assert.*;
+
+import java.math.BigDecimal;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Tests of the {@link NumberParsers}. The results are compared with the JDK implementations.
+ */
+public class NumberParsersTest {
+
+    private static final String[] INT_INPUTS = {
+        "0", "-0", "+7", "42", "-42", "4.0", "4.000", "-4.0", "5.", ".0", "2147483647", "-2147483648", "2147483648", "-2147483649",
+        "4.5", "1e3", "1.5E1", "20000000000e-1", "", "-", "+", ".", "abc", "4a", " 4", "4 ", "0.10", "00000000000000000042",
+        "\u0664\u0662",
+    };
+
+    private static final String[] LONG_INPUTS = {
+        "0", "-0", "+7", "42", "-42", "9223372036854775807", "-9223372036854775808", "9223372036854775808", "-9223372036854775809",
+        "99999999999999999999", "", "-", "+", "4.0", "1e3", " 4", "4 ", "\u0664\u0662",
+    };
+
+    private static final String[] DOUBLE_INPUTS = {
+        "0", "-0", "0.0", "-0.0", "1", "1.5", "-1.5", ".5", "5.", "1e10", "1E-10", "1.7976931348623157E308", "4.9E-324", "1e400",
+        "123456789012345678901234567890", "0.1", "0.30000000000000004", "3.141592653589793", "NaN", "-Infinity", " 1.5 ", "1.5d",
+        "0x1p3", "", ".", "e5", "1e", "1e+", "abc", "1..5", "000000000000000000001.25", "0.000000000000000000000000000123",
+    };
+
+    @Test
+    public void parseIntShouldMatchBigDecimalIntValueExact() {
+        for (final String input : INT_INPUTS) {
+            Integer expected;
+            try {
+                expected = Integer.valueOf(new BigDecimal(input).intValueExact());
+            } catch (final RuntimeException e) {
+                expected = null;
+            }
+            assertEquals(input, expected, parseOrNull(input, 'i'));
+        }
+    }
+
+    @Test
+    public void stacklessFailureShouldDescribeTheInvalidRegion() {
+        for (final CharSequence text : new CharSequence[] { "a 4x2 b", new StringBuilder("a 4x2 b") }) {
+            try {
+                NumberParsers.parseLong(text, 2, 5, true);
+                fail();
+            } catch (final StacklessConverterException e) {
+                assertEquals("Not a valid long: \"4x2\"", e.getMessage());
+                assertEquals(0, e.getStackTrace().length);
+            }
+        }
+    }
+
+    @Test
+    public void parseLongShouldMatchLongParseLong() {
+        for (final String input : LONG_INPUTS) {
+            Long expected;
+            try {
+                expected = Long.valueOf(Long.parseLong(input));
+            } catch (final NumberFormatException e) {
+                expected = null;
+            }
+            assertEquals(input, expected, parseOrNull(input, 'l'));
+        }
+    }
+
+    @Test
+    public void parseDoubleAndFloatShouldMatchTheJdk() {
+        for (final String input : DOUBLE_INPUTS) {
+            assertParsedLikeJdk(input);
+        }
+    }
+
+    @Test
+    public void parseDoubleAndFloatShouldMatchTheJdkOnRandomNumbers() {
+        final Random random = new Random(42);
+        for (int i = 0; i < 100000; i++) {
+            final StringBuilder input = new StringBuilder();
+            if (random.nextBoolean()) {
+                input.append('-');
+            }
+            input.append(random.nextInt(1 + random.nextInt(100000000)));
+            if (random.nextBoolean()) {
+                input.append('.').append(random.nextInt(1 + random.nextInt(100000000)));
+            }
+            if (random.nextInt(4) == 0) {
+                input.append('e').append(random.nextInt(60) - 30);
+            }
+            assertParsedLikeJdk(input.toString());
+            assertParsedLikeJdk(Double.toString(random.nextDouble() * Math.pow(10, random.nextInt(40) - 20)));
+        }
+    }
+
+    @Test
+    public void parseShouldUseTheRegionOfTheText() {
+        final String text = "x=-123.50;y=42";
+
+        assertEquals(-123.5, NumberParsers.parseDouble(text, 2, 9), 0d);
+        assertEquals(42, NumberParsers.parseInt(text, 12, 14));
+        assertEquals(42L, NumberParsers.parseLong(new StringBuilder(text), 12, 14));
+    }
+
+    private static void assertParsedLikeJdk(final String input) {
+        Double expectedDouble;
+        Float expectedFloat;
+        try {
+            expectedDouble = Double.valueOf(Double.parseDouble(input));
+            expectedFloat = Float.valueOf(Float.parseFloat(input));
+        } catch (final NumberFormatException e) {
+            expectedDouble = null;
+            expectedFloat = null;
+        }
+        assertEquals(input, expectedDouble, parseOrNull(input, 'd'));
+        assertEquals(input, expectedFloat, parseOrNull(input, 'f'));
+    }
+
+    /** @return The parsed value or <tt>null</tt> if the parser rejected the input. Boxed values are compared by their bits by equals. */
+    private static Object parseOrNull(final String input, final char type) {
+        try {
+            switch (type) {
+                case 'i':
+                    return Integer.valueOf(NumberParsers.parseInt(input));
+                case 'l':
+                    return Long.valueOf(NumberParsers.parseLong(input));
+                case 'd':
+                    return Double.valueOf(NumberParsers.parseDouble(input));
+                default:
+                    return Float.valueOf(NumberParsers.parseFloat(input));
+            }
+        } catch (final ConverterException e) {
+            return null;
+        }
+    }
+
+}
@@ -0,0 +1,203 @@
+/*
+ * Moresby Coffee Bean
+ *
+ * Copyright (c) 2012, Barnabas Sudy (barnabas.sudy@gmail.com)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.moresbycoffee.pass.api;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Test;
+
+public class ParallelismTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    private final Parallelism parallelism = Parallelism.using(executor).withThreshold(10).withTasks(4);
+
+    @After
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void convertListShouldKeepTheOrder() {
+        final List<String> numbers = new ArrayList<String>();
+        for (int i = 0; i < 10000; i++) {
+            numbers.add(Integer.toString(i));
+        }
+
+        assertEquals(Converters.convertList(Converters.STRING_TO_LONG, numbers), Converters.convertList(Converters.STRING_TO_LONG, numbers, parallelism));
+    }
+
+    @Test
+    public void convertListShouldUseSeveralThreads() {
+        final Set<Thread> threads = Collections.newSetFromMap(new ConcurrentHashMap<Thread, Boolean>());
+        final Converter<Integer, Integer> recordThread = new Converter<Integer, Integer>() {
+            @Override
+            public Integer convert(final Integer from) {
+                threads.add(Thread.currentThread());
+                sleep();
+                return from;
+            }
+        };
+
+        Converters.convertList(recordThread, Collections.nCopies(100, 1), parallelism);
+
+        assertTrue(threads.size() > 1);
+        assertTrue(threads.contains(Thread.currentThread()));
+    }
+
+    @Test
+    public void smallCollectionsShouldBeConvertedOnTheCallingThread() {
+        final Converter<Integer, Thread> currentThread = new Converter<Integer, Thread>() {
+            @Override
+            public Thread convert(final Integer from) {
+                return Thread.currentThread();
+            }
+        };
+
+        assertEquals(Collections.nCopies(9, Thread.currentThread()), Converters.convertList(currentThread, Collections.nCopies(9, 1), parallelism));
+    }
+
+    @Test
+    public void theExceptionOfTheFirstFailingElementShouldBeThrown() {
+        final List<String> numbers = new ArrayList<String>();
+        for (int i = 0; i < 1000; i++) {
+            numbers.add(i % 300 == 299 ? "x" + i : Integer.toString(i));
+        }
+        for (int run = 0; run < 20; run++) {
+            try {
+                Converters.convertList(Converters.STRING_TO_LONG, numbers, parallelism);
+                fail();
+            } catch (final ConverterException e) {
+                assertTrue(e.getMessage(), e.getMessage().contains("x299"));
+            }
+        }
+    }
+
+    @Test
+    public void errorOfTheCallingThreadShouldBeThrownAfterTheTasksAreFinished() {
+        final AtomicInteger running = new AtomicInteger();
+        final Converter<Integer, Integer> failFirst = new RunningCounter(running);
+
+        try {
+            Converters.convertList(failFirst, range(100), parallelism);
+            fail();
+        } catch (final AssertionError e) {
+            assertEquals("0", e.getMessage());
+        }
+        assertEquals(0, running.get());
+    }
+
+    @Test
+    public void rejectedSubmissionShouldBeThrownAfterTheSubmittedTasksAreFinished() {
+        final ExecutorService singleThread = new ThreadPoolExecutor(1, 1, 0, TimeUnit.SECONDS, new SynchronousQueue<Runnable>());
+        final AtomicInteger running = new AtomicInteger();
+        try {
+            Converters.convertList(new RunningCounter(running), range(100), Parallelism.using(singleThread).withThreshold(10).withTasks(4));
+            fail();
+        } catch (final RejectedExecutionException e) {
+            assertEquals(0, running.get());
+        } finally {
+            singleThread.shutdownNow();
+        }
+    }
+
+    @Test
+    public void mapsShouldBeConvertedInParallel() {
+        final Map<Integer, String> map = new LinkedHashMap<Integer, String>();
+        final List<String> values = new ArrayList<String>();
+        for (int i = 0; i < 1000; i++) {
+            map.put(i, Integer.toString(i * 2));
+            values.add(Integer.toString(i % 100));
+        }
+
+        assertEquals(Converters.convertMapValues(Converters.STRING_TO_LONG, map), Converters.convertMapValues(Converters.STRING_TO_LONG, map, parallelism));
+        assertEquals(Converters.extractHashMap(Converters.STRING_TO_LONG, values), Converters.extractHashMap(Converters.STRING_TO_LONG, values, parallelism));
+        assertSame(values.get(999), Converters.extractHashMap(Converters.STRING_TO_LONG, values, parallelism).get(99L));
+    }
+
+    private static List<Integer> range(final int size) {
+        final List<Integer> range = new ArrayList<Integer>(size);
+        for (int i = 0; i < size; i++) {
+            range.add(i);
+        }
+        return range;
+    }
+
+    /**
+     * Counts the running conversions. The conversion of <tt>0</tt> throws an {@link AssertionError}, the others are slow.
+     */
+    private static final class RunningCounter implements Converter<Integer, Integer> {
+
+        private final AtomicInteger running;
+
+        private RunningCounter(final AtomicInteger running) {
+            this.running = running;
+        }
+
+        @Override
+        public Integer convert(final Integer from) {
+            running.incrementAndGet();
+            try {
+                if (from.intValue() == 0) {
+                    throw new AssertionError("0");
+                }
+                sleep();
+                return from;
+            } finally {
+                running.decrementAndGet();
+            }
+        }
+
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(1);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
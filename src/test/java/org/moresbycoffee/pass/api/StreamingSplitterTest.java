@@ -0,0 +1,120 @@
+/*
+ * Moresby Coffee Bean
+ *
+ * Copyright (c) 2012, Barnabas Sudy (barnabas.sudy@gmail.com)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.moresbycoffee.pass.api;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.StringReader;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.Lists;
+
+public class StreamingSplitterTest {
+
+    private static final String[] DELIMITERS = { ",", "::", "aa", "\r\n" };
+
+    private static final String[] INPUTS = {
+        "", ",", ",,,", "a", "a,b", ",a,b", "a,b,", "a,,b,,", "a::b:::c::", "aaa", "aaaaa", "x\r\ny\r\n\r\nz\r\n", "1,22,333,4444,55555,",
+    };
+
+    @Test
+    public void tokensShouldMatchStringSplitWithAnyBufferSize() {
+        for (final String delimiter : DELIMITERS) {
+            for (int bufferSize = delimiter.length() + 1; bufferSize < 8; bufferSize++) {
+                final StreamingSplitter splitter = StreamingSplitter.of(delimiter, bufferSize);
+                for (final String input : INPUTS) {
+                    final List<String> expected = Arrays.asList(input.split(Pattern.quote(delimiter)));
+                    assertEquals(delimiter + " " + input, expected, Lists.newArrayList(splitter.split(new StringReader(input))));
+                    assertEquals(delimiter + " " + input, expected, Lists.newArrayList(splitter.split(CharBuffer.wrap(input))));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void elementsShouldBeConvertedLazily() {
+        final Iterator<Long> numbers = StreamingSplitter.of("\n").elements(Converters.STRING_TO_LONG).convert(new StringReader("1\n2\nx\n"));
+
+        assertEquals(Long.valueOf(1), numbers.next());
+        assertEquals(Long.valueOf(2), numbers.next());
+        try {
+            numbers.next();
+            fail();
+        } catch (final ConverterException e) {
+            assertFalse(numbers.hasNext());
+        }
+    }
+
+    @Test
+    public void mappedFileShouldBeSplitAcrossMultiByteCharacters() throws IOException {
+        final StringBuilder content = new StringBuilder();
+        final List<String> expected = new ArrayList<String>();
+        for (int i = 0; i < 10000; i++) {
+            final String record = "r\u00e9cord-\u65e5\ud83d\ude00-" + i;
+            expected.add(record);
+            content.append(record).append('\n');
+        }
+        final File file = File.createTempFile("streaming-splitter", ".txt");
+        file.deleteOnExit();
+        final FileOutputStream out = new FileOutputStream(file);
+        try {
+            out.write("header\n".getBytes(Charsets.UTF_8));
+            out.write(content.toString().getBytes(Charsets.UTF_8));
+        } finally {
+            out.close();
+        }
+        final RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+        try {
+            final FileChannel channel = randomAccessFile.getChannel();
+            final Iterator<String> tokens = StreamingSplitter.of("\n", 5).split(channel, 7, channel.size() - 7, Charsets.UTF_8);
+            assertEquals(expected, Lists.newArrayList(tokens));
+        } finally {
+            randomAccessFile.close();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void emptyDelimiterShouldBeRejected() {
+        StreamingSplitter.of("");
+    }
+
+}
@@ -0,0 +1,98 @@
+/*
+ * Moresby Coffee Bean
+ *
+ * Copyright (c) 2012, Barnabas Sudy (barnabas.sudy@gmail.com)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.moresbycoffee.pass.api;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+public class StringSplitterTest {
+
+    private static final String[] REGEXES = { ",", "\\|", "::", "aa", "\\s+", ",\\s*", "(?=b)", "" };
+
+    private static final String[] INPUTS = {
+        "", ",", ",,,", "a", "a,b", ",a,b", "a,b,", "a,,b,,", "a|b||c|", "a::b:::c::", "aaa", "aaaa", "x aa y  z ", "a, b,c ,  d",
+        "abcb", "b", " a b ",
+    };
+
+    @Test
+    public void convertShouldReturnTheSameTokensAsStringSplit() throws ConverterException {
+        for (final String regex : REGEXES) {
+            final StringSplitter splitter = StringSplitter.of(regex);
+            for (final String input : INPUTS) {
+                assertArrayEquals(regex + " " + input, input.split(regex), splitter.convert(input));
+                assertArrayEquals(regex + " " + input, input.split(regex), toStrings(splitter.split(new StringBuilder(input))));
+            }
+        }
+    }
+
+    @Test
+    public void handlerShouldReceiveAllTokensWithoutCopying() throws ConverterException {
+        for (final String regex : REGEXES) {
+            for (final String input : INPUTS) {
+                final List<String> tokens = new ArrayList<String>();
+                final int count = StringSplitter.of(regex).split(input, new StringSplitter.TokenHandler() {
+                    @Override
+                    public void token(final CharSequence source, final int start, final int end) {
+                        tokens.add(source.subSequence(start, end).toString());
+                    }
+                });
+                assertEquals(tokens.size(), count);
+                assertArrayEquals(regex + " " + input, input.split(regex, -1), tokens.toArray());
+            }
+        }
+    }
+
+    @Test(expected = ConverterException.class)
+    public void handlerExceptionShouldStopSplitting() throws ConverterException {
+        StringSplitter.of(",").split("a,b", new StringSplitter.TokenHandler() {
+            @Override
+            public void token(final CharSequence source, final int start, final int end) throws ConverterException {
+                throw new ConverterException("stop");
+            }
+        });
+    }
+
+    @Test
+    public void splitterShouldHandleNull() throws ConverterException {
+        assertNull(Converters.splitter(",").convert(null));
+    }
+
+    private static String[] toStrings(final List<CharSequence> views) {
+        final String[] result = new String[views.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = views.get(i).toString();
+        }
+        return result;
+    }
+
+}
@@ -0,0 +1,135 @@
+/*
+ * Moresby Coffee Bean
+ *
+ * Copyright (c) 2012, Barnabas Sudy (barnabas.sudy@gmail.com)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *     * Redistributions of source code must retain the above copyright
+ *       notice, this list of conditions and the following disclaimer.
+ *     * Redistributions in binary form must reproduce the above copyright
+ *       notice, this list of conditions and the following disclaimer in the
+ *       documentation and/or other materials provided with the distribution.
+ *     * Neither the name of the <organization> nor the
+ *       names of its contributors may be used to endorse or promote products
+ *       derived from this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL <COPYRIGHT HOLDER> BE LIABLE FOR ANY
+ * DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ * (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ * LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ * ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ * (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ * SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package org.moresbycoffee.pass.api;
+
+import static org.junit.Assert.*;
+
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+import com.google.common.base.Charsets;
+
+public class Utf8Test {
+
+    private static final String[] TEXTS = {
+        "", "ascii only", "\u00e1rv\u00edzt\u0171r\u0151 t\u00fck\u00f6rf\u00far\u00f3g\u00e9p", "\u65e5\u672c\u8a9e", "emoji \ud83d\ude00!",
+        "unpaired \ud83d high", "unpaired \ude00 low", "\ud83d", "end \ud83d", "\u0000\u007f\u0080\u07ff\u0800\uffff",
+    };
+
+    @Test
+    public void encodeShouldMatchTheJdk() {
+        for (final String text : TEXTS) {
+            final byte[] expected = text.getBytes(Charsets.UTF_8);
+            assertArrayEquals(text, expected, Utf8.encode(text));
+            assertEquals(text, expected.length, Utf8.encodedLength(text));
+
+            final byte[] array = new byte[expected.length + 2];
+            assertEquals(expected.length + 1, Utf8.encode(text, array, 1));
+            assertArrayEquals(expected, Arrays.copyOfRange(array, 1, expected.length + 1));
+
+            for (final ByteBuffer buffer : new ByteBuffer[] { ByteBuffer.allocate(expected.length + 1), ByteBuffer.allocateDirect(expected.length + 1) }) {
+                buffer.put((byte) 1);
+                Utf8.encode(text, buffer);
+                assertEquals(expected.length + 1, buffer.position());
+                final byte[] written = new byte[expected.length];
+                ((Buffer) buffer).position(1);
+                buffer.get(written);
+                assertArrayEquals(expected, written);
+            }
+        }
+    }
+
+    @Test
+    public void decodeShouldMatchTheJdk() {
+        for (final String text : TEXTS) {
+            final byte[] bytes = text.getBytes(Charsets.UTF_8);
+            assertEquals(new String(bytes, Charsets.UTF_8), Utf8.decode(bytes, 0, bytes.length));
+            assertEquals(new String(bytes, Charsets.UTF_8), Utf8.decode(ByteBuffer.wrap(bytes)));
+        }
+    }
+
+    @Test
+    public void decodeShouldReplaceMalformedInputLikeTheJdk() {
+        final Random random = new Random(42);
+        for (int i = 0; i < 10000; i++) {
+            final byte[] bytes = new byte[random.nextInt(8)];
+            random.nextBytes(bytes);
+            assertEquals(Arrays.toString(bytes), new String(bytes, Charsets.UTF_8), Utf8.decode(bytes, 0, bytes.length));
+        }
+        final byte[] overlong = { (byte) 0xC0, (byte) 0xAF };
+        assertEquals(new String(overlong, Charsets.UTF_8), Utf8.decode(overlong, 0, 2));
+        final byte[] surrogate = { (byte) 0xED, (byte) 0xA0, (byte) 0x80 };
+        assertEquals(new String(surrogate, Charsets.UTF_8), Utf8.decode(surrogate, 0, 3));
+    }
+
+    @Test
+    public void encodeShouldWriteLargeTextInChunks() {
+        final StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            text.append("chunk \u00e9\u65e5\ud83d\ude00 ").append(i);
+        }
+        final byte[] expected = text.toString().getBytes(Charsets.UTF_8);
+        for (final ByteBuffer buffer : new ByteBuffer[] { ByteBuffer.allocate(7), ByteBuffer.allocateDirect(7) }) {
+            final ByteBuffer result = ByteBuffer.allocate(expected.length);
+            int index = 0;
+            while (index < text.length()) {
+                index = Utf8.encode(text, index, text.length(), buffer);
+                ((Buffer) buffer).flip();
+                result.put(buffer);
+                buffer.compact();
+            }
+            assertArrayEquals(expected, result.array());
+        }
+    }
+
+    @Test
+    public void encodeShouldNotWriteIfTheTextDoesNotFit() {
+        final byte[] array = new byte[4];
+        try {
+            Utf8.encode("\u65e5\u672c", array, 0);
+            fail();
+        } catch (final IndexOutOfBoundsException e) {
+            assertArrayEquals(new byte[4], array);
+        }
+        assertEquals(4, Utf8.encode("ab\u00e9", array, 0));
+    }
+
+    @Test
+    public void convertersShouldRoundTrip() throws ConverterException {
+        for (final String text : TEXTS) {
+            assertEquals(new String(text.getBytes(Charsets.UTF_8), Charsets.UTF_8), Converters.UTF8_TO_STRING.convert(Converters.STRING_TO_UTF8.convert(text)));
+        }
+        assertNull(Converters.UTF8_TO_STRING.convert(null));
+    }
+
+}